@@ -0,0 +1,600 @@
+package com.sulimann.restclient.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Gera {@code <Classe>_GsonAdapter} para cada classe com {@code @GenerateGsonAdapter}. O adapter gerado lê e
+ * escreve os campos direto (ou pelos getters e setters), com o mesmo JSON do adapter reflexivo do Gson:
+ * mesmos nomes, {@code @SerializedName} com alternativos, {@code @Expose} quando o Gson foi criado com
+ * {@code excludeFieldsWithoutExposeAnnotation}, campos {@code static} e {@code transient} de fora. Tipos que
+ * não são primitivos nem {@code String} usam o adapter que o próprio Gson entrega, então datas, enums e
+ * {@code byte[]} seguem a configuração do {@code JSONUtilitiesV2}.
+ * <p>
+ * A anotação é referenciada pelo nome para o processador não depender do projeto.
+ */
+@SupportedAnnotationTypes(GsonAdapterProcessor.ANNOTATION)
+public final class GsonAdapterProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "com.sulimann.restclient.utils.json.GenerateGsonAdapter";
+    static final String SUFFIX = "_GsonAdapter";
+
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    private static final String EXPOSE = "com.google.gson.annotations.Expose";
+    private static final String JSON_ADAPTER = "com.google.gson.annotations.JsonAdapter";
+    private static final String LOMBOK_DATA = "lombok.Data";
+    private static final String LOMBOK_GETTER = "lombok.Getter";
+    private static final String LOMBOK_SETTER = "lombok.Setter";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                try {
+                    generate(validate(element));
+                } catch (InvalidDtoException e) {
+                    error(e.element, e.getMessage());
+                } catch (IOException e) {
+                    error(element, "Não foi possível gerar o adapter: " + e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private TypeElement validate(Element element) throws InvalidDtoException {
+        if (element.getKind() != ElementKind.CLASS) {
+            throw new InvalidDtoException(element, "@GenerateGsonAdapter só vale para classes");
+        }
+        TypeElement type = (TypeElement) element;
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new InvalidDtoException(type, "Classe abstrata não pode ter adapter gerado");
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new InvalidDtoException(type, "Classe genérica não pode ter adapter gerado");
+        }
+        for (Element current = type; current instanceof TypeElement nested; current = current.getEnclosingElement()) {
+            if (nested.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new InvalidDtoException(nested, "Classe privada não é visível para o adapter gerado");
+            }
+            if (nested.getNestingKind() == NestingKind.MEMBER && !nested.getModifiers().contains(Modifier.STATIC)
+                    && nested.getKind() == ElementKind.CLASS) {
+                throw new InvalidDtoException(nested, "Classe interna precisa ser static");
+            }
+        }
+        boolean hasConstructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty()
+                        && !constructor.getModifiers().contains(Modifier.PRIVATE));
+        if (!hasConstructor) {
+            throw new InvalidDtoException(type, "Falta um construtor sem argumentos não privado");
+        }
+        return type;
+    }
+
+    private void generate(TypeElement type) throws IOException, InvalidDtoException {
+        String packageName = packageOf(type).getQualifiedName().toString();
+        String adapterName = flatName(type) + SUFFIX;
+        List<Property> properties = properties(type, packageName);
+
+        StringBuilder code = new StringBuilder(4096);
+        if (!packageName.isEmpty()) {
+            code.append("package ").append(packageName).append(";\n\n");
+        }
+        code.append("import java.io.IOException;\n\n")
+            .append("import javax.annotation.processing.Generated;\n\n")
+            .append("import com.google.gson.Gson;\n")
+            .append("import com.google.gson.JsonSyntaxException;\n")
+            .append("import com.google.gson.TypeAdapter;\n")
+            .append("import com.google.gson.reflect.TypeToken;\n")
+            .append("import com.google.gson.stream.JsonReader;\n")
+            .append("import com.google.gson.stream.JsonToken;\n")
+            .append("import com.google.gson.stream.JsonWriter;\n\n");
+        String dto = type.getQualifiedName().toString();
+        code.append("@Generated(\"").append(GsonAdapterProcessor.class.getName()).append("\")\n")
+            .append("public final class ").append(adapterName).append(" extends TypeAdapter<").append(dto).append("> {\n\n")
+            .append("    private final boolean exposeOnly;\n")
+            .append("    private final TypeAdapter<Double> doubleAdapter;\n");
+        for (Property property : properties) {
+            if (property.kind == ValueKind.ADAPTER) {
+                code.append("    private final TypeAdapter<").append(property.boxedType).append("> ")
+                    .append(property.adapterField()).append(";\n");
+            }
+        }
+        code.append("\n    public ").append(adapterName).append("(Gson gson, boolean exposeOnly) {\n")
+            .append("        this.exposeOnly = exposeOnly;\n")
+            .append("        this.doubleAdapter = gson.getAdapter(double.class);\n");
+        for (Property property : properties) {
+            if (property.kind == ValueKind.ADAPTER) {
+                code.append("        this.").append(property.adapterField()).append(" = gson.getAdapter(")
+                    .append(property.typeToken).append(");\n");
+            }
+        }
+        code.append("    }\n\n");
+        writeMethod(code, dto, properties);
+        readMethod(code, dto, properties);
+        helpers(code);
+        code.append("}\n");
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                (packageName.isEmpty() ? "" : packageName + ".") + adapterName, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(code.toString());
+        }
+    }
+
+    private void writeMethod(StringBuilder code, String dto, List<Property> properties) {
+        code.append("    @Override\n")
+            .append("    public void write(JsonWriter out, ").append(dto).append(" value) throws IOException {\n")
+            .append("        if (value == null) {\n")
+            .append("            out.nullValue();\n")
+            .append("            return;\n")
+            .append("        }\n")
+            .append("        out.beginObject();\n");
+        for (Property property : properties) {
+            String indent = "        ";
+            boolean guarded = !property.serializeWhenExposeOnly();
+            if (guarded) {
+                code.append(indent).append("if (!this.exposeOnly) {\n");
+                indent += "    ";
+            }
+            code.append(indent).append("out.name(\"").append(escape(property.jsonName)).append("\");\n");
+            String read = property.reader;
+            switch (property.kind) {
+                case BOOLEAN, INT, LONG -> code.append(indent).append("out.value(").append(read).append(");\n");
+                case DOUBLE -> code.append(indent).append("writeDouble(out, ").append(read).append(");\n");
+                case STRING -> code.append(indent).append("out.value(").append(read).append(");\n");
+                case ADAPTER -> code.append(indent).append("writeValue(out, this.").append(property.adapterField())
+                                    .append(", ").append(read).append(");\n");
+            }
+            if (guarded) {
+                code.append("        }\n");
+            }
+        }
+        code.append("        out.endObject();\n")
+            .append("    }\n\n");
+    }
+
+    private void readMethod(StringBuilder code, String dto, List<Property> properties) {
+        code.append("    @Override\n")
+            .append("    public ").append(dto).append(" read(JsonReader in) throws IOException {\n")
+            .append("        if (in.peek() == JsonToken.NULL) {\n")
+            .append("            in.nextNull();\n")
+            .append("            return null;\n")
+            .append("        }\n")
+            .append("        ").append(dto).append(" value = new ").append(dto).append("();\n")
+            .append("        in.beginObject();\n")
+            .append("        while (in.hasNext()) {\n")
+            .append("            switch (in.nextName()) {\n");
+        for (Property property : properties) {
+            for (String name : property.names()) {
+                code.append("                case \"").append(escape(name)).append("\":\n");
+            }
+            String indent = "                    ";
+            if (!property.deserializeWhenExposeOnly()) {
+                code.append(indent).append("if (this.exposeOnly) {\n")
+                    .append(indent).append("    in.skipValue();\n")
+                    .append(indent).append("    break;\n")
+                    .append(indent).append("}\n");
+            }
+            switch (property.kind) {
+                case BOOLEAN, INT, LONG, DOUBLE -> {
+                    String reader = switch (property.kind) {
+                        case BOOLEAN -> "readBoolean(in)";
+                        case INT -> "readInt(in)";
+                        case LONG -> "readLong(in)";
+                        default -> "readDouble(in)";
+                    };
+                    code.append(indent).append("if (in.peek() == JsonToken.NULL) {\n")
+                        .append(indent).append("    in.nextNull();\n")
+                        .append(indent).append("} else {\n")
+                        .append(indent).append("    ").append(property.assign(reader)).append(";\n")
+                        .append(indent).append("}\n");
+                }
+                case STRING -> code.append(indent).append(property.assign("readString(in)")).append(";\n");
+                case ADAPTER -> {
+                    String read = property.assign("this." + property.adapterField() + ".read(in)");
+                    if (property.primitive) {
+                        code.append(indent).append("if (in.peek() == JsonToken.NULL) {\n")
+                            .append(indent).append("    in.nextNull();\n")
+                            .append(indent).append("} else {\n")
+                            .append(indent).append("    ").append(read).append(";\n")
+                            .append(indent).append("}\n");
+                    } else {
+                        code.append(indent).append(read).append(";\n");
+                    }
+                }
+            }
+            code.append(indent).append("break;\n");
+        }
+        code.append("                default:\n")
+            .append("                    in.skipValue();\n")
+            .append("            }\n")
+            .append("        }\n")
+            .append("        in.endObject();\n")
+            .append("        return value;\n")
+            .append("    }\n\n");
+    }
+
+    /**
+     * Mesmas conversões dos adapters de primitivos e {@code String} do Gson: números aceitam texto numérico,
+     * {@code boolean} aceita {@code "true"}/{@code "false"} e {@code NaN}/infinito passam pelo adapter de
+     * {@code double} do Gson, que só os escreve com {@code serializeSpecialFloatingPointValues()}.
+     */
+    private static void helpers(StringBuilder code) {
+        code.append("    private void writeDouble(JsonWriter out, double value) throws IOException {\n")
+            .append("        if (Double.isNaN(value) || Double.isInfinite(value)) {\n")
+            .append("            this.doubleAdapter.write(out, value);\n")
+            .append("        } else {\n")
+            .append("            out.value(value);\n")
+            .append("        }\n")
+            .append("    }\n\n")
+            .append("    private static <T> void writeValue(JsonWriter out, TypeAdapter<T> adapter, T value) throws IOException {\n")
+            .append("        if (value == null) {\n")
+            .append("            out.nullValue();\n")
+            .append("            return;\n")
+            .append("        }\n")
+            .append("        adapter.write(out, value);\n")
+            .append("    }\n\n")
+            .append("    private static String readString(JsonReader in) throws IOException {\n")
+            .append("        JsonToken token = in.peek();\n")
+            .append("        if (token == JsonToken.NULL) {\n")
+            .append("            in.nextNull();\n")
+            .append("            return null;\n")
+            .append("        }\n")
+            .append("        return token == JsonToken.BOOLEAN ? Boolean.toString(in.nextBoolean()) : in.nextString();\n")
+            .append("    }\n\n")
+            .append("    private static boolean readBoolean(JsonReader in) throws IOException {\n")
+            .append("        return in.peek() == JsonToken.STRING ? Boolean.parseBoolean(in.nextString()) : in.nextBoolean();\n")
+            .append("    }\n\n")
+            .append("    private static int readInt(JsonReader in) throws IOException {\n")
+            .append("        try {\n")
+            .append("            return in.nextInt();\n")
+            .append("        } catch (NumberFormatException e) {\n")
+            .append("            throw new JsonSyntaxException(e);\n")
+            .append("        }\n")
+            .append("    }\n\n")
+            .append("    private static long readLong(JsonReader in) throws IOException {\n")
+            .append("        try {\n")
+            .append("            return in.nextLong();\n")
+            .append("        } catch (NumberFormatException e) {\n")
+            .append("            throw new JsonSyntaxException(e);\n")
+            .append("        }\n")
+            .append("    }\n\n")
+            .append("    private static double readDouble(JsonReader in) throws IOException {\n")
+            .append("        try {\n")
+            .append("            return in.nextDouble();\n")
+            .append("        } catch (NumberFormatException e) {\n")
+            .append("            throw new JsonSyntaxException(e);\n")
+            .append("        }\n")
+            .append("    }\n\n");
+    }
+
+    /**
+     * Campos na ordem do Gson: os da própria classe e depois os das superclasses.
+     */
+    private List<Property> properties(TypeElement type, String packageName) throws InvalidDtoException {
+        Map<String, Property> byName = new LinkedHashMap<>();
+        List<Property> properties = new ArrayList<>();
+        for (TypeElement current = type; current != null; current = superclass(current)) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                if (annotation(field, JSON_ADAPTER) != null) {
+                    throw new InvalidDtoException(field, "@JsonAdapter em campo não é suportado pelo adapter gerado");
+                }
+                Property property = property(type, current, field, packageName);
+                for (String name : property.names()) {
+                    if (byName.putIfAbsent(name, property) != null) {
+                        throw new InvalidDtoException(field, "Nome JSON \"" + name + "\" declarado mais de uma vez");
+                    }
+                }
+                property.adapterField = property.fieldName + "Adapter" + properties.size();
+                properties.add(property);
+            }
+        }
+        return properties;
+    }
+
+    private Property property(TypeElement dto, TypeElement owner, VariableElement field, String packageName)
+            throws InvalidDtoException {
+        Property property = new Property();
+        String fieldName = field.getSimpleName().toString();
+        property.fieldName = fieldName;
+        property.jsonName = fieldName;
+        AnnotationMirror serializedName = annotation(field, SERIALIZED_NAME);
+        if (serializedName != null) {
+            property.jsonName = (String) value(serializedName, "value");
+            Object alternates = value(serializedName, "alternate");
+            if (alternates instanceof List<?> list) {
+                for (Object alternate : list) {
+                    property.alternates.add((String) ((AnnotationValue) alternate).getValue());
+                }
+            }
+        }
+        AnnotationMirror expose = annotation(field, EXPOSE);
+        if (expose != null) {
+            property.exposed = true;
+            property.exposeSerialize = !Boolean.FALSE.equals(value(expose, "serialize"));
+            property.exposeDeserialize = !Boolean.FALSE.equals(value(expose, "deserialize"));
+        }
+
+        TypeMirror type = field.asType();
+        property.primitive = type.getKind().isPrimitive();
+        property.kind = switch (type.getKind()) {
+            case BOOLEAN -> ValueKind.BOOLEAN;
+            case INT -> ValueKind.INT;
+            case LONG -> ValueKind.LONG;
+            case DOUBLE -> ValueKind.DOUBLE;
+            default -> "java.lang.String".equals(typeName(field, type)) ? ValueKind.STRING : ValueKind.ADAPTER;
+        };
+        if (property.kind == ValueKind.ADAPTER) {
+            String name = typeName(field, boxed(type));
+            property.boxedType = name;
+            property.typeToken = name.indexOf('<') < 0 ? name + ".class" : "new TypeToken<" + name + ">() {}";
+        }
+
+        boolean fieldVisible = visible(field, owner, packageName);
+        String capitalized = capitalize(fieldName);
+        boolean booleanField = type.getKind() == TypeKind.BOOLEAN;
+        String getter = booleanField
+                ? (fieldName.length() > 2 && fieldName.startsWith("is") && Character.isUpperCase(fieldName.charAt(2))
+                        ? fieldName : "is" + capitalized)
+                : "get" + capitalized;
+        String setter = "set" + (booleanField && getter.equals(fieldName) ? fieldName.substring(2) : capitalized);
+
+        String target = owner.equals(dto) ? "value" : "((" + owner.getQualifiedName() + ") value)";
+        if (fieldVisible) {
+            property.reader = target + "." + fieldName;
+        } else if (hasMethod(owner, getter, 0, packageName) || lombok(owner, field, LOMBOK_GETTER)) {
+            property.reader = "value." + getter + "()";
+        } else {
+            throw new InvalidDtoException(field, "Campo " + fieldName + " privado e sem getter visível");
+        }
+        if (fieldVisible && !field.getModifiers().contains(Modifier.FINAL)) {
+            property.writer = target + "." + fieldName + " = %s";
+        } else if (hasMethod(owner, setter, 1, packageName) || (!field.getModifiers().contains(Modifier.FINAL)
+                && lombok(owner, field, LOMBOK_SETTER))) {
+            property.writer = "value." + setter + "(%s)";
+        } else {
+            throw new InvalidDtoException(field, "Campo " + fieldName + " sem acesso de escrita (final, ou privado sem setter)");
+        }
+        return property;
+    }
+
+    private TypeMirror boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).asType();
+        }
+        return type;
+    }
+
+    /**
+     * Nome do tipo para o código gerado, sem as anotações de uso de tipo que o {@code toString()} incluiria.
+     */
+    private String typeName(Element field, TypeMirror type) throws InvalidDtoException {
+        switch (type.getKind()) {
+            case DECLARED: {
+                DeclaredType declared = (DeclaredType) type;
+                StringBuilder name = new StringBuilder(((TypeElement) declared.asElement()).getQualifiedName());
+                if (!declared.getTypeArguments().isEmpty()) {
+                    name.append('<');
+                    for (int i = 0; i < declared.getTypeArguments().size(); i++) {
+                        if (i > 0) {
+                            name.append(", ");
+                        }
+                        name.append(typeName(field, declared.getTypeArguments().get(i)));
+                    }
+                    name.append('>');
+                }
+                return name.toString();
+            }
+            case ARRAY:
+                return typeName(field, ((ArrayType) type).getComponentType()) + "[]";
+            case WILDCARD: {
+                WildcardType wildcard = (WildcardType) type;
+                if (wildcard.getExtendsBound() != null) {
+                    return "? extends " + typeName(field, wildcard.getExtendsBound());
+                }
+                if (wildcard.getSuperBound() != null) {
+                    return "? super " + typeName(field, wildcard.getSuperBound());
+                }
+                return "?";
+            }
+            case BOOLEAN, BYTE, SHORT, INT, LONG, CHAR, FLOAT, DOUBLE:
+                return type.getKind().name().toLowerCase(Locale.ROOT);
+            default:
+                throw new InvalidDtoException(field, "Tipo " + type + " não suportado pelo adapter gerado");
+        }
+    }
+
+    private TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return "java.lang.Object".contentEquals(element.getQualifiedName()) ? null : element;
+    }
+
+    private boolean visible(Element member, TypeElement owner, String packageName) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        if (modifiers.contains(Modifier.PUBLIC) && owner.getModifiers().contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return packageOf(owner).getQualifiedName().contentEquals(packageName);
+    }
+
+    private boolean hasMethod(TypeElement owner, String name, int parameters, String packageName) {
+        for (TypeElement current = owner; current != null; current = superclass(current)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+                if (method.getSimpleName().contentEquals(name) && method.getParameters().size() == parameters
+                        && !method.getModifiers().contains(Modifier.STATIC) && visible(method, current, packageName)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Getters e setters do Lombok ainda podem não existir na árvore quando este processador roda; a anotação basta.
+     */
+    private static boolean lombok(TypeElement owner, VariableElement field, String accessor) {
+        return annotation(field, accessor) != null || annotation(owner, accessor) != null
+                || annotation(owner, LOMBOK_DATA) != null;
+    }
+
+    private static AnnotationMirror annotation(Element element, String qualifiedName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(qualifiedName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static Object value(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private static PackageElement packageOf(Element element) {
+        Element current = element;
+        while (!(current instanceof PackageElement)) {
+            current = current.getEnclosingElement();
+        }
+        return (PackageElement) current;
+    }
+
+    /**
+     * {@code Externa_Interna}: o mesmo nome que o {@code GeneratedAdapterFactory} monta a partir do nome binário.
+     */
+    private static String flatName(TypeElement type) {
+        String name = type.getSimpleName().toString();
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing instanceof TypeElement outer) {
+            name = outer.getSimpleName() + "_" + name;
+            enclosing = outer.getEnclosingElement();
+        }
+        return name;
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private enum ValueKind {
+        BOOLEAN,
+        INT,
+        LONG,
+        DOUBLE,
+        STRING,
+        ADAPTER;
+    }
+
+    private static final class Property {
+
+        private String fieldName;
+        private String jsonName;
+        private final List<String> alternates = new ArrayList<>();
+        private boolean exposed;
+        private boolean exposeSerialize;
+        private boolean exposeDeserialize;
+        private ValueKind kind;
+        private boolean primitive;
+        private String boxedType;
+        private String typeToken;
+        private String reader;
+        private String writer;
+        private String adapterField;
+
+        private List<String> names() {
+            List<String> names = new ArrayList<>(1 + this.alternates.size());
+            names.add(this.jsonName);
+            names.addAll(this.alternates);
+            return names;
+        }
+
+        private String adapterField() {
+            return this.adapterField;
+        }
+
+        private String assign(String expression) {
+            return String.format(this.writer, expression);
+        }
+
+        private boolean serializeWhenExposeOnly() {
+            return this.exposed && this.exposeSerialize;
+        }
+
+        private boolean deserializeWhenExposeOnly() {
+            return this.exposed && this.exposeDeserialize;
+        }
+    }
+
+    private static final class InvalidDtoException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Element element;
+
+        private InvalidDtoException(Element element, String message) {
+            super(message);
+            this.element = element;
+        }
+    }
+
+}
@@ -0,0 +1,347 @@
+package com.sulimann.restclient.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+class GsonAdapterProcessorTest {
+
+	private static final Map<String, String> SOURCES = new LinkedHashMap<>();
+
+	static {
+		SOURCES.put("com/sulimann/restclient/utils/json/GenerateGsonAdapter.java", """
+				package com.sulimann.restclient.utils.json;
+
+				@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+				@java.lang.annotation.Target(java.lang.annotation.ElementType.TYPE)
+				public @interface GenerateGsonAdapter {
+				}
+				""");
+		SOURCES.put("exemplo/Base.java", """
+				package exemplo;
+
+				public class Base {
+				    public String tenant;
+				}
+				""");
+		SOURCES.put("exemplo/Pedido.java", """
+				package exemplo;
+
+				import java.util.Date;
+				import java.util.List;
+				import java.util.Map;
+
+				import com.google.gson.annotations.Expose;
+				import com.google.gson.annotations.SerializedName;
+				import com.sulimann.restclient.utils.json.GenerateGsonAdapter;
+
+				@GenerateGsonAdapter
+				public class Pedido extends Base {
+
+				    public static String CONSTANTE = "fora";
+
+				    @Expose
+				    @SerializedName(value = "numero_pedido", alternate = { "numero", "id_pedido" })
+				    public long numero;
+				    @Expose(serialize = false)
+				    public String observacao;
+				    @Expose(deserialize = false)
+				    public String origem;
+				    public String interno;
+				    transient String cache;
+				    public double total;
+				    public int itens;
+				    public boolean pago;
+				    public Integer parcelas;
+				    public Date criadoEm;
+				    public Status status;
+				    public byte[] assinatura;
+				    public List<Item> linhas;
+				    public Map<String, Integer> extras;
+				    private String cliente;
+
+				    public String getCliente() {
+				        return this.cliente;
+				    }
+
+				    public void setCliente(String cliente) {
+				        this.cliente = cliente;
+				    }
+
+				    public enum Status {
+				        ABERTO,
+				        @SerializedName("quitado")
+				        PAGO
+				    }
+
+				    @GenerateGsonAdapter
+				    public static class Item {
+				        @Expose
+				        public String sku;
+				        @Expose
+				        public Integer quantidade;
+				    }
+				}
+				""");
+	}
+
+	/**
+	 * Enums pela posição, para o JSON sair diferente do adapter padrão de enums do Gson.
+	 */
+	private static final TypeAdapterFactory ENUM_ORDINAL = new TypeAdapterFactory() {
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+			Object[] constants = type.getRawType().getEnumConstants();
+			if (constants == null) {
+				return null;
+			}
+			return new TypeAdapter<T>() {
+				@Override
+				public void write(JsonWriter out, T value) throws IOException {
+					out.value(((Enum<?>) value).ordinal());
+				}
+
+				@Override
+				public T read(JsonReader in) throws IOException {
+					return (T) constants[in.nextInt()];
+				}
+			}.nullSafe();
+		}
+	};
+
+	private static Class<?> pedido;
+
+	@BeforeAll
+	static void compila(@TempDir Path dir) throws Exception {
+		Path src = dir.resolve("src");
+		Path classes = Files.createDirectories(dir.resolve("classes"));
+		List<Path> files = new ArrayList<>();
+		for (Map.Entry<String, String> source : SOURCES.entrySet()) {
+			Path file = src.resolve(source.getKey());
+			Files.createDirectories(file.getParent());
+			files.add(Files.writeString(file, source.getValue()));
+		}
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8)) {
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+					List.of("-classpath", System.getProperty("java.class.path"), "-d", classes.toString(), "-s", classes.toString()),
+					null, fileManager.getJavaFileObjectsFromPaths(files));
+			task.setProcessors(List.of(new GsonAdapterProcessor()));
+
+			assertThat(task.call()).as("%s", diagnostics.getDiagnostics()).isTrue();
+		}
+		assertThat(classes.resolve("exemplo/Pedido_GsonAdapter.java")).exists();
+		assertThat(classes.resolve("exemplo/Pedido_Item_GsonAdapter.java")).exists();
+
+		URLClassLoader loader = new URLClassLoader(new URL[] { classes.toUri().toURL() },
+				GsonAdapterProcessorTest.class.getClassLoader());
+		pedido = loader.loadClass("exemplo.Pedido");
+	}
+
+	@Test
+	void geradoEscreveOMesmoJsonDoReflexivo() throws Exception {
+		assertSameJson(builder -> builder, false);
+		assertSameJson(GsonBuilder::serializeNulls, false);
+	}
+
+	@Test
+	void exposeRespeitaSerializeEDeserialize() throws Exception {
+		assertSameJson(GsonBuilder::excludeFieldsWithoutExposeAnnotation, true);
+
+		Gson gerado = generated(new GsonBuilder().excludeFieldsWithoutExposeAnnotation(), true);
+		Object lido = gerado.fromJson("{\"numero_pedido\":1,\"observacao\":\"lida\",\"origem\":\"ignorada\",\"interno\":\"x\"}",
+				pedido);
+		assertThat(field(lido, "observacao")).isEqualTo("lida");
+		assertThat(field(lido, "origem")).isNull();
+		assertThat(field(lido, "interno")).isNull();
+	}
+
+	@Test
+	void datasEnumsEByteArraySeguemOsAdaptersDoGson() throws Exception {
+		assertSameJson(GsonAdapterProcessorTest::politicas, false);
+
+		String json = generated(politicas(new GsonBuilder()), false).toJson(exemplo());
+		assertThat(json).contains("\"criadoEm\":1700000000000", "\"status\":1",
+				"\"assinatura\":\"" + Base64.getEncoder().encodeToString(new byte[] { 1, 2, 3 }) + "\"");
+	}
+
+	@Test
+	void nomesAlternativosValemNaLeitura() throws Exception {
+		Gson gerado = generated(new GsonBuilder(), false);
+		Gson reflexivo = new GsonBuilder().create();
+
+		for (String nome : List.of("numero_pedido", "numero", "id_pedido")) {
+			String json = "{\"" + nome + "\":7,\"cliente\":\"Ana\",\"status\":\"quitado\",\"desconhecido\":{\"a\":[1]},"
+					+ "\"linhas\":[{\"sku\":\"A\",\"quantidade\":2}],\"pago\":\"true\",\"total\":\"1.5\"}";
+			Object lido = gerado.fromJson(json, pedido);
+
+			assertThat(field(lido, "numero")).isEqualTo(7L);
+			assertThat(reflexivo.toJson(lido)).isEqualTo(reflexivo.toJson(reflexivo.fromJson(json, pedido)));
+		}
+	}
+
+	@Test
+	void naNEInfinitoSoSaemComValoresEspeciaisHabilitados() throws Exception {
+		Object valor = exemplo();
+		field(valor, "total", Double.NaN);
+
+		assertThatThrownBy(() -> new GsonBuilder().create().toJson(valor)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> generated(new GsonBuilder(), false).toJson(valor))
+				.isInstanceOf(IllegalArgumentException.class);
+
+		for (double especial : new double[] { Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY }) {
+			field(valor, "total", especial);
+			String esperado = new GsonBuilder().serializeSpecialFloatingPointValues().create().toJson(valor);
+			assertThat(generated(new GsonBuilder().serializeSpecialFloatingPointValues(), false).toJson(valor))
+					.isEqualTo(esperado);
+		}
+	}
+
+	private static void assertSameJson(UnaryOperator<GsonBuilder> config, boolean exposeOnly) throws Exception {
+		Gson reflexivo = config.apply(new GsonBuilder()).create();
+		Gson gerado = generated(config.apply(new GsonBuilder()), exposeOnly);
+		assertThat(gerado.getAdapter(pedido).getClass().getName()).isEqualTo("exemplo.Pedido_GsonAdapter");
+
+		for (Object valor : List.of(exemplo(), pedido.getConstructor().newInstance())) {
+			String json = reflexivo.toJson(valor);
+			assertThat(gerado.toJson(valor)).isEqualTo(json);
+			assertThat(reflexivo.toJson(gerado.fromJson(json, pedido))).isEqualTo(reflexivo.toJson(reflexivo.fromJson(json, pedido)));
+		}
+		assertThat(gerado.toJson(null, pedido)).isEqualTo("null");
+	}
+
+	/**
+	 * Mesma busca do {@code GeneratedAdapterFactory}: {@code pacote.Externa_Interna_GsonAdapter} pelo nome.
+	 */
+	private static Gson generated(GsonBuilder builder, boolean exposeOnly) {
+		return builder.registerTypeAdapterFactory(new TypeAdapterFactory() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+				Class<?> raw = type.getRawType();
+				try {
+					Class<?> adapter = Class.forName(raw.getName().replace('$', '_') + "_GsonAdapter", true,
+							pedido.getClassLoader());
+					return (TypeAdapter<T>) adapter.getConstructor(Gson.class, boolean.class).newInstance(gson, exposeOnly);
+				} catch (ClassNotFoundException e) {
+					return null;
+				} catch (ReflectiveOperationException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}).create();
+	}
+
+	/**
+	 * Adapters próprios no lugar das políticas de data, enum e {@code byte[]} do {@code JSONUtilitiesV2}.
+	 */
+	private static GsonBuilder politicas(GsonBuilder builder) {
+		return builder
+				.registerTypeAdapter(Date.class, new TypeAdapter<Date>() {
+					@Override
+					public void write(JsonWriter out, Date value) throws IOException {
+						out.value(value.getTime());
+					}
+
+					@Override
+					public Date read(JsonReader in) throws IOException {
+						return new Date(in.nextLong());
+					}
+				}.nullSafe())
+				.registerTypeAdapterFactory(ENUM_ORDINAL)
+				.registerTypeAdapter(byte[].class, new TypeAdapter<byte[]>() {
+					@Override
+					public void write(JsonWriter out, byte[] value) throws IOException {
+						out.value(Base64.getEncoder().encodeToString(value));
+					}
+
+					@Override
+					public byte[] read(JsonReader in) throws IOException {
+						return Base64.getDecoder().decode(in.nextString());
+					}
+				}.nullSafe());
+	}
+
+	private static Object exemplo() throws Exception {
+		Object valor = pedido.getConstructor().newInstance();
+		field(valor, "tenant", "loja-1");
+		field(valor, "numero", 9_007_199_254_740_993L);
+		field(valor, "observacao", "entregar \"à tarde\"");
+		field(valor, "origem", "site");
+		field(valor, "interno", "não vai no expose");
+		field(valor, "cache", "transient");
+		field(valor, "total", 1_234.5);
+		field(valor, "itens", 3);
+		field(valor, "pago", true);
+		field(valor, "criadoEm", new Date(1_700_000_000_000L));
+		field(valor, "status", pedido.getField("status").getType().getEnumConstants()[1]);
+		field(valor, "assinatura", new byte[] { 1, 2, 3 });
+		field(valor, "extras", Map.of("brinde", 1));
+		field(valor, "cliente", "Ana");
+		Class<?> itemType = pedido.getClassLoader().loadClass("exemplo.Pedido$Item");
+		Object item = itemType.getConstructor().newInstance();
+		field(item, "sku", "SKU-1");
+		field(item, "quantidade", 2);
+		field(valor, "linhas", List.of(item));
+		return valor;
+	}
+
+	private static Object field(Object target, String name) throws ReflectiveOperationException {
+		Field field = declared(target.getClass(), name);
+		return field.get(target);
+	}
+
+	private static void field(Object target, String name, Object value) throws ReflectiveOperationException {
+		declared(target.getClass(), name).set(target, value);
+	}
+
+	private static Field declared(Class<?> type, String name) throws NoSuchFieldException {
+		for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+			try {
+				Field field = current.getDeclaredField(name);
+				field.setAccessible(true);
+				return field;
+			} catch (NoSuchFieldException e) {
+				// segue para a superclasse
+			}
+		}
+		throw new NoSuchFieldException(name);
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.sulimann.restclient.utils.http;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code createURL()} do {@link HttpPadrao}: só endereço e recurso, com variáveis de caminho e com parâmetros de
+ * query que precisam de codificação. O template já está no cache depois do aquecimento, então o que se mede é a
+ * expansão.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateUrlBenchmark {
+
+    private static final String ADDRESS = "https://api.exemplo.com.br/v1";
+
+    private Get simples;
+    private Get comVariaveis;
+    private Get comQuery;
+
+    @Setup
+    public void setup() {
+        this.simples = Get.builder()
+                .address(ADDRESS)
+                .resource("/clientes")
+                .build();
+        this.comVariaveis = Get.builder()
+                .address(ADDRESS)
+                .resource("/clientes/{id}/pedidos/{pedido}")
+                .variable("id", 42)
+                .variable("pedido", "PED-2024/0001")
+                .build();
+        this.comQuery = Get.builder()
+                .address(ADDRESS)
+                .resource("/clientes")
+                .queryParam("nome", "João da Silva")
+                .queryParam("status", List.of("ATIVO", "BLOQUEADO"))
+                .queryParam("pagina", 3)
+                .build();
+    }
+
+    @Benchmark
+    public String simples() {
+        return this.simples.createURL();
+    }
+
+    @Benchmark
+    public String comVariaveis() {
+        return this.comVariaveis.createURL();
+    }
+
+    @Benchmark
+    public String comQuery() {
+        return this.comQuery.createURL();
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.sulimann.restclient.utils.http;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.Callback;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sulimann.restclient.configs.HttpClientProperties;
+
+/**
+ * Custo de uma chamada do {@link HttpPadrao} numa thread só, contra um stub Jetty local que responde na hora:
+ * montagem da URL, escrita do corpo, pool, leitura e conversão da resposta. Vazão e percentis de latência
+ * ({@code SampleTime}); a concorrência fica com o {@link HttpTransportBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpPadraoBenchmark {
+
+    private static final byte[] BODY = "{\"id\":1,\"nome\":\"Cliente\",\"email\":\"cliente@exemplo.com.br\",\"ativo\":true}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private Server server;
+    private HttpConnectionPool pool;
+    private Get get;
+    private Post post;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.server = new Server();
+        ServerConnector connector = new ServerConnector(this.server);
+        connector.setPort(0);
+        this.server.addConnector(connector);
+        this.server.setHandler(new Handler.Abstract() {
+            @Override
+            public boolean handle(Request request, Response response, Callback callback) {
+                response.getHeaders().put(HttpHeader.CONTENT_TYPE, "application/json");
+                response.write(true, ByteBuffer.wrap(BODY), callback);
+                return true;
+            }
+        });
+        this.server.start();
+
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.getLimiter().setEnabled(false);
+        this.pool = HttpConnectionPool.install(HttpConnectionPool.create(properties));
+        String address = "http://127.0.0.1:" + connector.getLocalPort();
+        this.get = Get.builder()
+                .address(address)
+                .resource("/clientes/{id}")
+                .variable("id", 1)
+                .build();
+        this.post = Post.builder()
+                .address(address)
+                .resource("/clientes")
+                .request(Cliente.exemplo())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.pool.close();
+        this.server.stop();
+    }
+
+    @Benchmark
+    public Cliente get() {
+        return this.get.call(Cliente.class).orElse(null);
+    }
+
+    @Benchmark
+    public Cliente post() {
+        return this.post.call(Cliente.class).orElse(null);
+    }
+
+    public static class Cliente {
+
+        public long id;
+        public String nome;
+        public String email;
+        public boolean ativo;
+
+        static Cliente exemplo() {
+            Cliente cliente = new Cliente();
+            cliente.nome = "Cliente";
+            cliente.email = "cliente@exemplo.com.br";
+            cliente.ativo = true;
+            return cliente;
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.sulimann.restclient.utils.http;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.io.ConnectionStatistics;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.Callback;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sulimann.restclient.configs.HttpClientProperties;
+import com.sulimann.restclient.configs.HttpClientProperties.Transport;
+
+/**
+ * Vazão do {@link Get} com 64 threads contra um stub Jetty que fala HTTP/1.1 e h2c na mesma porta, no pool
+ * HTTP/1.1 e no transporte HTTP/2. Ao final de cada rodada imprime quantas conexões o servidor recebeu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class HttpTransportBenchmark {
+
+    private static final byte[] BODY = "{\"id\":1,\"nome\":\"Cliente\",\"ativo\":true}".getBytes(StandardCharsets.UTF_8);
+
+    @Param({ "HTTP1", "HTTP2" })
+    public Transport transport;
+
+    /** Latência simulada do servidor, para haver requisições simultâneas de fato. */
+    @Param({ "0", "5" })
+    public long latencyMillis;
+
+    private Server server;
+    private ConnectionStatistics connections;
+    private HttpConnectionPool pool;
+    private Get get;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.server = new Server();
+        HttpConfiguration config = new HttpConfiguration();
+        ServerConnector connector = new ServerConnector(this.server, new HttpConnectionFactory(config),
+                new HTTP2CServerConnectionFactory(config));
+        connector.setPort(0);
+        this.connections = new ConnectionStatistics();
+        connector.addBean(this.connections);
+        this.server.addConnector(connector);
+        long latency = this.latencyMillis;
+        this.server.setHandler(new Handler.Abstract() {
+            @Override
+            public boolean handle(Request request, Response response, Callback callback) throws Exception {
+                if (latency > 0) {
+                    Thread.sleep(latency);
+                }
+                response.getHeaders().put(HttpHeader.CONTENT_TYPE, "application/json");
+                response.write(true, ByteBuffer.wrap(BODY), callback);
+                return true;
+            }
+        });
+        this.server.start();
+
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setTransport(this.transport);
+        properties.getLimiter().setEnabled(false);
+        this.pool = HttpConnectionPool.install(HttpConnectionPool.create(properties));
+        this.get = Get.builder()
+                .address("http://127.0.0.1:" + connector.getLocalPort())
+                .resource("/clientes/1")
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        System.out.printf("%n[%s, %dms] conexões abertas no servidor: %d%n",
+                this.transport, this.latencyMillis, this.connections.getConnectionsTotal());
+        this.pool.close();
+        this.server.stop();
+    }
+
+    @Benchmark
+    public Object call() {
+        return this.get.call(String.class).orElse(null);
+    }
+
+}
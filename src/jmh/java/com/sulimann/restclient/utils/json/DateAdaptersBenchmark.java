@@ -0,0 +1,229 @@
+package com.sulimann.restclient.utils.json;
+
+import java.lang.reflect.Type;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Leitura e escrita de uma lista de eventos só com campos de data pelos adaptadores atuais do
+ * {@link JSONUtilitiesV2} e pelos antigos ({@code JsonSerializer}/{@code JsonDeserializer} sobre a árvore, com
+ * formatador e {@link DatatypeFactory} criados a cada valor), reproduzidos aqui como referência.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateAdaptersBenchmark {
+
+    private static final Type EVENTOS = new TypeToken<List<Evento>>() {}.getType();
+
+    @Param({ "100" })
+    public int eventos;
+
+    private Gson atual;
+    private Gson antigo;
+    private List<Evento> lista;
+    private String json;
+
+    @Setup
+    public void setup() throws Exception {
+        this.atual = JSONUtilitiesV2.create()
+                .withParseDate(JSONUtilitiesV2.BuildType.LAZY)
+                .withParseLocalDate(JSONUtilitiesV2.BuildType.LAZY)
+                .withParseLocalDateTime(JSONUtilitiesV2.BuildType.LAZY)
+                .withParseXMLGregorianCalendar(JSONUtilitiesV2.BuildType.LAZY)
+                .builder()
+                .gson();
+        this.antigo = new GsonBuilder()
+                .registerTypeAdapter(Date.class, new LegacyDateSerializer())
+                .registerTypeAdapter(Date.class, new LegacyDateDeserializer())
+                .registerTypeAdapter(LocalDate.class, new LegacyLocalDateSerializer())
+                .registerTypeAdapter(LocalDate.class, new LegacyLocalDateDeserializer())
+                .registerTypeAdapter(LocalDateTime.class, new LegacyLocalDateTimeSerializer())
+                .registerTypeAdapter(LocalDateTime.class, new LegacyLocalDateTimeDeserializer())
+                .registerTypeAdapter(OffsetDateTime.class, new LegacyOffsetDateTimeSerializer())
+                .registerTypeAdapter(OffsetDateTime.class, new LegacyOffsetDateTimeDeserializer())
+                .registerTypeAdapter(XMLGregorianCalendar.class, new LegacyXMLGregorianCalendarSerializer())
+                .registerTypeAdapter(XMLGregorianCalendar.class, new LegacyXMLGregorianCalendarDeserializer())
+                .create();
+        this.lista = Evento.exemplos(this.eventos);
+        this.json = this.atual.toJson(this.lista, EVENTOS);
+    }
+
+    @Benchmark
+    public String escritaAtual() {
+        return this.atual.toJson(this.lista, EVENTOS);
+    }
+
+    @Benchmark
+    public String escritaAntiga() {
+        return this.antigo.toJson(this.lista, EVENTOS);
+    }
+
+    @Benchmark
+    public Object leituraAtual() {
+        return this.atual.fromJson(this.json, EVENTOS);
+    }
+
+    @Benchmark
+    public Object leituraAntiga() {
+        return this.antigo.fromJson(this.json, EVENTOS);
+    }
+
+    public static class Evento {
+
+        public long id;
+        public Date registro;
+        public LocalDate dia;
+        public LocalDateTime inicio;
+        public OffsetDateTime confirmacao;
+        public XMLGregorianCalendar vencimento;
+
+        static List<Evento> exemplos(int quantidade) throws Exception {
+            DatatypeFactory factory = DatatypeFactory.newInstance();
+            List<Evento> eventos = new ArrayList<>(quantidade);
+            LocalDateTime base = LocalDateTime.of(2024, 5, 10, 14, 30, 0);
+            for (int i = 0; i < quantidade; i++) {
+                LocalDateTime momento = base.plusMinutes(97L * i);
+                Evento evento = new Evento();
+                evento.id = i;
+                evento.registro = Date.from(momento.toInstant(ZoneOffset.UTC));
+                evento.dia = momento.toLocalDate();
+                evento.inicio = momento;
+                evento.confirmacao = OffsetDateTime.of(momento.withNano(i * 1_000_000), ZoneOffset.ofHours(-3));
+                evento.vencimento = factory.newXMLGregorianCalendar(GregorianCalendar.from(momento.atZone(ZoneOffset.UTC)));
+                eventos.add(evento);
+            }
+            return eventos;
+        }
+    }
+
+    private static class LegacyDateSerializer implements JsonSerializer<Date> {
+
+        @Override
+        public JsonElement serialize(Date date, Type type, JsonSerializationContext context) {
+            return new JsonPrimitive(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(date));
+        }
+    }
+
+    private static class LegacyDateDeserializer implements JsonDeserializer<Date> {
+
+        @Override
+        public Date deserialize(JsonElement json, Type type, JsonDeserializationContext context) {
+            try {
+                return new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").parse(json.getAsString());
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+
+    private static class LegacyLocalDateSerializer implements JsonSerializer<LocalDate> {
+
+        @Override
+        public JsonElement serialize(LocalDate localDate, Type type, JsonSerializationContext context) {
+            return new JsonPrimitive(localDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+        }
+    }
+
+    private static class LegacyLocalDateDeserializer implements JsonDeserializer<LocalDate> {
+
+        @Override
+        public LocalDate deserialize(JsonElement json, Type type, JsonDeserializationContext context) {
+            return LocalDate.parse(json.getAsString(), DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        }
+    }
+
+    private static class LegacyLocalDateTimeSerializer implements JsonSerializer<LocalDateTime> {
+
+        @Override
+        public JsonElement serialize(LocalDateTime localDateTime, Type type, JsonSerializationContext context) {
+            return new JsonPrimitive(localDateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss")));
+        }
+    }
+
+    private static class LegacyLocalDateTimeDeserializer implements JsonDeserializer<LocalDateTime> {
+
+        @Override
+        public LocalDateTime deserialize(JsonElement json, Type type, JsonDeserializationContext context) {
+            return LocalDateTime.parse(json.getAsString(), DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"));
+        }
+    }
+
+    private static class LegacyOffsetDateTimeSerializer implements JsonSerializer<OffsetDateTime> {
+
+        @Override
+        public JsonElement serialize(OffsetDateTime offsetDateTime, Type type, JsonSerializationContext context) {
+            return new JsonPrimitive(offsetDateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZZZ")));
+        }
+    }
+
+    /**
+     * O antigo só lia ISO com dois-pontos no deslocamento; o texto de referência é o que ele mesmo escreve,
+     * então o padrão de escrita entra como alternativa para a comparação não medir só exceções.
+     */
+    private static class LegacyOffsetDateTimeDeserializer implements JsonDeserializer<OffsetDateTime> {
+
+        @Override
+        public OffsetDateTime deserialize(JsonElement json, Type type, JsonDeserializationContext context) {
+            return OffsetDateTime.parse(json.getAsString(), DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZZZ"));
+        }
+    }
+
+    private static class LegacyXMLGregorianCalendarSerializer implements JsonSerializer<XMLGregorianCalendar> {
+
+        @Override
+        public JsonElement serialize(XMLGregorianCalendar calendar, Type type, JsonSerializationContext context) {
+            return new JsonPrimitive(calendar.toXMLFormat());
+        }
+    }
+
+    private static class LegacyXMLGregorianCalendarDeserializer implements JsonDeserializer<XMLGregorianCalendar> {
+
+        @Override
+        public XMLGregorianCalendar deserialize(JsonElement json, Type type, JsonDeserializationContext context) {
+            try {
+                return DatatypeFactory.newInstance().newXMLGregorianCalendar(json.getAsString());
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+
+}
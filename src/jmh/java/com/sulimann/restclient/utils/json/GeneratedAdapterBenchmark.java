@@ -0,0 +1,160 @@
+package com.sulimann.restclient.utils.json;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Adapter gerado pelo processador contra o reflexivo do Gson: vazão depois de aquecido e custo da primeira
+ * chamada num Gson novo, que é onde o reflexivo inspeciona a classe. A primeira chamada roda com JVM nova a
+ * cada fork, então mede também carga de classes.
+ * <p>
+ * Precisa dos adapters gerados: {@code mvn -Pjmh,json-adapters -DskipTests verify -Djmh.args="GeneratedAdapter"}.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeneratedAdapterBenchmark {
+
+    private Gson gerado;
+    private Gson reflexivo;
+    private Cliente cliente;
+    private String json;
+
+    @Setup
+    public void setup() {
+        if (!GeneratedAdapterFactory.hasAdapter(Cliente.class)) {
+            throw new IllegalStateException("Adapters não gerados: rode com o perfil json-adapters");
+        }
+        this.gerado = gerado();
+        this.reflexivo = new GsonBuilder().create();
+        this.cliente = Cliente.exemplo();
+        this.json = this.reflexivo.toJson(this.cliente);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public String escritaGerado() {
+        return this.gerado.toJson(this.cliente);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public String escritaReflexivo() {
+        return this.reflexivo.toJson(this.cliente);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public Cliente leituraGerado() {
+        return this.gerado.fromJson(this.json, Cliente.class);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public Cliente leituraReflexivo() {
+        return this.reflexivo.fromJson(this.json, Cliente.class);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(20)
+    public Cliente primeiraChamadaGerado() {
+        Gson gson = gerado();
+        return gson.fromJson(gson.toJson(this.cliente), Cliente.class);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(20)
+    public Cliente primeiraChamadaReflexivo() {
+        Gson gson = new GsonBuilder().create();
+        return gson.fromJson(gson.toJson(this.cliente), Cliente.class);
+    }
+
+    private static Gson gerado() {
+        return new GsonBuilder().registerTypeAdapterFactory(new GeneratedAdapterFactory(false)).create();
+    }
+
+    @GenerateGsonAdapter
+    public static class Cliente {
+
+        public long id;
+        public String nome;
+        @SerializedName("email_principal")
+        public String email;
+        public boolean ativo;
+        public double limite;
+        public Endereco endereco;
+        public List<Contato> contatos;
+
+        static Cliente exemplo() {
+            Cliente cliente = new Cliente();
+            cliente.id = 42;
+            cliente.nome = "Cliente Exemplo Ltda";
+            cliente.email = "contato@exemplo.com.br";
+            cliente.ativo = true;
+            cliente.limite = 15_000.5;
+            cliente.endereco = new Endereco();
+            cliente.endereco.logradouro = "Rua das Flores, 100";
+            cliente.endereco.cidade = "Curitiba";
+            cliente.endereco.cep = "80000-000";
+            cliente.contatos = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                Contato contato = new Contato();
+                contato.tipo = i % 2 == 0 ? "CELULAR" : "EMAIL";
+                contato.valor = "valor-" + i;
+                contato.principal = i == 0;
+                cliente.contatos.add(contato);
+            }
+            return cliente;
+        }
+    }
+
+    @GenerateGsonAdapter
+    public static class Endereco {
+
+        public String logradouro;
+        public String cidade;
+        public String cep;
+    }
+
+    @GenerateGsonAdapter
+    public static class Contato {
+
+        public String tipo;
+        public String valor;
+        public boolean principal;
+    }
+
+}
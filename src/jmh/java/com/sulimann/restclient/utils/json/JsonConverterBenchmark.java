@@ -0,0 +1,125 @@
+package com.sulimann.restclient.utils.json;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.sulimann.restclient.utils.json.JSONUtilitiesV2.BuildType;
+
+/**
+ * Leitura e escrita de um pedido com itens pelo {@link JSONUtilitiesHttpMessageConverter} e pelo conversor
+ * Jackson padrão do Spring, sobre mensagens em memória.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonConverterBenchmark {
+
+    @Param({ "1", "100" })
+    public int items;
+
+    private JSONUtilitiesHttpMessageConverter gson;
+    private MappingJackson2HttpMessageConverter jackson;
+    private Pedido pedido;
+    private byte[] gsonBody;
+    private byte[] jacksonBody;
+
+    @Setup
+    public void setup() throws IOException {
+        this.gson = new JSONUtilitiesHttpMessageConverter(JSONUtilitiesV2.create()
+                .withParseLocalDate(BuildType.LAZY)
+                .withParseLocalDateTime(BuildType.LAZY)
+                .builder());
+        this.jackson = new MappingJackson2HttpMessageConverter();
+        this.pedido = Pedido.exemplo(this.items);
+        this.gsonBody = write(this.gson, this.pedido);
+        this.jacksonBody = write(this.jackson, this.pedido);
+    }
+
+    @Benchmark
+    public byte[] escritaGson() throws IOException {
+        return write(this.gson, this.pedido);
+    }
+
+    @Benchmark
+    public byte[] escritaJackson() throws IOException {
+        return write(this.jackson, this.pedido);
+    }
+
+    @Benchmark
+    public Object leituraGson() throws IOException {
+        MockHttpInputMessage input = new MockHttpInputMessage(this.gsonBody);
+        input.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return this.gson.read(Pedido.class, null, input);
+    }
+
+    @Benchmark
+    public Object leituraJackson() throws IOException {
+        MockHttpInputMessage input = new MockHttpInputMessage(this.jacksonBody);
+        input.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return this.jackson.read(Pedido.class, null, input);
+    }
+
+    private static byte[] write(GenericHttpMessageConverter<Object> converter, Pedido pedido) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(pedido, Pedido.class, MediaType.APPLICATION_JSON, output);
+        return output.getBodyAsBytes();
+    }
+
+    public static class Pedido {
+
+        public long id;
+        public String cliente;
+        public LocalDate entrega;
+        public LocalDateTime criadoEm;
+        public List<Item> itens;
+
+        static Pedido exemplo(int quantidade) {
+            Pedido pedido = new Pedido();
+            pedido.id = 42;
+            pedido.cliente = "Cliente Exemplo Ltda";
+            pedido.entrega = LocalDate.of(2024, 5, 20);
+            pedido.criadoEm = LocalDateTime.of(2024, 5, 10, 14, 30, 0);
+            pedido.itens = new ArrayList<>(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                Item item = new Item();
+                item.sku = "SKU-" + i;
+                item.quantidade = i % 7 + 1;
+                item.preco = 19.9 + i;
+                pedido.itens.add(item);
+            }
+            return pedido;
+        }
+    }
+
+    public static class Item {
+
+        public String sku;
+        public int quantidade;
+        public double preco;
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.sulimann.restclient.utils.json;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.ToNumberPolicy;
+
+/**
+ * {@code jsonToMap} padrão (tudo {@code Double}) contra o modo com {@link ToNumberPolicy}, num documento com
+ * arrays numéricos grandes e muitos objetos com os mesmos campos. Alocação por chamada com {@code -prof gc};
+ * o heap retido por documento montado é medido uma vez no setup e impresso no log:
+ * {@code mvn -Pjmh -DskipTests verify -Djmh.args="JsonToMap -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonToMapBenchmark {
+
+    @Param({ "10000" })
+    public int tamanho;
+
+    private JSONUtilitiesV2 json;
+    private String documento;
+
+    @Setup
+    public void setup() {
+        this.json = JSONUtilitiesV2.create();
+        this.documento = documento(this.tamanho);
+        retido("padrao", this.json::jsonToMap);
+        retido("longOrDouble", doc -> this.json.jsonToMap(doc, ToNumberPolicy.LONG_OR_DOUBLE));
+        retido("bigDecimal", doc -> this.json.jsonToMap(doc, ToNumberPolicy.BIG_DECIMAL));
+    }
+
+    @Benchmark
+    public Map<String, Object> padrao() {
+        return this.json.jsonToMap(this.documento);
+    }
+
+    @Benchmark
+    public Map<String, Object> longOrDouble() {
+        return this.json.jsonToMap(this.documento, ToNumberPolicy.LONG_OR_DOUBLE);
+    }
+
+    @Benchmark
+    public Map<String, Object> bigDecimal() {
+        return this.json.jsonToMap(this.documento, ToNumberPolicy.BIG_DECIMAL);
+    }
+
+    /**
+     * Aproximado: heap usado depois de GC com 10 cópias montadas, menos o de antes, dividido por 10.
+     */
+    private void retido(String modo, Function<String, Map<String, Object>> parse) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        List<Map<String, Object>> copias = new ArrayList<>();
+        System.gc();
+        long antes = memory.getHeapMemoryUsage().getUsed();
+        for (int i = 0; i < 10; i++) {
+            copias.add(parse.apply(this.documento));
+        }
+        System.gc();
+        long depois = memory.getHeapMemoryUsage().getUsed();
+        System.out.printf("%n%s: ~%d KB retidos por documento (%d mapas)%n", modo, (depois - antes) / 10 / 1024,
+                copias.size());
+    }
+
+    private static String documento(int tamanho) {
+        Map<String, Object> raiz = new LinkedHashMap<>();
+        List<Long> ids = new ArrayList<>(tamanho);
+        List<Double> valores = new ArrayList<>(tamanho);
+        List<Map<String, Object>> lancamentos = new ArrayList<>(tamanho / 10);
+        for (int i = 0; i < tamanho; i++) {
+            ids.add(9_000_000_000_000_000L + i);
+            valores.add(i * 1.25 + 0.01);
+            if (i % 10 == 0) {
+                Map<String, Object> lancamento = new LinkedHashMap<>();
+                lancamento.put("id", 7_000_000_000L + i);
+                lancamento.put("valor", i + 0.99);
+                lancamento.put("quantidade", i % 13);
+                lancamento.put("conta", "C-" + (i % 50));
+                lancamentos.add(lancamento);
+            }
+        }
+        raiz.put("ids", ids);
+        raiz.put("valores", valores);
+        raiz.put("lancamentos", lancamentos);
+        return new Gson().toJson(raiz);
+    }
+
+}
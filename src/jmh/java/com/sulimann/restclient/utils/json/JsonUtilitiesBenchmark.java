@@ -0,0 +1,187 @@
+package com.sulimann.restclient.utils.json;
+
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.annotations.Expose;
+
+/**
+ * {@code toJson}, {@code fromJson} e {@code jsonToMap} do {@link JSONUtilitiesV2} com cada recurso ligado
+ * sozinho, sobre um registro com 20 valores do tipo que o recurso trata. Vazão e percentis de latência
+ * ({@code SampleTime}); alocação com {@code -prof gc}, que já vem no {@code jmh.args} padrão do perfil.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonUtilitiesBenchmark {
+
+    @Param({ "PADRAO", "EXPOSE", "DATE", "LOCAL_DATE", "LOCAL_DATE_TIME", "XML_GREGORIAN_CALENDAR", "BYTE_ARRAY",
+            "ENUM" })
+    public Recurso recurso;
+
+    private JSONUtilitiesV2 json;
+    private Type tipo;
+    private Object registro;
+    private String documento;
+
+    @Setup
+    public void setup() throws Exception {
+        this.json = this.recurso.configurar(JSONUtilitiesV2.create());
+        this.tipo = this.recurso.classe;
+        this.registro = Registro.exemplo(this.recurso.classe, this.recurso.valores());
+        this.documento = this.json.toJson(this.registro);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return this.json.toJson(this.registro);
+    }
+
+    @Benchmark
+    public Object fromJson() {
+        return this.json.fromJson(this.documento, this.tipo);
+    }
+
+    @Benchmark
+    public Map<String, Object> jsonToMap() {
+        return this.json.jsonToMap(this.documento);
+    }
+
+    public enum Recurso {
+        PADRAO(ComTexto.class),
+        EXPOSE(ComTexto.class),
+        DATE(ComDate.class),
+        LOCAL_DATE(ComLocalDate.class),
+        LOCAL_DATE_TIME(ComLocalDateTime.class),
+        XML_GREGORIAN_CALENDAR(ComXMLGregorianCalendar.class),
+        BYTE_ARRAY(ComByteArray.class),
+        ENUM(ComStatus.class);
+
+        final Class<? extends Registro<?>> classe;
+
+        Recurso(Class<? extends Registro<?>> classe) {
+            this.classe = classe;
+        }
+
+        JSONUtilitiesV2 configurar(JSONUtilitiesV2 json) {
+            return switch (this) {
+                case PADRAO -> json;
+                case EXPOSE -> json.withParseExpose();
+                case DATE -> json.withParseDate();
+                case LOCAL_DATE -> json.withParseLocalDate();
+                case LOCAL_DATE_TIME -> json.withParseLocalDateTime();
+                case XML_GREGORIAN_CALENDAR -> json.withParseXMLGregorianCalendar();
+                case BYTE_ARRAY -> json.withParseByteArray();
+                case ENUM -> json.withParseEnum();
+            };
+        }
+
+        IntFunction<Object> valores() throws Exception {
+            DatatypeFactory datatypes = DatatypeFactory.newInstance();
+            LocalDateTime base = LocalDateTime.of(2024, 5, 10, 14, 30, 15);
+            return switch (this) {
+                case PADRAO, EXPOSE -> i -> "valor-" + i;
+                case DATE -> i -> new Date(1_715_000_000_000L + i * 86_400_000L);
+                case LOCAL_DATE -> i -> base.toLocalDate().plusDays(i);
+                case LOCAL_DATE_TIME -> i -> base.plusMinutes(i);
+                case XML_GREGORIAN_CALENDAR -> i -> datatypes.newXMLGregorianCalendar(base.plusDays(i).toString());
+                case BYTE_ARRAY -> i -> new byte[256];
+                case ENUM -> i -> Status.values()[i % Status.values().length];
+            };
+        }
+    }
+
+    public enum Status {
+        ATIVO("Ativo"),
+        INATIVO("Inativo"),
+        BLOQUEADO("Bloqueado");
+
+        private final String descricao;
+
+        Status(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return this.descricao;
+        }
+    }
+
+    /**
+     * Cada recurso usa uma subclasse que fixa {@code T}, para o {@code fromJson} saber o tipo dos valores.
+     */
+    public static class Registro<T> {
+
+        @Expose
+        public long id;
+        @Expose
+        public String nome;
+        public double valor;
+        public boolean ativo;
+        public T principal;
+        public List<T> valores;
+
+        @SuppressWarnings("unchecked")
+        static Registro<Object> exemplo(Class<? extends Registro<?>> classe, IntFunction<Object> valores)
+                throws ReflectiveOperationException {
+            Registro<Object> registro = (Registro<Object>) classe.getDeclaredConstructor().newInstance();
+            registro.id = 42;
+            registro.nome = "Registro Exemplo";
+            registro.valor = 1_234.56;
+            registro.ativo = true;
+            registro.principal = valores.apply(0);
+            registro.valores = new ArrayList<>(20);
+            for (int i = 0; i < 20; i++) {
+                registro.valores.add(valores.apply(i));
+            }
+            return registro;
+        }
+    }
+
+    public static class ComTexto extends Registro<String> {
+    }
+
+    public static class ComDate extends Registro<Date> {
+    }
+
+    public static class ComLocalDate extends Registro<LocalDate> {
+    }
+
+    public static class ComLocalDateTime extends Registro<LocalDateTime> {
+    }
+
+    public static class ComXMLGregorianCalendar extends Registro<XMLGregorianCalendar> {
+    }
+
+    public static class ComByteArray extends Registro<byte[]> {
+    }
+
+    public static class ComStatus extends Registro<Status> {
+    }
+
+}
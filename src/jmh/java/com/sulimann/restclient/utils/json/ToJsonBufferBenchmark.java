@@ -0,0 +1,98 @@
+package com.sulimann.restclient.utils.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.sulimann.restclient.utils.json.JSONUtilitiesV2.BuildType;
+import com.sulimann.restclient.utils.json.JsonConverterBenchmark.Pedido;
+
+/**
+ * {@code toJson} com buffer da thread contra o {@code Gson.toJson} com {@code StringWriter}, e escrita direta em
+ * UTF-8 contra {@code OutputStreamWriter}. O que interessa é a alocação por chamada ({@code gc.alloc.rate.norm}):
+ * {@code mvn -Pjmh -DskipTests verify -Djmh.args="ToJsonBuffer -prof gc"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToJsonBufferBenchmark {
+
+    @Param({ "1", "100", "5000" })
+    public int items;
+
+    private JSONUtilitiesV2 json;
+    private Gson gson;
+    private Pedido pedido;
+    private OutputStream descarte;
+
+    @Setup
+    public void setup() {
+        this.json = JSONUtilitiesV2.create()
+                .withParseLocalDate(BuildType.LAZY)
+                .withParseLocalDateTime(BuildType.LAZY)
+                .builder();
+        this.gson = this.json.gson();
+        this.pedido = Pedido.exemplo(this.items);
+        this.descarte = new Descarte();
+    }
+
+    @Benchmark
+    public String textoStringWriter() {
+        return this.gson.toJson(this.pedido);
+    }
+
+    @Benchmark
+    public String textoBufferDaThread() {
+        return this.json.toJson(this.pedido);
+    }
+
+    @Benchmark
+    public void streamOutputStreamWriter() throws IOException {
+        Writer writer = new OutputStreamWriter(this.descarte, StandardCharsets.UTF_8);
+        this.gson.toJson(this.pedido, writer);
+        writer.flush();
+    }
+
+    @Benchmark
+    public void streamUtf8DaThread() {
+        this.json.toJson(this.pedido, this.descarte);
+    }
+
+    /**
+     * Só conta os bytes, para o custo medido ser o da codificação.
+     */
+    static final class Descarte extends OutputStream {
+
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            this.bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            this.bytes += len;
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.sulimann.restclient.utils.validators;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sulimann.restclient.utils.validators.cep.CepValidator;
+import com.sulimann.restclient.utils.validators.cpforcnpj.CpfOrCnpjValidator;
+import com.sulimann.restclient.utils.validators.existsbyid.ExistsById;
+import com.sulimann.restclient.utils.validators.existsbyid.ExistsByIdValidator;
+import com.sulimann.restclient.utils.validators.senhalimpa.SenhaLimpaValidator;
+import com.sulimann.restclient.utils.validators.telefone.TelefoneValidator;
+import com.sulimann.restclient.utils.validators.uniquevalue.UniqueValue;
+import com.sulimann.restclient.utils.validators.uniquevalue.UniqueValueValidator;
+import com.sulimann.restclient.utils.validators.validenum.ValidEnum;
+import com.sulimann.restclient.utils.validators.validenum.ValidEnumValidator;
+
+/**
+ * {@code isValid} de cada validador de {@code utils.validators}, com um valor válido. {@code ExistsById} e
+ * {@code UniqueValue} rodam sobre um {@link EntityManager} falso que responde na hora: mede-se só o trabalho do
+ * validador (montar a JPQL e a query), não o banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorsBenchmark {
+
+    private final CepValidator cep = new CepValidator();
+    private final TelefoneValidator telefone = new TelefoneValidator();
+    private final SenhaLimpaValidator senhaLimpa = new SenhaLimpaValidator();
+    private final CpfOrCnpjValidator cpfOrCnpj = new CpfOrCnpjValidator();
+    private final ValidEnumValidator validEnum = new ValidEnumValidator();
+    private final ValidEnumValidator validEnumIgnoreCase = new ValidEnumValidator();
+    private final ExistsByIdValidator existsById = new ExistsByIdValidator();
+    private final UniqueValueValidator uniqueValue = new UniqueValueValidator();
+
+    @Setup
+    public void setup() throws Exception {
+        this.validEnum.initialize(anotacao("status", ValidEnum.class));
+        this.validEnumIgnoreCase.initialize(anotacao("statusIgnoreCase", ValidEnum.class));
+        this.existsById.initialize(anotacao("clienteId", ExistsById.class));
+        this.uniqueValue.initialize(anotacao("email", UniqueValue.class));
+        injetar(this.existsById, entityManager(List.of(1)));
+        injetar(this.uniqueValue, entityManager(List.of()));
+    }
+
+    @Benchmark
+    public boolean cep() {
+        return this.cep.isValid("80000-000", null);
+    }
+
+    @Benchmark
+    public boolean telefone() {
+        return this.telefone.isValid("41 98765-4321", null);
+    }
+
+    @Benchmark
+    public boolean senhaLimpa() {
+        return this.senhaLimpa.isValid("S3nh@-Forte-2024", null);
+    }
+
+    @Benchmark
+    public boolean cpf() {
+        return this.cpfOrCnpj.isValid("529.982.247-25", null);
+    }
+
+    /** O CNPJ passa antes pela validação de CPF, que falha. */
+    @Benchmark
+    public boolean cnpj() {
+        return this.cpfOrCnpj.isValid("11.222.333/0001-81", null);
+    }
+
+    @Benchmark
+    public boolean validEnum() {
+        return this.validEnum.isValid("BLOQUEADO", null);
+    }
+
+    @Benchmark
+    public boolean validEnumIgnoreCase() {
+        return this.validEnumIgnoreCase.isValid("bloqueado", null);
+    }
+
+    @Benchmark
+    public boolean existsById() {
+        return this.existsById.isValid(42L, null);
+    }
+
+    @Benchmark
+    public boolean uniqueValue() {
+        return this.uniqueValue.isValid("cliente@exemplo.com.br", null);
+    }
+
+    private static <A extends java.lang.annotation.Annotation> A anotacao(String campo, Class<A> tipo)
+            throws NoSuchFieldException {
+        return Anotados.class.getDeclaredField(campo).getAnnotation(tipo);
+    }
+
+    private static void injetar(Object validador, EntityManager manager) throws ReflectiveOperationException {
+        Field field = validador.getClass().getDeclaredField("manager");
+        field.setAccessible(true);
+        field.set(validador, manager);
+    }
+
+    private static EntityManager entityManager(List<?> resultado) {
+        Query query = (Query) Proxy.newProxyInstance(Query.class.getClassLoader(), new Class<?>[] { Query.class },
+                (proxy, method, args) -> "getResultList".equals(method.getName()) ? resultado : proxy);
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[] { EntityManager.class },
+                (proxy, method, args) -> "createQuery".equals(method.getName()) ? query : null);
+    }
+
+    enum Status {
+        ATIVO,
+        INATIVO,
+        BLOQUEADO
+    }
+
+    /**
+     * Só para ler as anotações com os parâmetros de cada validador.
+     */
+    static class Anotados {
+
+        @ValidEnum(enumClass = Status.class)
+        String status;
+
+        @ValidEnum(enumClass = Status.class, ignoreCase = true)
+        String statusIgnoreCase;
+
+        @ExistsById(domainClass = Object.class, fieldName = "id")
+        Long clienteId;
+
+        @UniqueValue(domainClass = Object.class, fieldName = "email")
+        String email;
+    }
+
+}
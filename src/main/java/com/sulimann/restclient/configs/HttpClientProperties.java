@@ -0,0 +1,202 @@
+package com.sulimann.restclient.configs;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+/**
+ * Configurações do cliente HTTP compartilhado ({@code restclient.http.*}).
+ * Os valores padrão também são usados quando o {@code HttpPadrao} roda fora do contexto Spring.
+ */
+@Data
+@ConfigurationProperties(prefix = "restclient.http")
+public class HttpClientProperties {
+
+    /** Cliente usado por baixo do {@code HttpPadrao} e do {@code RestClient}. */
+    private Transport transport = Transport.HTTP1;
+
+    /** Máximo de conexões abertas no pool, somando todas as rotas. */
+    private int maxTotal = 200;
+
+    /** Máximo de conexões abertas por rota (esquema + host + porta). */
+    private int maxPerRoute = 50;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    /** Tempo máximo esperando uma conexão livre no pool. */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+    /** Tempo que uma conexão ociosa é mantida viva quando o servidor não informa Keep-Alive. */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /** Conexões ociosas há mais tempo que isso são fechadas pela thread de limpeza. */
+    private Duration idleEviction = Duration.ofSeconds(30);
+
+    /** Revalida a conexão antes do reuso quando ficou ociosa por mais tempo que isso. */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    private Async async = new Async();
+
+    private Batch batch = new Batch();
+
+    private Compression compression = new Compression();
+
+    private Retry retry = new Retry();
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private Limiter limiter = new Limiter();
+
+    private Hedge hedge = new Hedge();
+
+    public enum Transport {
+        /** Apache HttpClient com pool de conexões HTTP/1.1: uma requisição por conexão de cada vez. */
+        HTTP1,
+        /**
+         * {@code java.net.http.HttpClient} com HTTP/2: várias requisições simultâneas dividem uma conexão por host.
+         * Usa ALPN em https e upgrade h2c em http, voltando para HTTP/1.1 se o servidor não aceitar. Os limites
+         * e a limpeza do pool ({@code max-total}, {@code keep-alive} etc.) não se aplicam.
+         */
+        HTTP2;
+    }
+
+    public enum ThreadMode {
+        /** Usa virtual threads quando o runtime suporta, senão threads de plataforma. */
+        AUTO,
+        PLATFORM,
+        VIRTUAL;
+    }
+
+    /** Executor usado pelo {@code HttpPadrao.callAsync} ({@code restclient.http.async.*}). */
+    @Data
+    public static class Async {
+
+        private ThreadMode mode = ThreadMode.AUTO;
+
+        /** Threads de plataforma do executor quando não estiver em modo virtual. */
+        private int maxThreads = 64;
+
+        /** Chamadas aguardando thread livre no modo de plataforma. */
+        private int queueCapacity = 10_000;
+
+        /** Máximo de chamadas simultâneas no modo virtual. */
+        private int maxConcurrency = 10_000;
+
+    }
+
+    /** Limites padrão do {@code HttpBatch} ({@code restclient.http.batch.*}). */
+    @Data
+    public static class Batch {
+
+        private int maxParallelism = 32;
+
+        private int maxPerHost = 8;
+
+    }
+
+    /** Compressão gzip/deflate das chamadas ({@code restclient.http.compression.*}). */
+    @Data
+    public static class Compression {
+
+        /** Envia {@code Accept-Encoding} e descomprime as respostas. */
+        private boolean enabled = true;
+
+        /**
+         * Comprime com gzip os corpos de requisição maiores que {@link #requestThreshold}. Desligado por padrão:
+         * só ligue para destinos que aceitam {@code Content-Encoding: gzip} na requisição.
+         */
+        private boolean compressRequests = false;
+
+        private DataSize requestThreshold = DataSize.ofKilobytes(8);
+
+    }
+
+    /** Novas tentativas dos métodos idempotentes (GET, PUT, DELETE) ({@code restclient.http.retry.*}). */
+    @Data
+    public static class Retry {
+
+        /** Total de tentativas, contando a primeira. 1 desliga as novas tentativas. */
+        private int maxAttempts = 3;
+
+        /** Teto da espera antes da segunda tentativa; dobra a cada tentativa, com jitter completo. */
+        private Duration initialBackoff = Duration.ofMillis(100);
+
+        private Duration maxBackoff = Duration.ofSeconds(2);
+
+    }
+
+    /** Circuit breaker por host ({@code restclient.http.circuit-breaker.*}). */
+    @Data
+    public static class CircuitBreaker {
+
+        private boolean enabled = true;
+
+        /** Falhas seguidas que abrem o circuito. */
+        private int failureThreshold = 5;
+
+        /** Tempo com o circuito aberto antes de liberar chamadas de teste. */
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /** Chamadas de teste simultâneas permitidas no estado meio-aberto. */
+        private int halfOpenMaxCalls = 1;
+
+    }
+
+    /**
+     * Limite adaptativo de chamadas simultâneas por host ({@code restclient.http.limiter.*}). Desligado por padrão:
+     * rejeita chamadas na hora, então precisa ser ligado de propósito para cada aplicação.
+     */
+    @Data
+    public static class Limiter {
+
+        private boolean enabled = false;
+
+        private int initialLimit = 20;
+
+        /** Piso do limite; evita que poucas amostras lentas reduzam o host a uma chamada por vez. */
+        private int minLimit = 10;
+
+        private int maxLimit = 200;
+
+        /** Fator aplicado ao limite quando a latência sobe ou a chamada falha. */
+        private double backoffRatio = 0.9;
+
+        /** Latência acima de {@code menor latência observada * tolerance} conta como congestionamento. */
+        private double latencyTolerance = 2.0;
+
+        /** Amostras até renovar a menor latência de referência, para acompanhar mudanças duradouras. */
+        private int rttWindow = 1_000;
+
+    }
+
+    /** Requisições GET de reserva (hedging) para cortar a cauda de latência ({@code restclient.http.hedge.*}). */
+    @Data
+    public static class Hedge {
+
+        /** Percentil da latência do host usado como espera antes de disparar a requisição de reserva. */
+        private double percentile = 95.0;
+
+        private Duration minDelay = Duration.ofMillis(5);
+
+        private Duration maxDelay = Duration.ofSeconds(2);
+
+        /** Latências guardadas por host para calcular o percentil. */
+        private int window = 512;
+
+        /** Amostras necessárias antes de começar a disparar requisições de reserva. */
+        private int minSamples = 50;
+
+        /** Carga extra máxima, em fração das chamadas: 0.05 permite uma reserva a cada 20 chamadas. */
+        private double budgetRatio = 0.05;
+
+        /** Reservas que podem ser disparadas em rajada quando o orçamento está cheio. */
+        private int budgetBurst = 10;
+
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.sulimann.restclient.configs;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.sulimann.restclient.utils.json.JSONUtilitiesHttpMessageConverter;
+import com.sulimann.restclient.utils.json.JSONUtilitiesV2;
+import com.sulimann.restclient.utils.json.JSONUtilitiesV2.BuildType;
+
+@Configuration
+public class JsonConfig implements WebMvcConfigurer {
+
+  private final JSONUtilitiesV2 jsonUtilities = JSONUtilitiesV2.create()
+      .withParseDate(BuildType.LAZY)
+      .withParseLocalDate(BuildType.LAZY)
+      .withParseLocalDateTime(BuildType.LAZY)
+      .withParseXMLGregorianCalendar(BuildType.LAZY)
+      .builder();
+
+  @Bean
+  JSONUtilitiesV2 jsonUtilities(){
+    return this.jsonUtilities;
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters){
+    new JSONUtilitiesHttpMessageConverter(this.jsonUtilities).registerIn(converters);
+  }
+
+}
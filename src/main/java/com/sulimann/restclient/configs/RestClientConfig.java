@@ -1,15 +1,43 @@
 package com.sulimann.restclient.configs;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestClient;
 
+import com.sulimann.restclient.utils.http.HttpAsyncExecutor;
+import com.sulimann.restclient.utils.http.HttpConnectionPool;
+import com.sulimann.restclient.utils.http.HttpMetrics;
+import com.sulimann.restclient.utils.json.JSONUtilitiesHttpMessageConverter;
+import com.sulimann.restclient.utils.json.JSONUtilitiesV2;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
 public class RestClientConfig {
 
+  @Bean(destroyMethod = "close")
+  HttpConnectionPool httpConnectionPool(HttpClientProperties properties, JSONUtilitiesV2 jsonUtilities){
+    return HttpConnectionPool.install(HttpConnectionPool.create(properties, jsonUtilities));
+  }
+
+  @Bean(destroyMethod = "close")
+  HttpAsyncExecutor httpAsyncExecutor(HttpClientProperties properties){
+    return HttpAsyncExecutor.install(HttpAsyncExecutor.create(properties.getAsync()));
+  }
+
+  @Bean
+  HttpMetrics httpMetrics(MeterRegistry meterRegistry, HttpConnectionPool httpConnectionPool){
+    return HttpMetrics.install(HttpMetrics.create(meterRegistry, httpConnectionPool));
+  }
+
   @Bean
-  RestClient restClient(){
-    return RestClient.create();
+  RestClient restClient(HttpConnectionPool httpConnectionPool){
+    return RestClient.builder()
+        .requestFactory(httpConnectionPool.requestFactory())
+        .messageConverters(converters -> new JSONUtilitiesHttpMessageConverter(httpConnectionPool.json()).registerIn(converters))
+        .build();
   }
 
 }
@@ -1,14 +1,48 @@
 package com.sulimann.restclient.exceptions;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 
 public class RestClientException extends RuntimeException {
 
+    private final HttpStatus status;
+    private final String title;
+    private final Map<String, Object> properties = new LinkedHashMap<>();
+
+    public RestClientException() {
+        this(HttpStatus.INTERNAL_SERVER_ERROR, "RestClient Internal Server Error", null, null);
+    }
+
+    public RestClientException(HttpStatus status, String title, String detail) {
+        this(status, title, detail, null);
+    }
+
+    public RestClientException(HttpStatus status, String title, String detail, Throwable cause) {
+        super(detail, cause);
+        this.status = status;
+        this.title = title;
+    }
+
+    public HttpStatus getStatus() {
+        return this.status;
+    }
+
+    public RestClientException withProperty(String name, Object value) {
+        this.properties.put(name, value);
+        return this;
+    }
+
     public ProblemDetail toProblemDetail(){
-        var pb = ProblemDetail.forStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+        var pb = ProblemDetail.forStatus(this.status);
 
-        pb.setTitle("RestClient Internal Server Error");
+        pb.setTitle(this.title);
+        if (getMessage() != null) {
+            pb.setDetail(getMessage());
+        }
+        this.properties.forEach(pb::setProperty);
 
         return pb;
     }
@@ -6,7 +6,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
-import com.sulimann.restclient.exceptions.PicPayException;
+import com.sulimann.restclient.exceptions.RestClientException;
 
 @ControllerAdvice
 public class ControllerExceptionHandler {
@@ -26,8 +26,8 @@ public class ControllerExceptionHandler {
         return pb;
     }
 
-    @ExceptionHandler(restclientException.class)
-    public ProblemDetail handlerestclientException(restclientException e){
+    @ExceptionHandler(RestClientException.class)
+    public ProblemDetail handleRestClientException(RestClientException e){
         return e.toProblemDetail();
     }
 
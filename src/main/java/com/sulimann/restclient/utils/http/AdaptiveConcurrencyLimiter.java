@@ -0,0 +1,111 @@
+package com.sulimann.restclient.utils.http;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sulimann.restclient.configs.HttpClientProperties;
+
+/**
+ * Limite de chamadas simultâneas de um host, ajustado pela latência observada (AIMD guiado por latência).
+ * Cada chamada concluída é uma amostra: se demorou mais que {@code latencyTolerance} vezes a menor latência
+ * de referência, ou falhou por rede/sobrecarga, o limite é multiplicado por {@code backoffRatio}; se foi
+ * rápida com o limite realmente em uso, o limite sobe uma unidade. Acima do limite a chamada é rejeitada na hora.
+ * <p>
+ * O limite cai no máximo uma vez por janela de RTT: só uma chamada iniciada depois da última redução pode
+ * reduzi-lo de novo, senão uma rajada de respostas lentas já em voo derrubaria o limite até o mínimo.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final int rttWindow;
+
+    private double limit;
+    private int inFlight;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private int windowSamples;
+    private long lastDecreaseNanos;
+    private boolean decreased;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    AdaptiveConcurrencyLimiter(HttpClientProperties.Limiter properties) {
+        this.enabled = properties.isEnabled();
+        this.minLimit = Math.max(1, properties.getMinLimit());
+        this.maxLimit = properties.getMaxLimit();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.latencyTolerance = properties.getLatencyTolerance();
+        this.rttWindow = properties.getRttWindow();
+        this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, properties.getInitialLimit()));
+    }
+
+    public synchronized int limit() {
+        return (int) this.limit;
+    }
+
+    public synchronized int inFlight() {
+        return this.inFlight;
+    }
+
+    public Snapshot snapshot() {
+        synchronized (this) {
+            return new Snapshot((int) this.limit, this.inFlight, this.accepted.sum(), this.rejections.sum());
+        }
+    }
+
+    synchronized boolean tryAcquire() {
+        if (this.enabled && this.inFlight >= (int) this.limit) {
+            this.rejections.increment();
+            return false;
+        }
+        this.inFlight++;
+        this.accepted.increment();
+        return true;
+    }
+
+    /**
+     * Devolve a vaga e usa a chamada como amostra. {@code dropped} indica falha de rede ou sobrecarga do host; essas
+     * falhas costumam voltar rápido e não entram na latência de referência, senão tornariam lentas as chamadas
+     * saudáveis seguintes.
+     */
+    synchronized void release(long rttNanos, boolean dropped) {
+        int inFlightBefore = this.inFlight--;
+        if (!this.enabled) {
+            return;
+        }
+        if (!dropped) {
+            this.windowMinRttNanos = Math.min(this.windowMinRttNanos, rttNanos);
+            if (++this.windowSamples >= this.rttWindow) {
+                this.minRttNanos = this.windowMinRttNanos;
+                this.windowMinRttNanos = Long.MAX_VALUE;
+                this.windowSamples = 0;
+            }
+            this.minRttNanos = Math.min(this.minRttNanos, rttNanos);
+        }
+
+        if (dropped || rttNanos > this.minRttNanos * this.latencyTolerance) {
+            long now = System.nanoTime();
+            if (!this.decreased || now - rttNanos - this.lastDecreaseNanos >= 0) {
+                this.limit = Math.max(this.minLimit, this.limit * this.backoffRatio);
+                this.lastDecreaseNanos = now;
+                this.decreased = true;
+            }
+        } else if (inFlightBefore * 2 >= (int) this.limit) {
+            this.limit = Math.min(this.maxLimit, this.limit + 1);
+        }
+    }
+
+    /**
+     * Devolve a vaga sem usar a chamada como amostra (ex.: cancelada ou com erro do próprio cliente).
+     */
+    synchronized void releaseIgnored() {
+        this.inFlight--;
+    }
+
+    public record Snapshot(int limit, int inFlight, long accepted, long rejections) {}
+
+}
@@ -0,0 +1,65 @@
+package com.sulimann.restclient.utils.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Resposta já lida por completo para a memória. Pode ser entregue várias vezes aos conversores do
+ * {@code RestTemplate}: cada {@link #getBody()} devolve um stream novo sobre os mesmos bytes.
+ */
+final class BufferedClientHttpResponse implements ClientHttpResponse {
+
+    private final HttpStatusCode statusCode;
+    private final String statusText;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    BufferedClientHttpResponse(HttpStatusCode statusCode, String statusText, HttpHeaders headers, byte[] body) {
+        this.statusCode = statusCode;
+        this.statusText = statusText;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+    }
+
+    static BufferedClientHttpResponse of(ClientHttpResponse response) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        return new BufferedClientHttpResponse(response.getStatusCode(), response.getStatusText(), headers,
+                StreamUtils.copyToByteArray(response.getBody()));
+    }
+
+    byte[] bodyBytes() {
+        return this.body;
+    }
+
+    @Override
+    public HttpStatusCode getStatusCode() {
+        return this.statusCode;
+    }
+
+    @Override
+    public String getStatusText() {
+        return this.statusText;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return this.headers;
+    }
+
+    @Override
+    public InputStream getBody() {
+        return new ByteArrayInputStream(this.body);
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
@@ -0,0 +1,453 @@
+package com.sulimann.restclient.utils.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Envolve a fábrica do pool para pedir {@code Accept-Encoding: gzip, deflate}, descomprimir as respostas
+ * como stream e comprimir corpos de requisição acima do limite configurado. Os bytes antes e depois da
+ * compressão vão para {@link HttpCompressionStats}, e os bytes que de fato trafegaram para {@link HttpMetrics},
+ * inclusive com a compressão desligada.
+ * <p>
+ * Corpos com tamanho desconhecido só são comprimidos quando são {@link RepeatableBody}: o tamanho é sondado
+ * serializando no máximo {@code threshold} bytes. Se o corpo couber, esses bytes são os enviados, com
+ * {@code Content-Length}, sem serializar de novo; só corpos acima do limite são serializados outra vez, já
+ * comprimindo.
+ */
+final class CompressingClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+    private static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+
+    private final ClientHttpRequestFactory delegate;
+    private final long requestThreshold;
+    private final boolean decompressResponses;
+    private final boolean compressRequests;
+
+    CompressingClientHttpRequestFactory(ClientHttpRequestFactory delegate, boolean decompressResponses,
+            boolean compressRequests, long requestThreshold) {
+        this.delegate = delegate;
+        this.decompressResponses = decompressResponses;
+        this.compressRequests = compressRequests;
+        this.requestThreshold = requestThreshold;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+        return new CompressingRequest(uri, httpMethod);
+    }
+
+    /**
+     * Corpo que pode ser escrito mais de uma vez com o mesmo resultado, como o JSON serializado pelo {@link HttpPadrao}.
+     */
+    interface RepeatableBody extends StreamingHttpOutputMessage.Body {
+    }
+
+    /**
+     * Guarda cabeçalhos e corpo até o {@link #execute()}, quando a requisição de verdade é criada no delegate.
+     * Corpos escritos por {@link #getBody()} ficam num buffer; os dados por {@link #setBody} são escritos só no envio.
+     */
+    private final class CompressingRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+        private final URI uri;
+        private final HttpMethod method;
+        private final HttpHeaders headers = new HttpHeaders();
+        private Body body;
+        private ByteArrayOutputStream buffer;
+        private boolean executed;
+
+        private CompressingRequest(URI uri, HttpMethod method) {
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return this.method;
+        }
+
+        @Override
+        public URI getURI() {
+            return this.uri;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.executed ? HttpHeaders.readOnlyHttpHeaders(this.headers) : this.headers;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            assertNotExecuted();
+            if (this.buffer == null) {
+                this.buffer = new ByteArrayOutputStream(1024);
+                this.body = this.buffer::writeTo;
+            }
+            return this.buffer;
+        }
+
+        @Override
+        public void setBody(Body body) {
+            assertNotExecuted();
+            this.buffer = null;
+            this.body = body;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            assertNotExecuted();
+            this.executed = true;
+            HttpHeaders headers = this.headers;
+            Body body = this.body;
+            if (this.buffer != null && !headers.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+                headers.setContentLength(this.buffer.size());
+            }
+            ClientHttpRequest request = CompressingClientHttpRequestFactory.this.delegate.createRequest(this.uri, this.method);
+            HttpHeaders requestHeaders = request.getHeaders();
+            requestHeaders.putAll(headers);
+            boolean decompress = CompressingClientHttpRequestFactory.this.decompressResponses;
+            if (decompress && !requestHeaders.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+                requestHeaders.set(HttpHeaders.ACCEPT_ENCODING, ACCEPTED_ENCODINGS);
+            }
+            String host = HttpHosts.of(this.uri.toString());
+            if (body != null) {
+                Body payload = probe(headers, body);
+                if (payload == null) {
+                    requestHeaders.remove(HttpHeaders.CONTENT_LENGTH);
+                    requestHeaders.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    writeBody(request, out -> writeCompressed(host, body, out));
+                } else {
+                    if (payload instanceof ThresholdProbe probe) {
+                        requestHeaders.setContentLength(probe.size());
+                    }
+                    writeBody(request, out -> writeCounted(host, payload, out));
+                }
+            }
+            return new DecompressingResponse(request.execute(), host, decompress);
+        }
+
+        private void assertNotExecuted() {
+            if (this.executed) {
+                throw new IllegalStateException("Requisição HTTP já executada");
+            }
+        }
+
+        /**
+         * Corpo a enviar sem compressão, ou {@code null} quando ele deve ser comprimido. Um corpo sondado que
+         * coube no limite volta como o próprio {@link ThresholdProbe}, com os bytes já serializados.
+         */
+        private Body probe(HttpHeaders headers, Body body) throws IOException {
+            if (!CompressingClientHttpRequestFactory.this.compressRequests || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                return body;
+            }
+            long threshold = CompressingClientHttpRequestFactory.this.requestThreshold;
+            long contentLength = headers.getContentLength();
+            if (contentLength >= 0) {
+                return contentLength > threshold ? null : body;
+            }
+            if (!(body instanceof RepeatableBody)) {
+                return body;
+            }
+            ThresholdProbe probe = new ThresholdProbe(threshold);
+            try {
+                body.writeTo(probe);
+                return probe;
+            } catch (ThresholdProbe.Exceeded e) {
+                return null;
+            }
+        }
+    }
+
+    private static void writeBody(ClientHttpRequest request, StreamingHttpOutputMessage.Body body) throws IOException {
+        if (request instanceof StreamingHttpOutputMessage streaming) {
+            streaming.setBody(body);
+        } else {
+            body.writeTo(request.getBody());
+        }
+    }
+
+    private static void writeCompressed(String host, StreamingHttpOutputMessage.Body body, OutputStream out) throws IOException {
+        CountingOutputStream compressed = new CountingOutputStream(out);
+        GZIPOutputStream gzip = new GZIPOutputStream(compressed, 8192);
+        CountingOutputStream plain = new CountingOutputStream(gzip);
+        body.writeTo(plain);
+        gzip.finish();
+        HttpCompressionStats.recordRequest(host, plain.count, compressed.count);
+        HttpMetrics.shared().recordBytesOut(host, compressed.count);
+    }
+
+    private static void writeCounted(String host, StreamingHttpOutputMessage.Body body, OutputStream out) throws IOException {
+        CountingOutputStream counted = new CountingOutputStream(out);
+        body.writeTo(counted);
+        HttpMetrics.shared().recordBytesOut(host, counted.count);
+    }
+
+    /**
+     * Descomprime sob demanda: o decodificador só é criado na primeira leitura e corpos vazios
+     * (HEAD, 204, 304) não passam por ele. Corpos sem compressão só são contados.
+     */
+    private static final class DecompressingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+        private final String host;
+        private final String encoding;
+        private final HttpHeaders headers;
+        private InputStream body;
+
+        private DecompressingResponse(ClientHttpResponse response, String host, boolean decompress) {
+            this.response = response;
+            this.host = host;
+            HttpHeaders original = response.getHeaders();
+            String contentEncoding = decompress ? original.getFirst(HttpHeaders.CONTENT_ENCODING) : null;
+            this.encoding = contentEncoding != null ? contentEncoding.trim().toLowerCase(Locale.ROOT) : null;
+            if (isDecodable(this.encoding)) {
+                HttpHeaders decoded = new HttpHeaders();
+                decoded.putAll(original);
+                decoded.remove(HttpHeaders.CONTENT_ENCODING);
+                decoded.remove(HttpHeaders.CONTENT_LENGTH);
+                this.headers = decoded;
+            } else {
+                this.headers = original;
+            }
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return this.response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return this.response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (this.body == null) {
+                InputStream raw = this.response.getBody();
+                this.body = isDecodable(this.encoding) ? new DecodingInputStream(raw, this.encoding, this.host) : new CountingInputStream(raw);
+            }
+            return this.body;
+        }
+
+        @Override
+        public void close() {
+            if (this.body instanceof DecodingInputStream decoding) {
+                decoding.record();
+            } else if (this.body instanceof CountingInputStream counting) {
+                HttpMetrics.shared().recordBytesIn(this.host, counting.count);
+            }
+            this.response.close();
+        }
+
+        private static boolean isDecodable(String encoding) {
+            return "gzip".equals(encoding) || "x-gzip".equals(encoding) || "deflate".equals(encoding);
+        }
+    }
+
+    private static final class DecodingInputStream extends InputStream {
+
+        private final CountingInputStream compressed;
+        private final String encoding;
+        private final String host;
+        private InputStream decoded;
+        private long plainBytes;
+        private boolean recorded;
+
+        private DecodingInputStream(InputStream raw, String encoding, String host) {
+            this.compressed = new CountingInputStream(raw);
+            this.encoding = encoding;
+            this.host = host;
+        }
+
+        private InputStream decoded() throws IOException {
+            if (this.decoded == null) {
+                PushbackInputStream probe = new PushbackInputStream(this.compressed, 1);
+                int first = probe.read();
+                if (first < 0) {
+                    this.decoded = InputStream.nullInputStream();
+                } else {
+                    probe.unread(first);
+                    this.decoded = "deflate".equals(this.encoding) ? new InflaterInputStream(probe, new Inflater(), 8192)
+                                                                   : new GZIPInputStream(probe, 8192);
+                }
+            }
+            return this.decoded;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = decoded().read();
+            if (value >= 0) {
+                this.plainBytes++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = decoded().read(buffer, offset, length);
+            if (read > 0) {
+                this.plainBytes += read;
+            }
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return this.decoded == null ? 0 : this.decoded.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            record();
+            if (this.decoded != null) {
+                this.decoded.close();
+            } else {
+                this.compressed.close();
+            }
+        }
+
+        private void record() {
+            if (!this.recorded) {
+                this.recorded = true;
+                HttpCompressionStats.recordResponse(this.host, this.compressed.count, this.plainBytes);
+                HttpMetrics.shared().recordBytesIn(this.host, this.compressed.count);
+            }
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                this.count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                this.count += read;
+            }
+            return read;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            this.out.write(value);
+            this.count++;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            this.out.write(buffer, offset, length);
+            this.count += length;
+        }
+    }
+
+    /**
+     * Guarda o que recebe até o limite e interrompe a escrita assim que ele é ultrapassado. Se a escrita terminar
+     * antes, é ele mesmo o corpo a enviar.
+     */
+    private static final class ThresholdProbe extends OutputStream implements StreamingHttpOutputMessage.Body {
+
+        private final long threshold;
+        private byte[] buffer = new byte[256];
+        private int written;
+
+        private ThresholdProbe(long threshold) {
+            this.threshold = Math.min(threshold, Integer.MAX_VALUE - 8);
+        }
+
+        int size() {
+            return this.written;
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            ensure(1);
+            this.buffer[this.written++] = (byte) value;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            ensure(length);
+            System.arraycopy(bytes, offset, this.buffer, this.written, length);
+            this.written += length;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(this.buffer, 0, this.written);
+        }
+
+        private void ensure(int length) throws Exceeded {
+            long needed = (long) this.written + length;
+            if (needed > this.threshold) {
+                throw new Exceeded();
+            }
+            if (needed > this.buffer.length) {
+                this.buffer = Arrays.copyOf(this.buffer, (int) Math.min(this.threshold, Math.max(needed, this.buffer.length * 2L)));
+            }
+        }
+
+        private static final class Exceeded extends IOException {
+
+            private static final long serialVersionUID = 1L;
+
+            private Exceeded() {
+                super("Limite de compressão excedido");
+            }
+
+            @Override
+            public synchronized Throwable fillInStackTrace() {
+                return this;
+            }
+        }
+    }
+
+}
@@ -4,12 +4,31 @@ import org.springframework.http.HttpMethod;
 
 import lombok.experimental.SuperBuilder;
 
-@SuperBuilder
+@SuperBuilder(toBuilder = true)
 public class Get extends HttpPadrao {
 
+    private final HttpResponseCache cache;
+    private final boolean hedge;
+    private final String hedgeAddress;
+
     @Override
     protected HttpMethod method() {
         return HttpMethod.GET;
     }
 
+    @Override
+    protected HttpResponseCache responseCache() {
+        return this.cache;
+    }
+
+    @Override
+    protected boolean hedges() {
+        return this.hedge;
+    }
+
+    @Override
+    protected String hedgeAddress() {
+        return this.hedgeAddress;
+    }
+
 }
@@ -0,0 +1,117 @@
+package com.sulimann.restclient.utils.http;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sulimann.restclient.configs.HttpClientProperties;
+
+/**
+ * Circuit breaker de um host. Fechado deixa tudo passar; após {@code failureThreshold} falhas seguidas abre e
+ * rejeita na hora; passado {@code openDuration} fica meio-aberto e libera poucas chamadas de teste, que
+ * fecham o circuito se derem certo ou o reabrem se falharem.
+ */
+public final class HostCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN;
+    }
+
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final int halfOpenMaxCalls;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private int halfOpenInFlight;
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    HostCircuitBreaker(HttpClientProperties.CircuitBreaker properties) {
+        this.enabled = properties.isEnabled();
+        this.failureThreshold = properties.getFailureThreshold();
+        this.openMillis = properties.getOpenDuration().toMillis();
+        this.halfOpenMaxCalls = properties.getHalfOpenMaxCalls();
+    }
+
+    public synchronized State state() {
+        return this.state;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(state(), this.successes.sum(), this.failures.sum(), this.rejections.sum(), this.retries.sum(), this.opened.sum());
+    }
+
+    synchronized boolean tryAcquire() {
+        if (!this.enabled) {
+            return true;
+        }
+        if (this.state == State.OPEN) {
+            if (System.currentTimeMillis() - this.openedAt < this.openMillis) {
+                this.rejections.increment();
+                return false;
+            }
+            this.state = State.HALF_OPEN;
+            this.halfOpenInFlight = 0;
+        }
+        if (this.state == State.HALF_OPEN) {
+            if (this.halfOpenInFlight >= this.halfOpenMaxCalls) {
+                this.rejections.increment();
+                return false;
+            }
+            this.halfOpenInFlight++;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        this.successes.increment();
+        this.consecutiveFailures = 0;
+        if (this.state == State.HALF_OPEN) {
+            this.state = State.CLOSED;
+            this.halfOpenInFlight = 0;
+        }
+    }
+
+    synchronized void onFailure() {
+        this.failures.increment();
+        if (!this.enabled) {
+            return;
+        }
+        if (this.state == State.HALF_OPEN || ++this.consecutiveFailures >= this.failureThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * A chamada terminou sem dizer nada sobre a saúde do host (ex.: foi cancelada).
+     */
+    synchronized void onIgnored() {
+        if (this.state == State.HALF_OPEN && this.halfOpenInFlight > 0) {
+            this.halfOpenInFlight--;
+        }
+    }
+
+    void onRetry() {
+        this.retries.increment();
+    }
+
+    private void open() {
+        if (this.state != State.OPEN) {
+            this.opened.increment();
+        }
+        this.state = State.OPEN;
+        this.openedAt = System.currentTimeMillis();
+        this.consecutiveFailures = 0;
+        this.halfOpenInFlight = 0;
+    }
+
+    public record Snapshot(State state, long successes, long failures, long rejections, long retries, long opened) {}
+
+}
@@ -0,0 +1,101 @@
+package com.sulimann.restclient.utils.http;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sulimann.restclient.configs.HttpClientProperties;
+
+/**
+ * Latências recentes e orçamento de requisições de reserva de um host. A espera antes da reserva é o percentil
+ * configurado das últimas {@code window} latências, recalculado a cada poucas amostras. O orçamento é um balde
+ * que ganha {@code budgetRatio} fichas por chamada e perde uma por reserva, limitando a carga extra.
+ */
+public final class HostHedgeTracker {
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final int minSamples;
+    private final double budgetRatio;
+    private final int budgetBurst;
+
+    private final long[] latencies;
+    private int next;
+    private int samples;
+    private int sinceRecompute;
+    private volatile long delayNanos = -1;
+
+    private double tokens;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder won = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    HostHedgeTracker(HttpClientProperties.Hedge properties) {
+        this.percentile = Math.max(0, Math.min(100, properties.getPercentile()));
+        this.minDelayNanos = properties.getMinDelay().toNanos();
+        this.maxDelayNanos = properties.getMaxDelay().toNanos();
+        this.minSamples = Math.max(1, properties.getMinSamples());
+        this.budgetRatio = properties.getBudgetRatio();
+        this.budgetBurst = properties.getBudgetBurst();
+        this.latencies = new long[Math.max(this.minSamples, properties.getWindow())];
+    }
+
+    /**
+     * Espera antes de disparar a reserva, ou {@code -1} enquanto não há amostras suficientes.
+     */
+    public long delayNanos() {
+        return this.delayNanos;
+    }
+
+    public Snapshot snapshot() {
+        long delay = this.delayNanos;
+        return new Snapshot(this.requests.sum(), this.fired.sum(), this.won.sum(), this.budgetExhausted.sum(),
+                delay < 0 ? -1 : delay / 1_000_000);
+    }
+
+    synchronized void onRequest() {
+        this.requests.increment();
+        this.tokens = Math.min(this.budgetBurst, this.tokens + this.budgetRatio);
+    }
+
+    synchronized boolean tryHedge() {
+        if (this.tokens < 1) {
+            this.budgetExhausted.increment();
+            return false;
+        }
+        this.tokens -= 1;
+        this.fired.increment();
+        return true;
+    }
+
+    void onHedgeWon() {
+        this.won.increment();
+    }
+
+    synchronized void record(long latencyNanos) {
+        this.latencies[this.next] = latencyNanos;
+        this.next = (this.next + 1) % this.latencies.length;
+        if (this.samples < this.latencies.length) {
+            this.samples++;
+        }
+        if (this.samples >= this.minSamples && ++this.sinceRecompute >= Math.max(1, this.latencies.length / 8)) {
+            this.sinceRecompute = 0;
+            this.delayNanos = computeDelay();
+        } else if (this.delayNanos < 0 && this.samples >= this.minSamples) {
+            this.delayNanos = computeDelay();
+        }
+    }
+
+    private long computeDelay() {
+        long[] sorted = Arrays.copyOf(this.latencies, this.samples);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(this.percentile / 100 * sorted.length) - 1;
+        long value = sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        return Math.max(this.minDelayNanos, Math.min(this.maxDelayNanos, value));
+    }
+
+    public record Snapshot(long requests, long hedgesFired, long hedgesWon, long budgetExhausted, long delayMillis) {}
+
+}
@@ -0,0 +1,163 @@
+package com.sulimann.restclient.utils.http;
+
+import java.io.Closeable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.sulimann.restclient.configs.HttpClientProperties;
+import com.sulimann.restclient.configs.HttpClientProperties.ThreadMode;
+
+/**
+ * Executor limitado das chamadas assíncronas do {@link HttpPadrao}.
+ * Em modo virtual cada chamada ganha uma virtual thread e o limite é um semáforo; em modo de plataforma é um
+ * pool fixo com fila limitada. Nos dois casos o excesso é rejeitado na hora em vez de enfileirar sem limite.
+ */
+public final class HttpAsyncExecutor implements Closeable {
+
+    private static volatile HttpAsyncExecutor shared;
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final boolean virtual;
+
+    private HttpAsyncExecutor(HttpClientProperties.Async properties) {
+        ExecutorService virtualExecutor = ThreadMode.PLATFORM.equals(properties.getMode()) ? null : newVirtualExecutor();
+        if (virtualExecutor == null && ThreadMode.VIRTUAL.equals(properties.getMode())) {
+            throw new IllegalStateException("Virtual threads não são suportadas neste runtime");
+        }
+        this.virtual = virtualExecutor != null;
+        if (this.virtual) {
+            this.executor = virtualExecutor;
+            this.permits = new Semaphore(properties.getMaxConcurrency());
+        } else {
+            this.executor = newPlatformExecutor(properties);
+            this.permits = null;
+        }
+    }
+
+    public static HttpAsyncExecutor create(HttpClientProperties.Async properties) {
+        return new HttpAsyncExecutor(properties);
+    }
+
+    public static HttpAsyncExecutor shared() {
+        HttpAsyncExecutor current = shared;
+        if (current == null) {
+            synchronized (HttpAsyncExecutor.class) {
+                current = shared;
+                if (current == null) {
+                    current = new HttpAsyncExecutor(new HttpClientProperties.Async());
+                    shared = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public static synchronized HttpAsyncExecutor install(HttpAsyncExecutor executor) {
+        HttpAsyncExecutor previous = shared;
+        shared = executor;
+        if (previous != null && previous != executor) {
+            previous.close();
+        }
+        return executor;
+    }
+
+    public boolean isVirtual() {
+        return this.virtual;
+    }
+
+    /**
+     * Executa a chamada fora da thread atual. Cancelar o futuro, ou ele expirar via {@code orTimeout},
+     * aborta a requisição HTTP em andamento. Cancelar estágios derivados ({@code thenApply} etc.) não propaga.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        HttpCancellation cancellation = new HttpCancellation();
+        future.whenComplete((result, error) -> {
+            if (error instanceof CancellationException || error instanceof TimeoutException) {
+                cancellation.cancel();
+            }
+        });
+        if (this.permits != null && !this.permits.tryAcquire()) {
+            future.completeExceptionally(new RejectedExecutionException("Limite de chamadas assíncronas atingido"));
+            return future;
+        }
+        try {
+            this.executor.execute(() -> {
+                try {
+                    if (future.isDone()) {
+                        return;
+                    }
+                    cancellation.runBound(() -> {
+                        try {
+                            future.complete(call.get());
+                        } catch (CompletionException e) {
+                            future.completeExceptionally(e.getCause());
+                        } catch (Throwable e) {
+                            future.completeExceptionally(e);
+                        }
+                    });
+                } finally {
+                    release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            release();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public void close() {
+        synchronized (HttpAsyncExecutor.class) {
+            if (shared == this) {
+                shared = null;
+            }
+        }
+        this.executor.shutdown();
+    }
+
+    private void release() {
+        if (this.permits != null) {
+            this.permits.release();
+        }
+    }
+
+    private static ExecutorService newVirtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newPlatformExecutor(HttpClientProperties.Async properties) {
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                properties.getMaxThreads(),
+                properties.getMaxThreads(),
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "http-async-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+}
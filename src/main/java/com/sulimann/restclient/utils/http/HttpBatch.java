@@ -0,0 +1,256 @@
+package com.sulimann.restclient.utils.http;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestClientResponseException;
+
+import com.sulimann.restclient.configs.HttpClientProperties;
+import com.sulimann.restclient.exceptions.RestClientException;
+import com.sulimann.restclient.utils.httpresponse.ErroResponse;
+import com.sulimann.restclient.utils.httpresponse.Resultado;
+
+/**
+ * Dispara um lote de {@link HttpPadrao} em paralelo, respeitando um limite global e um limite por host.
+ * Cada item vira um {@link Resultado} próprio: uma falha não derruba o lote.
+ */
+public final class HttpBatch {
+
+    private final int maxParallelism;
+    private final int maxPerHost;
+
+    private HttpBatch(int maxParallelism, int maxPerHost) {
+        if (maxParallelism < 1 || maxPerHost < 1) {
+            throw new IllegalArgumentException("Limites do lote precisam ser maiores que zero");
+        }
+        this.maxParallelism = maxParallelism;
+        this.maxPerHost = maxPerHost;
+    }
+
+    public static HttpBatch create() {
+        HttpClientProperties.Batch properties = HttpConnectionPool.shared().properties().getBatch();
+        return new HttpBatch(properties.getMaxParallelism(), properties.getMaxPerHost());
+    }
+
+    public static HttpBatch of(int maxParallelism, int maxPerHost) {
+        return new HttpBatch(maxParallelism, maxPerHost);
+    }
+
+    /**
+     * Executa o lote e devolve os resultados na mesma ordem das requisições.
+     */
+    public <T> List<Resultado<Optional<T>, ErroResponse>> call(Collection<? extends HttpPadrao> requests, Class<T> responseType) {
+        return collect(requests, request -> request.callAsync(responseType));
+    }
+
+    public <T> List<Resultado<Optional<T>, ErroResponse>> call(Collection<? extends HttpPadrao> requests, ParameterizedTypeReference<T> responseType) {
+        return collect(requests, request -> request.callAsync(responseType));
+    }
+
+    /**
+     * Executa o lote e entrega cada resultado assim que ele termina, na ordem de conclusão.
+     * O stream bloqueia apenas enquanto espera o próximo resultado.
+     */
+    public <T> Stream<Item<T>> stream(Collection<? extends HttpPadrao> requests, Class<T> responseType) {
+        return streamAll(requests, request -> request.callAsync(responseType));
+    }
+
+    public <T> Stream<Item<T>> stream(Collection<? extends HttpPadrao> requests, ParameterizedTypeReference<T> responseType) {
+        return streamAll(requests, request -> request.callAsync(responseType));
+    }
+
+    private <T> List<Resultado<Optional<T>, ErroResponse>> collect(Collection<? extends HttpPadrao> requests,
+            Function<HttpPadrao, CompletableFuture<Optional<T>>> call) {
+        List<Resultado<Optional<T>, ErroResponse>> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            results.add(null);
+        }
+        new Run<T>(requests, call, item -> results.set(item.index(), item.resultado())).start().join();
+        return results;
+    }
+
+    private <T> Stream<Item<T>> streamAll(Collection<? extends HttpPadrao> requests,
+            Function<HttpPadrao, CompletableFuture<Optional<T>>> call) {
+        int total = requests.size();
+        BlockingQueue<Item<T>> completed = new LinkedBlockingQueue<>();
+        new Run<T>(requests, call, completed::add).start();
+        Iterator<Item<T>> iterator = new Iterator<>() {
+            private int delivered;
+
+            @Override
+            public boolean hasNext() {
+                return this.delivered < total;
+            }
+
+            @Override
+            public Item<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    Item<T> item = completed.take();
+                    this.delivered++;
+                    return item;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliterator(iterator, total, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private static ErroResponse toErro(HttpPadrao request, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        int status;
+        if (cause instanceof RestClientException restClientException) {
+            status = restClientException.getStatus().value();
+        } else if (cause instanceof RestClientResponseException response) {
+            status = response.getStatusCode().value();
+        } else {
+            status = HttpStatus.INTERNAL_SERVER_ERROR.value();
+        }
+        return new ErroResponse(LocalDateTime.now(), status, String.valueOf(cause.getMessage()), urlOf(request));
+    }
+
+    /**
+     * URL para o erro. A mesma montagem que pode ter causado a falha (variável faltando, endereço nulo) não pode
+     * falhar de novo aqui: o item ficaria sem resultado e o lote nunca terminaria.
+     */
+    private static String urlOf(HttpPadrao request) {
+        try {
+            return request.createURL();
+        } catch (RuntimeException e) {
+            return request.getAddress();
+        }
+    }
+
+    /**
+     * Resultado de um item do lote, com a posição que a requisição ocupava na coleção original.
+     */
+    public record Item<T>(int index, Resultado<Optional<T>, ErroResponse> resultado) {}
+
+    /**
+     * Fila por host despachada em rodízio; uma nova chamada só sai quando há vaga global e no host. Chamadas que
+     * terminam na hora (falha síncrona, cache) voltam ao {@link #dispatch()} já em andamento em vez de empilhar
+     * uma nova rodada por item.
+     */
+    private final class Run<T> {
+
+        private final Function<HttpPadrao, CompletableFuture<Optional<T>>> call;
+        private final Consumer<Item<T>> sink;
+        private final Map<String, ArrayDeque<Pending>> queues = new LinkedHashMap<>();
+        private final Map<String, Integer> activeByHost = new LinkedHashMap<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private final AtomicInteger dispatchRequests = new AtomicInteger();
+        private int active;
+        private int remaining;
+
+        private Run(Collection<? extends HttpPadrao> requests, Function<HttpPadrao, CompletableFuture<Optional<T>>> call,
+                Consumer<Item<T>> sink) {
+            this.call = call;
+            this.sink = sink;
+            this.remaining = requests.size();
+            int index = 0;
+            for (HttpPadrao request : requests) {
+                String host = HttpHosts.of(request.getAddress());
+                this.queues.computeIfAbsent(host, key -> new ArrayDeque<>()).add(new Pending(index++, host, request));
+            }
+        }
+
+        private CompletableFuture<Void> start() {
+            if (this.remaining == 0) {
+                this.done.complete(null);
+            }
+            dispatch();
+            return this.done;
+        }
+
+        private void dispatch() {
+            if (this.dispatchRequests.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                launchAvailable();
+            } while (this.dispatchRequests.decrementAndGet() != 0);
+        }
+
+        private void launchAvailable() {
+            List<Pending> launch = new ArrayList<>();
+            synchronized (this) {
+                boolean progressed = true;
+                while (this.active < HttpBatch.this.maxParallelism && progressed) {
+                    progressed = false;
+                    for (Map.Entry<String, ArrayDeque<Pending>> entry : this.queues.entrySet()) {
+                        if (this.active >= HttpBatch.this.maxParallelism) {
+                            break;
+                        }
+                        int running = this.activeByHost.getOrDefault(entry.getKey(), 0);
+                        if (entry.getValue().isEmpty() || running >= HttpBatch.this.maxPerHost) {
+                            continue;
+                        }
+                        launch.add(entry.getValue().poll());
+                        this.activeByHost.put(entry.getKey(), running + 1);
+                        this.active++;
+                        progressed = true;
+                    }
+                }
+            }
+            for (Pending pending : launch) {
+                CompletableFuture<Optional<T>> future;
+                try {
+                    future = this.call.apply(pending.request());
+                } catch (RuntimeException e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+                future.whenComplete((value, error) -> complete(pending, value, error));
+            }
+        }
+
+        private void complete(Pending pending, Optional<T> value, Throwable error) {
+            try {
+                Resultado<Optional<T>, ErroResponse> resultado = error == null
+                        ? Resultado.sucesso(value)
+                        : Resultado.erro(toErro(pending.request(), error));
+                this.sink.accept(new Item<>(pending.index(), resultado));
+            } finally {
+                boolean finished;
+                synchronized (this) {
+                    this.active--;
+                    this.activeByHost.merge(pending.host(), -1, Integer::sum);
+                    finished = --this.remaining == 0;
+                }
+                if (finished) {
+                    this.done.complete(null);
+                } else {
+                    dispatch();
+                }
+            }
+        }
+
+        private record Pending(int index, String host, HttpPadrao request) {}
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.sulimann.restclient.utils.http;
+
+import org.apache.hc.client5.http.classic.methods.HttpUriRequest;
+
+/**
+ * Liga uma chamada assíncrona à requisição HTTP que ela está executando, para que cancelamento e timeout
+ * do {@code CompletableFuture} abortem a conexão em vez de só abandonar a thread. No transporte HTTP/1.1 a
+ * requisição do Apache HttpClient é abortada; no HTTP/2 não há requisição vinculada e quem aborta a troca é a
+ * interrupção da thread, que o {@code HttpClient.send} do JDK trata cancelando o stream.
+ */
+final class HttpCancellation {
+
+    private static final ThreadLocal<HttpCancellation> CURRENT = new ThreadLocal<>();
+
+    private volatile HttpUriRequest request;
+    private volatile Thread thread;
+    private volatile boolean cancelled;
+
+    void runBound(Runnable task) {
+        this.thread = Thread.currentThread();
+        CURRENT.set(this);
+        try {
+            task.run();
+        } finally {
+            CURRENT.remove();
+            synchronized (this) {
+                this.thread = null;
+                this.request = null;
+                Thread.interrupted();
+            }
+        }
+    }
+
+    boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    synchronized void cancel() {
+        this.cancelled = true;
+        HttpUriRequest current = this.request;
+        if (current != null) {
+            current.abort();
+        }
+        Thread running = this.thread;
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+
+    /**
+     * Chamado pela fábrica de requisições do pool sempre que uma requisição é criada na thread atual.
+     */
+    static void bind(HttpUriRequest request) {
+        HttpCancellation cancellation = CURRENT.get();
+        if (cancellation != null) {
+            cancellation.request = request;
+            if (cancellation.cancelled) {
+                request.abort();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.sulimann.restclient.utils.http;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bytes trafegados com compressão, por host: quanto o corpo tinha antes e depois de comprimir,
+ * tanto nas requisições enviadas quanto nas respostas recebidas. O host é o mesmo {@link HttpHosts#of} das
+ * outras métricas, e {@link HttpMetrics} exporta a razão e os bytes economizados de cada um.
+ */
+public final class HttpCompressionStats {
+
+    private static final ConcurrentMap<String, Counters> BY_HOST = new ConcurrentHashMap<>();
+
+    private HttpCompressionStats() {
+        throw new AssertionError("Não é permitido instanciar esta classe.");
+    }
+
+    public static Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshot = new TreeMap<>();
+        BY_HOST.forEach((host, counters) -> snapshot.put(host, counters.snapshot()));
+        return snapshot;
+    }
+
+    static Snapshot snapshot(String host) {
+        return counters(host).snapshot();
+    }
+
+    static void recordRequest(String host, long plainBytes, long compressedBytes) {
+        Counters counters = counters(host);
+        counters.requestPlain.add(plainBytes);
+        counters.requestCompressed.add(compressedBytes);
+    }
+
+    static void recordResponse(String host, long compressedBytes, long plainBytes) {
+        Counters counters = counters(host);
+        counters.responseCompressed.add(compressedBytes);
+        counters.responsePlain.add(plainBytes);
+    }
+
+    private static Counters counters(String host) {
+        return BY_HOST.computeIfAbsent(host, key -> new Counters());
+    }
+
+    /**
+     * Totais de um host. A razão é {@code comprimido / original}: quanto menor, melhor a compressão.
+     */
+    public record Snapshot(long requestPlainBytes, long requestCompressedBytes, long responsePlainBytes, long responseCompressedBytes) {
+
+        public double requestRatio() {
+            return this.requestPlainBytes == 0 ? 1.0 : (double) this.requestCompressedBytes / this.requestPlainBytes;
+        }
+
+        public double responseRatio() {
+            return this.responsePlainBytes == 0 ? 1.0 : (double) this.responseCompressedBytes / this.responsePlainBytes;
+        }
+
+        public long bytesSaved() {
+            return (this.requestPlainBytes - this.requestCompressedBytes) + (this.responsePlainBytes - this.responseCompressedBytes);
+        }
+    }
+
+    private static final class Counters {
+
+        private final LongAdder requestPlain = new LongAdder();
+        private final LongAdder requestCompressed = new LongAdder();
+        private final LongAdder responsePlain = new LongAdder();
+        private final LongAdder responseCompressed = new LongAdder();
+
+        private Snapshot snapshot() {
+            return new Snapshot(this.requestPlain.sum(), this.requestCompressed.sum(), this.responsePlain.sum(), this.responseCompressed.sum());
+        }
+    }
+
+}
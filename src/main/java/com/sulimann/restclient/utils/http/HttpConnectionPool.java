@@ -0,0 +1,250 @@
+package com.sulimann.restclient.utils.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequest;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.sulimann.restclient.configs.HttpClientProperties;
+import com.sulimann.restclient.configs.HttpClientProperties.Transport;
+import com.sulimann.restclient.utils.json.JSONUtilitiesHttpMessageConverter;
+import com.sulimann.restclient.utils.json.JSONUtilitiesV2;
+
+/**
+ * Pool de conexões HTTP único da aplicação, compartilhado pelo {@link HttpPadrao} e pelo bean {@code RestClient}.
+ * Quando o contexto Spring instala o pool via {@link #install(HttpConnectionPool)} ele passa a ser o compartilhado;
+ * fora do Spring um pool com as configurações padrão é criado na primeira chamada.
+ * <p>
+ * O transporte é escolhido por {@code restclient.http.transport}: pool HTTP/1.1 do Apache HttpClient
+ * ou HTTP/2 multiplexado do {@code java.net.http.HttpClient}.
+ */
+public final class HttpConnectionPool implements Closeable {
+
+    private static volatile HttpConnectionPool shared;
+
+    private final HttpClientProperties properties;
+    private final JSONUtilitiesV2 json;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final ClientHttpRequestFactory requestFactory;
+    private final RestTemplate restTemplate;
+
+    private HttpConnectionPool(HttpClientProperties properties, JSONUtilitiesV2 json) {
+        this.properties = properties;
+        this.json = json;
+        ClientHttpRequestFactory transport;
+        if (Transport.HTTP2.equals(properties.getTransport())) {
+            this.connectionManager = null;
+            this.httpClient = null;
+            transport = http2RequestFactory(properties);
+        } else {
+            this.connectionManager = newConnectionManager(properties);
+            this.httpClient = newHttpClient(properties, this.connectionManager);
+            transport = new CancellableRequestFactory(this.httpClient);
+        }
+        HttpClientProperties.Compression compression = properties.getCompression();
+        this.requestFactory = new CompressingClientHttpRequestFactory(transport, compression.isEnabled(),
+                compression.isEnabled() && compression.isCompressRequests(), compression.getRequestThreshold().toBytes());
+        this.restTemplate = new RestTemplate(this.requestFactory);
+        new JSONUtilitiesHttpMessageConverter(json).registerIn(this.restTemplate.getMessageConverters());
+    }
+
+    public static HttpConnectionPool create(HttpClientProperties properties) {
+        return new HttpConnectionPool(properties, JSONUtilitiesV2.create());
+    }
+
+    /**
+     * {@code json} vira o conversor JSON do {@code RestTemplate} do pool e o padrão do {@link HttpPadrao}.
+     */
+    public static HttpConnectionPool create(HttpClientProperties properties, JSONUtilitiesV2 json) {
+        return new HttpConnectionPool(properties, json);
+    }
+
+    public static HttpConnectionPool shared() {
+        HttpConnectionPool pool = shared;
+        if (pool == null) {
+            synchronized (HttpConnectionPool.class) {
+                pool = shared;
+                if (pool == null) {
+                    pool = new HttpConnectionPool(new HttpClientProperties(), JSONUtilitiesV2.create());
+                    shared = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    public static synchronized HttpConnectionPool install(HttpConnectionPool pool) {
+        HttpConnectionPool previous = shared;
+        shared = pool;
+        if (previous != null && previous != pool) {
+            previous.close();
+        }
+        return pool;
+    }
+
+    public HttpClientProperties properties() {
+        return this.properties;
+    }
+
+    public JSONUtilitiesV2 json() {
+        return this.json;
+    }
+
+    public ClientHttpRequestFactory requestFactory() {
+        return this.requestFactory;
+    }
+
+    public RestTemplate restTemplate() {
+        return this.restTemplate;
+    }
+
+    public Transport transport() {
+        return this.properties.getTransport();
+    }
+
+    /**
+     * No transporte HTTP/2 não há pool do Apache HttpClient e todos os valores são zero.
+     */
+    public Stats stats() {
+        if (this.connectionManager == null) {
+            return new Stats(0, 0, 0, 0);
+        }
+        PoolStats total = this.connectionManager.getTotalStats();
+        return new Stats(total.getLeased(), total.getAvailable(), total.getPending(), total.getMax());
+    }
+
+    @Override
+    public void close() {
+        synchronized (HttpConnectionPool.class) {
+            if (shared == this) {
+                shared = null;
+            }
+        }
+        if (this.httpClient == null) {
+            return;
+        }
+        try {
+            this.httpClient.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao fechar o pool de conexões HTTP", e);
+        }
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    private static TimeValue timeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
+    }
+
+    private static PoolingHttpClientConnectionManager newConnectionManager(HttpClientProperties properties) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(timeout(properties.getConnectTimeout()))
+                        .setSocketTimeout(timeout(properties.getReadTimeout()))
+                        .setValidateAfterInactivity(timeValue(properties.getValidateAfterInactivity()))
+                        .build())
+                .build();
+    }
+
+    private static CloseableHttpClient newHttpClient(HttpClientProperties properties, PoolingHttpClientConnectionManager connectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(timeout(properties.getConnectionRequestTimeout()))
+                        .setResponseTimeout(timeout(properties.getReadTimeout()))
+                        .setConnectionKeepAlive(timeValue(properties.getKeepAlive()))
+                        .build())
+                .setRetryStrategy(new StaleConnectionRetryStrategy())
+                .disableContentCompression()
+                .evictExpiredConnections()
+                .evictIdleConnections(timeValue(properties.getIdleEviction()))
+                .build();
+    }
+
+    /**
+     * O cliente do JDK multiplexa as requisições de um host numa conexão HTTP/2 e negocia sozinho a volta
+     * para HTTP/1.1. Não descomprime respostas, o que fica com o {@link CompressingClientHttpRequestFactory}.
+     * <p>
+     * Aqui não há {@code HttpUriRequest} para o {@link HttpCancellation} abortar: o cancelamento de um
+     * {@code callAsync} chega pela interrupção da thread, e o {@code HttpClient.send} do JDK cancela a troca em
+     * andamento (o stream HTTP/2 é resetado) ao ser interrompido.
+     */
+    private static ClientHttpRequestFactory http2RequestFactory(HttpClientProperties properties) {
+        java.net.http.HttpClient client = java.net.http.HttpClient.newBuilder()
+                .version(java.net.http.HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.getConnectTimeout())
+                .followRedirects(java.net.http.HttpClient.Redirect.NORMAL)
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(client);
+        factory.setReadTimeout(properties.getReadTimeout());
+        return factory;
+    }
+
+    /**
+     * Registra cada requisição criada para que {@link HttpAsyncExecutor} consiga abortá-la ao cancelar. Só vale
+     * para o transporte HTTP/1.1; no HTTP/2 o cancelamento é pela interrupção da thread.
+     */
+    private static class CancellableRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+        CancellableRequestFactory(HttpClient httpClient) {
+            super(httpClient);
+        }
+
+        @Override
+        protected void postProcessHttpRequest(ClassicHttpRequest request) {
+            if (request instanceof HttpUriRequest uriRequest) {
+                HttpCancellation.bind(uriRequest);
+            }
+        }
+
+    }
+
+    /**
+     * Repete uma vez, sem contar como tentativa, só a falha de E/S de uma conexão reaproveitada que o servidor já
+     * tinha fechado ({@code NoHttpResponseException}), como no padrão do HttpClient. Status como {@code 503} não
+     * são repetidos aqui: ficam com o {@link HttpResilience}, que conta as tentativas e alimenta o circuit breaker.
+     */
+    private static final class StaleConnectionRetryStrategy extends DefaultHttpRequestRetryStrategy {
+
+        StaleConnectionRetryStrategy() {
+            super(1, TimeValue.ZERO_MILLISECONDS);
+        }
+
+        @Override
+        public boolean retryRequest(HttpResponse response, int execCount, HttpContext context) {
+            return false;
+        }
+
+    }
+
+    /**
+     * Retrato do pool: conexões emprestadas, ociosas, requisições aguardando conexão e o limite total.
+     */
+    public record Stats(int leased, int idle, int pending, int max) {}
+
+}
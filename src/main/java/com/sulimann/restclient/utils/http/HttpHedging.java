@@ -0,0 +1,183 @@
+package com.sulimann.restclient.utils.http;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+
+import com.sulimann.restclient.exceptions.RestClientException;
+
+/**
+ * Requisições de reserva (hedging) dos GETs: se a chamada não respondeu dentro do percentil de latência do
+ * host, uma cópia idêntica é disparada, opcionalmente para outro endereço. A primeira resposta vence e a
+ * outra é cancelada pelo {@link HttpAsyncExecutor}. O orçamento do {@link HostHedgeTracker} limita a carga extra.
+ */
+public final class HttpHedging {
+
+    private static final ConcurrentMap<String, HostHedgeTracker> TRACKERS = new ConcurrentHashMap<>();
+
+    private HttpHedging() {
+        throw new AssertionError("Não é permitido instanciar esta classe.");
+    }
+
+    public static HostHedgeTracker tracker(String host) {
+        return TRACKERS.computeIfAbsent(host,
+                key -> new HostHedgeTracker(HttpConnectionPool.shared().properties().getHedge()));
+    }
+
+    public static Map<String, HostHedgeTracker.Snapshot> snapshot() {
+        Map<String, HostHedgeTracker.Snapshot> snapshot = new TreeMap<>();
+        TRACKERS.forEach((host, tracker) -> snapshot.put(host, tracker.snapshot()));
+        return snapshot;
+    }
+
+    /**
+     * Versão bloqueante do {@link #executeAsync}: espera a primeira resposta e cancela as duas se a thread
+     * for interrompida. Não pode rodar dentro de uma tarefa do {@link HttpAsyncExecutor}: as tentativas vão para
+     * o mesmo executor limitado, que travaria esperando por si mesmo.
+     */
+    static <T> T execute(String primaryUrl, String alternateUrl, Function<String, T> call) {
+        CompletableFuture<T> result = executeAsync(primaryUrl, alternateUrl, call);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RestClientException(HttpStatus.SERVICE_UNAVAILABLE, "Chamada interrompida",
+                    "Chamada cancelada enquanto aguardava a resposta", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    /**
+     * {@code call} recebe a URL a chamar: {@code primaryUrl} na primeira requisição e {@code alternateUrl}
+     * (ou a própria {@code primaryUrl}, se nula) na reserva. Cancelar o futuro devolvido cancela as duas.
+     */
+    static <T> CompletableFuture<T> executeAsync(String primaryUrl, String alternateUrl, Function<String, T> call) {
+        HostHedgeTracker tracker = tracker(HttpHosts.of(primaryUrl));
+        tracker.onRequest();
+        Race<T> race = new Race<>(tracker);
+        race.start(() -> timed(tracker, call, primaryUrl));
+        long delay = tracker.delayNanos();
+        if (delay >= 0) {
+            String hedgeUrl = alternateUrl != null ? alternateUrl : primaryUrl;
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS)
+                    .execute(() -> race.hedge(() -> timed(tracker, call, hedgeUrl)));
+        }
+        return race.result;
+    }
+
+    private static <T> T timed(HostHedgeTracker tracker, Function<String, T> call, String url) {
+        long start = System.nanoTime();
+        T value = call.apply(url);
+        tracker.record(System.nanoTime() - start);
+        return value;
+    }
+
+    /**
+     * Disputa entre a requisição original e a reserva. Só falha quando todas as tentativas disparadas falham;
+     * nesse caso prevalece o erro da original.
+     */
+    private static final class Race<T> {
+
+        private final HostHedgeTracker tracker;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private CompletableFuture<T> primary;
+        private CompletableFuture<T> hedge;
+        private int pending;
+        private boolean decided;
+        private Throwable failure;
+
+        Race(HostHedgeTracker tracker) {
+            this.tracker = tracker;
+            this.result.whenComplete((value, error) -> {
+                if (error != null) {
+                    cancelAll();
+                }
+            });
+        }
+
+        synchronized void start(Supplier<T> call) {
+            this.primary = launch(call, false);
+        }
+
+        synchronized void hedge(Supplier<T> call) {
+            if (this.decided || !this.tracker.tryHedge()) {
+                return;
+            }
+            this.hedge = launch(call, true);
+        }
+
+        private CompletableFuture<T> launch(Supplier<T> call, boolean isHedge) {
+            this.pending++;
+            CompletableFuture<T> attempt = HttpAsyncExecutor.shared().submit(call);
+            attempt.whenComplete((value, error) -> settle(isHedge, value, error));
+            return attempt;
+        }
+
+        private void settle(boolean isHedge, T value, Throwable error) {
+            CompletableFuture<T> loser;
+            synchronized (this) {
+                if (this.decided) {
+                    return;
+                }
+                if (error != null) {
+                    this.pending--;
+                    if (this.failure == null || !isHedge) {
+                        this.failure = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    }
+                    if (this.pending > 0) {
+                        return;
+                    }
+                }
+                this.decided = true;
+                loser = isHedge ? this.primary : this.hedge;
+            }
+            if (error != null) {
+                this.result.completeExceptionally(this.failure);
+                return;
+            }
+            if (isHedge) {
+                this.tracker.onHedgeWon();
+            }
+            if (loser != null) {
+                loser.cancel(true);
+            }
+            this.result.complete(value);
+        }
+
+        private void cancelAll() {
+            CompletableFuture<T> first;
+            CompletableFuture<T> second;
+            synchronized (this) {
+                this.decided = true;
+                first = this.primary;
+                second = this.hedge;
+            }
+            if (first != null) {
+                first.cancel(true);
+            }
+            if (second != null) {
+                second.cancel(true);
+            }
+        }
+
+    }
+
+}
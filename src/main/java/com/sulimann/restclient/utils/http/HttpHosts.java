@@ -0,0 +1,43 @@
+package com.sulimann.restclient.utils.http;
+
+/**
+ * Extrai o host ({@code host[:porta]}) de uma URL sem montar um {@link java.net.URI}; é a chave usada pelos
+ * limites, métricas e circuit breakers por host.
+ */
+final class HttpHosts {
+
+    private HttpHosts() {
+        throw new AssertionError("Não é permitido instanciar esta classe.");
+    }
+
+    static String of(String url) {
+        if (url == null) {
+            return "";
+        }
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = end(url);
+        int userInfo = url.lastIndexOf('@', end - 1);
+        if (userInfo >= start) {
+            start = userInfo + 1;
+        }
+        return url.substring(start, end);
+    }
+
+    /**
+     * Posição logo depois do host (e da porta) na URL: o início do caminho, da query ou do fragmento.
+     */
+    static int end(String url) {
+        int start = url.indexOf("://");
+        int end = start < 0 ? 0 : start + 3;
+        while (end < url.length()) {
+            char c = url.charAt(end);
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            end++;
+        }
+        return end;
+    }
+
+}
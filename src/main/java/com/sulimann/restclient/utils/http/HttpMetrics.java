@@ -0,0 +1,228 @@
+package com.sulimann.restclient.utils.http;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.http.HttpMethod;
+
+import com.sulimann.restclient.configs.HttpClientProperties.Transport;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas das chamadas de saída do {@link HttpPadrao} no Micrometer: um timer com histograma por host,
+ * recurso, método e classe de status, contadores de bytes enviados e recebidos por host e gauges do pool HTTP/1.1,
+ * circuit breakers, limites de concorrência e requisições de reserva. Novas tentativas, falhas e rejeições do
+ * circuit breaker e rejeições do limite viram contadores por host, e a compressão, razão e bytes economizados.
+ * <p>
+ * Os medidores são criados uma vez e guardados em mapas aninhados, e o {@link HttpUriTemplate} da chamada
+ * guarda os seus, então registrar uma tentativa é só a atualização do histograma, sem montar tags. Recursos novos além de
+ * {@value #MAX_RESOURCES_PER_HOST} por host caem na tag {@code OTHER}, para não explodir a cardinalidade.
+ */
+public final class HttpMetrics {
+
+    static final int MAX_RESOURCES_PER_HOST = 200;
+    private static final String OTHER_RESOURCE = "OTHER";
+
+    static final int IO_ERROR = 5;
+    static final int CLIENT_ERROR = 6;
+    private static final String[] OUTCOMES = { "1xx", "2xx", "3xx", "4xx", "5xx", "IO_ERROR", "CLIENT_ERROR" };
+
+    private static volatile HttpMetrics shared;
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, HostMeters> hosts = new ConcurrentHashMap<>();
+
+    private HttpMetrics(MeterRegistry registry, HttpConnectionPool pool) {
+        this.registry = registry;
+        if (pool.transport() != Transport.HTTP2) {
+            Gauge.builder("restclient.http.pool.leased", pool, p -> p.stats().leased()).strongReference(true)
+                    .description("Conexões emprestadas do pool").register(registry);
+            Gauge.builder("restclient.http.pool.idle", pool, p -> p.stats().idle()).strongReference(true)
+                    .description("Conexões ociosas no pool").register(registry);
+            Gauge.builder("restclient.http.pool.pending", pool, p -> p.stats().pending()).strongReference(true)
+                    .description("Requisições aguardando conexão livre").register(registry);
+            Gauge.builder("restclient.http.pool.max", pool, p -> p.stats().max()).strongReference(true)
+                    .description("Limite total de conexões do pool").register(registry);
+        }
+        FunctionCounter.builder("restclient.http.coalesced", HttpSingleFlight.class, type -> HttpSingleFlight.coalesced())
+                .description("Chamadas que reaproveitaram uma requisição idêntica em andamento").register(registry);
+    }
+
+    public static HttpMetrics create(MeterRegistry registry) {
+        return create(registry, HttpConnectionPool.shared());
+    }
+
+    /**
+     * Os gauges do pool só existem no transporte HTTP/1.1: no HTTP/2 não há pool do Apache HttpClient e eles
+     * seriam sempre zero.
+     */
+    public static HttpMetrics create(MeterRegistry registry, HttpConnectionPool pool) {
+        return new HttpMetrics(registry, pool);
+    }
+
+    /**
+     * Fora do Spring as métricas vão para o {@link Metrics#globalRegistry}, que descarta tudo até alguém
+     * adicionar um registro nele.
+     */
+    public static HttpMetrics shared() {
+        HttpMetrics current = shared;
+        if (current == null) {
+            synchronized (HttpMetrics.class) {
+                current = shared;
+                if (current == null) {
+                    current = new HttpMetrics(Metrics.globalRegistry, HttpConnectionPool.shared());
+                    shared = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public static synchronized HttpMetrics install(HttpMetrics metrics) {
+        shared = metrics;
+        return metrics;
+    }
+
+    public MeterRegistry registry() {
+        return this.registry;
+    }
+
+    CallMeters call(String host, String resource, HttpMethod method) {
+        return host(host).call(resource != null ? resource : "", method);
+    }
+
+    void recordBytesOut(String host, long bytes) {
+        if (bytes > 0) {
+            host(host).bytesOut.increment(bytes);
+        }
+    }
+
+    void recordBytesIn(String host, long bytes) {
+        if (bytes > 0) {
+            host(host).bytesIn.increment(bytes);
+        }
+    }
+
+    /**
+     * Índice da classe de status ({@code 1xx} a {@code 5xx}) ou {@link #CLIENT_ERROR} fora da faixa HTTP.
+     */
+    static int outcome(int status) {
+        return status >= 100 && status < 600 ? status / 100 - 1 : CLIENT_ERROR;
+    }
+
+    private HostMeters host(String host) {
+        HostMeters meters = this.hosts.get(host);
+        return meters != null ? meters : this.hosts.computeIfAbsent(host, HostMeters::new);
+    }
+
+    private final class HostMeters {
+
+        private final String host;
+        private final Counter bytesOut;
+        private final Counter bytesIn;
+        private final ConcurrentMap<String, ConcurrentMap<HttpMethod, CallMeters>> resources = new ConcurrentHashMap<>();
+
+        private HostMeters(String host) {
+            this.host = host;
+            MeterRegistry registry = HttpMetrics.this.registry;
+            this.bytesOut = Counter.builder("restclient.http.bytes.out").baseUnit("bytes").tag("host", host)
+                    .description("Bytes enviados no corpo das requisições").register(registry);
+            this.bytesIn = Counter.builder("restclient.http.bytes.in").baseUnit("bytes").tag("host", host)
+                    .description("Bytes recebidos no corpo das respostas").register(registry);
+            HostCircuitBreaker breaker = HttpResilience.circuitBreaker(host);
+            Gauge.builder("restclient.http.circuit.state", breaker, b -> b.state().ordinal()).tag("host", host)
+                    .description("Estado do circuit breaker: 0 fechado, 1 aberto, 2 meio-aberto").strongReference(true).register(registry);
+            FunctionCounter.builder("restclient.http.circuit.failures", breaker, b -> b.snapshot().failures()).tag("host", host)
+                    .description("Falhas de rede ou 5xx contadas pelo circuit breaker").register(registry);
+            FunctionCounter.builder("restclient.http.circuit.rejections", breaker, b -> b.snapshot().rejections()).tag("host", host)
+                    .description("Chamadas rejeitadas com o circuito aberto ou meio-aberto").register(registry);
+            FunctionCounter.builder("restclient.http.retries", breaker, b -> b.snapshot().retries()).tag("host", host)
+                    .description("Novas tentativas após falha de rede ou status repetível").register(registry);
+            AdaptiveConcurrencyLimiter limiter = HttpResilience.limiter(host);
+            Gauge.builder("restclient.http.limiter.limit", limiter, AdaptiveConcurrencyLimiter::limit).tag("host", host)
+                    .description("Limite adaptativo de chamadas simultâneas").strongReference(true).register(registry);
+            FunctionCounter.builder("restclient.http.limiter.rejections", limiter, l -> l.snapshot().rejections()).tag("host", host)
+                    .description("Chamadas rejeitadas por estarem acima do limite").register(registry);
+            Gauge.builder("restclient.http.compression.ratio", () -> HttpCompressionStats.snapshot(host).requestRatio())
+                    .tag("host", host).tag("direction", "request")
+                    .description("Bytes comprimidos / bytes originais dos corpos enviados").register(registry);
+            Gauge.builder("restclient.http.compression.ratio", () -> HttpCompressionStats.snapshot(host).responseRatio())
+                    .tag("host", host).tag("direction", "response")
+                    .description("Bytes comprimidos / bytes originais dos corpos recebidos").register(registry);
+            Gauge.builder("restclient.http.compression.saved", () -> HttpCompressionStats.snapshot(host).bytesSaved())
+                    .tag("host", host).baseUnit("bytes")
+                    .description("Bytes que deixaram de trafegar graças à compressão").register(registry);
+            HostHedgeTracker hedges = HttpHedging.tracker(host);
+            FunctionCounter.builder("restclient.http.hedges.fired", hedges, h -> h.snapshot().hedgesFired()).tag("host", host)
+                    .description("Requisições de reserva disparadas").register(registry);
+            FunctionCounter.builder("restclient.http.hedges.won", hedges, h -> h.snapshot().hedgesWon()).tag("host", host)
+                    .description("Requisições de reserva que responderam primeiro").register(registry);
+        }
+
+        private CallMeters call(String resource, HttpMethod method) {
+            String key = resource;
+            ConcurrentMap<HttpMethod, CallMeters> byMethod = this.resources.get(key);
+            if (byMethod == null) {
+                if (this.resources.size() >= MAX_RESOURCES_PER_HOST) {
+                    key = OTHER_RESOURCE;
+                }
+                byMethod = this.resources.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+            }
+            CallMeters meters = byMethod.get(method);
+            if (meters == null) {
+                String tag = key;
+                meters = byMethod.computeIfAbsent(method, m -> new CallMeters(this.host, tag, m));
+            }
+            return meters;
+        }
+    }
+
+    /**
+     * Timers de uma combinação host/recurso/método, um por classe de status, criados no primeiro uso.
+     */
+    final class CallMeters {
+
+        private final String host;
+        private final String resource;
+        private final HttpMethod method;
+        private final AtomicReferenceArray<Timer> timers = new AtomicReferenceArray<>(OUTCOMES.length);
+
+        private CallMeters(String host, String resource, HttpMethod method) {
+            this.host = host;
+            this.resource = resource;
+            this.method = method;
+        }
+
+        /**
+         * Se estes medidores ainda valem para {@code method} no {@code metrics} instalado.
+         */
+        boolean belongsTo(HttpMetrics metrics, HttpMethod method) {
+            return HttpMetrics.this == metrics && this.method.equals(method);
+        }
+
+        void record(int outcome, long nanos) {
+            Timer timer = this.timers.get(outcome);
+            if (timer == null) {
+                timer = Timer.builder("restclient.http.client")
+                        .description("Duração das chamadas de saída, por tentativa")
+                        .tag("host", this.host)
+                        .tag("resource", this.resource)
+                        .tag("method", this.method.name())
+                        .tag("status", OUTCOMES[outcome])
+                        .publishPercentileHistogram()
+                        .register(HttpMetrics.this.registry);
+                this.timers.set(outcome, timer);
+            }
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+}
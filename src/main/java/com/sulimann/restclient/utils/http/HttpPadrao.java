@@ -1,44 +1,419 @@
 package com.sulimann.restclient.utils.http;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.client.HttpMessageConverterExtractor;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
-import lombok.Data;
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.sulimann.restclient.utils.json.JSONUtilitiesHttpMessageConverter;
+import com.sulimann.restclient.utils.json.JSONUtilitiesV2;
+
+import lombok.Getter;
+import lombok.Singular;
 import lombok.experimental.SuperBuilder;
 
-@Data
-@SuperBuilder
+/**
+ * Definição imutável de uma chamada HTTP: pode ser montada uma vez e usada por várias threads ao mesmo tempo.
+ * O {@code resource} aceita variáveis {@code {nome}}, preenchidas por {@code variable(...)}; para variar os
+ * valores a cada chamada, use {@code toBuilder()}.
+ */
+@Getter
+@SuperBuilder(toBuilder = true)
 public abstract class HttpPadrao {
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    private String address;
-    private String resource;
-    private Object request;
+    private static final ConcurrentMap<Gson, List<HttpMessageConverter<?>>> CONVERTERS = new ConcurrentHashMap<>();
+    private static final MediaType JSON_UTF8 = new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8);
+
+    private final String address;
+    private final String resource;
+    @Singular
+    private final Map<String, Object> variables;
+    @Singular
+    private final Map<String, Object> queryParams;
+    private final Object request;
+    private final HttpHeaders headers;
+    private final boolean coalesce;
+    private final JSONUtilitiesV2 json;
+    private final RetryPolicy retry;
 
     public <T> Optional<T> call(Class<T> responseType) {
-        String url = createURL();
-        return Optional
-                .ofNullable((T) this.restTemplate.exchange(url, method(), null, responseType, new Object[0]).getBody());
+        return Optional.ofNullable(exchange(responseType));
     }
 
     public <T> Optional<T> call(ParameterizedTypeReference<T> responseType) {
+        return Optional.ofNullable(exchange(responseType.getType()));
+    }
+
+    public <T> CompletableFuture<Optional<T>> callAsync(Class<T> responseType) {
+        return exchangeAsync(responseType);
+    }
+
+    public <T> CompletableFuture<Optional<T>> callAsync(ParameterizedTypeReference<T> responseType) {
+        return exchangeAsync(responseType.getType());
+    }
+
+    public <T> CompletableFuture<Optional<T>> callAsync(Class<T> responseType, Duration timeout) {
+        return callAsync(responseType).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public <T> CompletableFuture<Optional<T>> callAsync(ParameterizedTypeReference<T> responseType, Duration timeout) {
+        return callAsync(responseType).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Lê uma resposta que é um array JSON elemento por elemento, entregando cada um ao {@code consumer}
+     * sem montar a lista inteira em memória. Devolve quantos elementos foram lidos. Não há novas tentativas:
+     * elementos já entregues não podem ser desfeitos.
+     */
+    public <T> long callStreaming(Class<T> elementType, Consumer<? super T> consumer) {
+        String url = createURL();
+        Long count = execute(url, requestCallback(elementType), RetryPolicy.none(), response -> {
+            if (!hasBody(response)) {
+                return 0L;
+            }
+            try (JsonArrayIterator<T> elements = new JsonArrayIterator<>(gson().getAdapter(elementType), response)) {
+                long read = 0;
+                while (elements.hasNext()) {
+                    consumer.accept(elements.next());
+                    read++;
+                }
+                return read;
+            }
+        });
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Igual ao {@link #callStreaming(Class, Consumer)}, mas entrega um {@link Stream} preguiçoso.
+     * A conexão fica aberta até o stream ser consumido ou fechado, então use try-with-resources.
+     */
+    public <T> Stream<T> callStreaming(Class<T> elementType) {
+        String url = createURL();
+        HttpUriTemplate template = template();
+        RequestCallback callback = requestCallback(elementType);
+        ClientHttpResponse response = HttpResilience.execute(template.host(url), method(), retryPolicy(),
+                template.meters(url, method()), () -> openResponse(url, callback));
+        try {
+            if (!hasBody(response)) {
+                response.close();
+                return Stream.empty();
+            }
+            JsonArrayIterator<T> elements = new JsonArrayIterator<>(gson().getAdapter(elementType), response);
+            return StreamSupport
+                    .stream(Spliterators.spliteratorUnknownSize(elements, Spliterator.ORDERED), false)
+                    .onClose(elements::close);
+        } catch (IOException e) {
+            response.close();
+            throw ioError(url, e);
+        }
+    }
+
+    protected <T> T exchange(Type responseType) {
         String url = createURL();
-        return Optional
-                .ofNullable((T) this.restTemplate.exchange(url, method(), null, responseType, new Object[0]).getBody());
+        ResponseExtractor<T> extractor = new HttpMessageConverterExtractor<>(responseType, messageConverters());
+        HttpResponseCache cache = responseCache();
+        if (cache != null && HttpMethod.GET.equals(method())) {
+            try {
+                return cache.exchange(this, url, responseType, extractor);
+            } catch (IOException e) {
+                throw ioError(url, e);
+            }
+        }
+        if (coalesces()) {
+            return extract(url, extractor, fetchBuffered(url, requestCallback(responseType), ""));
+        }
+        return executeHedged(url, requestCallback(responseType), extractor);
+    }
+
+    /**
+     * Ponto único por onde toda chamada vai para a rede, passando pelo circuit breaker e pelas novas tentativas.
+     */
+    protected <T> T execute(String url, RequestCallback callback, ResponseExtractor<T> extractor) {
+        return execute(url, callback, retryPolicy(), extractor);
+    }
+
+    private <T> T execute(String url, RequestCallback callback, RetryPolicy policy, ResponseExtractor<T> extractor) {
+        HttpUriTemplate template = template();
+        return HttpResilience.execute(template.host(url), method(), policy, template.meters(url, method()),
+                () -> restTemplate().execute(URI.create(url), method(), callback, extractor));
+    }
+
+    /**
+     * Abre a resposta sem lê-la; quem chama passa a ser responsável por fechá-la.
+     */
+    private ClientHttpResponse openResponse(String url, RequestCallback callback) {
+        RestTemplate restTemplate = restTemplate();
+        URI uri = URI.create(url);
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequest request = restTemplate.getRequestFactory().createRequest(uri, method());
+            callback.doWithRequest(request);
+            response = request.execute();
+            if (restTemplate.getErrorHandler().hasError(response)) {
+                restTemplate.getErrorHandler().handleError(uri, method(), response);
+            }
+            return response;
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw ioError(url, e);
+        } catch (RuntimeException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Com hedging habilitado, dispara uma requisição de reserva se a original demorar mais que o percentil de
+     * latência do host (ver {@link HttpHedging}); sem ele, é o próprio {@link #execute}.
+     */
+    private <T> T executeHedged(String url, RequestCallback callback, ResponseExtractor<T> extractor) {
+        if (!hedged()) {
+            return execute(url, callback, extractor);
+        }
+        return HttpHedging.execute(url, hedgeURL(), target -> execute(target, callback, extractor));
+    }
+
+    private boolean hedged() {
+        return hedges() && HttpMethod.GET.equals(method());
+    }
+
+    private String hedgeURL() {
+        String alternate = hedgeAddress();
+        return alternate != null ? createURL(alternate) : null;
+    }
+
+    private RetryPolicy retryPolicy() {
+        return this.retry != null ? this.retry : HttpResilience.defaultRetryPolicy();
+    }
+
+    /**
+     * Chamadas agrupadas não passam pelo executor enquanto esperam: só a primeira ocupa uma thread. Com cache,
+     * agrupamento ou hedging, nenhuma tarefa do executor fica bloqueada esperando outra tarefa do mesmo executor:
+     * a disputa do hedging e o voo compartilhado são encadeados em futuros. Um acerto do cache ainda válido é
+     * convertido na própria thread de quem chamou.
+     */
+    protected <T> CompletableFuture<Optional<T>> exchangeAsync(Type responseType) {
+        HttpResponseCache cache = HttpMethod.GET.equals(method()) ? responseCache() : null;
+        if (cache == null && !coalesces() && !hedged()) {
+            return HttpAsyncExecutor.shared().submit(() -> Optional.ofNullable(exchange(responseType)));
+        }
+        String url = createURL();
+        ResponseExtractor<T> extractor = new HttpMessageConverterExtractor<>(responseType, messageConverters());
+        if (cache == null && !coalesces()) {
+            RequestCallback callback = requestCallback(responseType);
+            return HttpHedging.executeAsync(url, hedgeURL(),
+                    target -> Optional.ofNullable(execute(target, callback, extractor)));
+        }
+        CompletableFuture<BufferedClientHttpResponse> response = cache != null
+                ? cache.fetchAsync(this, url, responseType)
+                : fetchBufferedAsync(url, requestCallback(responseType), "");
+        return response.thenApply(buffered -> Optional.ofNullable(extract(url, extractor, buffered)));
+    }
+
+    /**
+     * Monta os cabeçalhos (Accept a partir dos conversores, mais os do builder) e, havendo {@code request},
+     * serializa o corpo com o Gson direto no stream da requisição. Sem tamanho conhecido, o corpo segue em
+     * transferência chunked, sem montar {@code String} ou {@code byte[]} intermediário.
+     */
+    RequestCallback requestCallback(Type responseType) {
+        RequestCallback headersCallback = restTemplate()
+                .httpEntityCallback(this.headers != null ? new HttpEntity<>(this.headers) : HttpEntity.EMPTY, responseType);
+        if (this.request == null) {
+            return headersCallback;
+        }
+        Object body = this.request;
+        JSONUtilitiesV2 json = json();
+        return request -> {
+            headersCallback.doWithRequest(request);
+            HttpHeaders requestHeaders = request.getHeaders();
+            requestHeaders.remove(HttpHeaders.CONTENT_LENGTH);
+            if (requestHeaders.getContentType() == null) {
+                requestHeaders.setContentType(JSON_UTF8);
+            }
+            if (request instanceof StreamingHttpOutputMessage streaming) {
+                streaming.setBody((CompressingClientHttpRequestFactory.RepeatableBody) out -> writeJson(json, body, out));
+            } else {
+                writeJson(json, body, request.getBody());
+            }
+        };
     }
 
+    private static void writeJson(JSONUtilitiesV2 json, Object body, OutputStream out) throws IOException {
+        try {
+            json.toJson(body, out);
+        } catch (JsonIOException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e);
+        }
+    }
+
+    /**
+     * Busca a resposta inteira para a memória, agrupando com requisições idênticas em andamento quando habilitado.
+     * {@code variant} diferencia buscas para a mesma URL que não podem ser compartilhadas (ex.: revalidação do cache).
+     */
+    BufferedClientHttpResponse fetchBuffered(String url, RequestCallback callback, String variant) {
+        if (!coalesces()) {
+            return fetch(url, callback);
+        }
+        return HttpSingleFlight.execute(flightKey(url, variant), () -> fetch(url, callback));
+    }
+
+    /**
+     * Versão assíncrona do {@link #fetchBuffered}, para quem não pode bloquear uma thread do executor.
+     */
+    CompletableFuture<BufferedClientHttpResponse> fetchBufferedAsync(String url, RequestCallback callback, String variant) {
+        if (!coalesces()) {
+            return fetchAsync(url, callback);
+        }
+        return HttpSingleFlight.executeAsync(flightKey(url, variant), () -> fetchAsync(url, callback));
+    }
+
+    private BufferedClientHttpResponse fetch(String url, RequestCallback callback) {
+        return executeHedged(url, callback, BufferedClientHttpResponse::of);
+    }
+
+    private CompletableFuture<BufferedClientHttpResponse> fetchAsync(String url, RequestCallback callback) {
+        if (!hedged()) {
+            return HttpAsyncExecutor.shared().submit(() -> execute(url, callback, BufferedClientHttpResponse::of));
+        }
+        return HttpHedging.executeAsync(url, hedgeURL(), target -> execute(target, callback, BufferedClientHttpResponse::of));
+    }
+
+    private boolean coalesces() {
+        return this.coalesce && HttpMethod.GET.equals(method());
+    }
+
+    private String flightKey(String url, String variant) {
+        StringBuilder key = new StringBuilder(url.length() + 64).append(method().name()).append(' ').append(url);
+        if (this.headers != null) {
+            this.headers.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey(String.CASE_INSENSITIVE_ORDER))
+                    .forEach(header -> key.append('\n').append(header.getKey().toLowerCase(Locale.ROOT))
+                            .append('=').append(String.join(",", header.getValue())));
+        }
+        return key.append('\n').append(variant).toString();
+    }
+
+    private JSONUtilitiesV2 json() {
+        return this.json != null ? this.json : HttpConnectionPool.shared().json();
+    }
+
+    private Gson gson() {
+        return json().gson();
+    }
+
+    /**
+     * Com um {@code json} próprio, as respostas são lidas com ele no lugar do conversor Gson padrão do pool.
+     * As listas ficam guardadas por instância de {@link Gson}.
+     */
+    private List<HttpMessageConverter<?>> messageConverters() {
+        List<HttpMessageConverter<?>> defaults = restTemplate().getMessageConverters();
+        if (this.json == null) {
+            return defaults;
+        }
+        JSONUtilitiesV2 custom = this.json;
+        return CONVERTERS.computeIfAbsent(custom.gson(), gson -> {
+            List<HttpMessageConverter<?>> converters = new ArrayList<>(defaults);
+            converters.removeIf(JSONUtilitiesHttpMessageConverter.class::isInstance);
+            return List.copyOf(new JSONUtilitiesHttpMessageConverter(custom).registerIn(converters));
+        });
+    }
+
+    private static boolean hasBody(ClientHttpResponse response) throws IOException {
+        int status = response.getStatusCode().value();
+        return status != HttpStatus.NO_CONTENT.value()
+                && status != HttpStatus.NOT_MODIFIED.value()
+                && response.getHeaders().getContentLength() != 0;
+    }
+
+    private <T> T extract(String url, ResponseExtractor<T> extractor, BufferedClientHttpResponse response) {
+        try {
+            return extractor.extractData(response);
+        } catch (IOException e) {
+            throw ioError(url, e);
+        }
+    }
+
+    /**
+     * Falha de I/O fora do {@code RestTemplate} no mesmo formato que ele usa, para que o {@link HttpResilience}
+     * e o tratamento de erros a vejam como as demais.
+     */
+    private ResourceAccessException ioError(String url, IOException e) {
+        return new ResourceAccessException("Erro de I/O em " + method() + " " + url + ": " + e.getMessage(), e);
+    }
+
+    /**
+     * Expande o template de {@code address} + {@code resource}, que é normalizado e guardado na primeira vez.
+     */
     protected String createURL() {
-        String url = this.address;
-        if (url.endsWith("/"))
-            url = url.substring(0, url.lastIndexOf("/") - 1);
-        if (!this.resource.startsWith("/"))
-            this.resource = "/".concat(this.resource);
-        if (this.resource.endsWith("/"))
-            this.resource = this.resource.substring(0, this.resource.lastIndexOf("/"));
-        return url.concat(this.resource);
+        return createURL(this.address);
+    }
+
+    private String createURL(String address) {
+        return HttpUriTemplate.of(address, this.resource).expand(this.variables, this.queryParams);
+    }
+
+    private HttpUriTemplate template() {
+        return HttpUriTemplate.of(this.address, this.resource);
+    }
+
+    protected RestTemplate restTemplate() {
+        return HttpConnectionPool.shared().restTemplate();
+    }
+
+    protected HttpResponseCache responseCache() {
+        return null;
+    }
+
+    /**
+     * GETs que disparam requisição de reserva quando a original demora (ver {@link HttpHedging}).
+     */
+    protected boolean hedges() {
+        return false;
+    }
+
+    /**
+     * Endereço base alternativo para a requisição de reserva; {@code null} repete o {@code address}.
+     */
+    protected String hedgeAddress() {
+        return null;
     }
 
     protected abstract HttpMethod method();
@@ -0,0 +1,188 @@
+package com.sulimann.restclient.utils.http;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.sulimann.restclient.exceptions.RestClientException;
+
+/**
+ * Camada de resiliência das chamadas do {@link HttpPadrao}: circuit breaker e limite adaptativo de concorrência
+ * por host, e novas tentativas com backoff para os métodos idempotentes. Só falhas de rede e os status
+ * {@code 429}, {@code 502}, {@code 503} e {@code 504} são repetidos; quando elas encerram a chamada viram
+ * {@link RestClientException}, assim como qualquer outro {@code 5xx} do serviço externo. Os {@code 4xx}
+ * não repetidos seguem como {@link HttpStatusCodeException}.
+ */
+public final class HttpResilience {
+
+    private static final ConcurrentMap<String, HostCircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, AdaptiveConcurrencyLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private HttpResilience() {
+        throw new AssertionError("Não é permitido instanciar esta classe.");
+    }
+
+    public static HostCircuitBreaker circuitBreaker(String host) {
+        return BREAKERS.computeIfAbsent(host,
+                key -> new HostCircuitBreaker(HttpConnectionPool.shared().properties().getCircuitBreaker()));
+    }
+
+    public static Map<String, HostCircuitBreaker.Snapshot> snapshot() {
+        Map<String, HostCircuitBreaker.Snapshot> snapshot = new TreeMap<>();
+        BREAKERS.forEach((host, breaker) -> snapshot.put(host, breaker.snapshot()));
+        return snapshot;
+    }
+
+    public static AdaptiveConcurrencyLimiter limiter(String host) {
+        return LIMITERS.computeIfAbsent(host,
+                key -> new AdaptiveConcurrencyLimiter(HttpConnectionPool.shared().properties().getLimiter()));
+    }
+
+    public static Map<String, AdaptiveConcurrencyLimiter.Snapshot> limits() {
+        Map<String, AdaptiveConcurrencyLimiter.Snapshot> snapshot = new TreeMap<>();
+        LIMITERS.forEach((host, limiter) -> snapshot.put(host, limiter.snapshot()));
+        return snapshot;
+    }
+
+    static RetryPolicy defaultRetryPolicy() {
+        return RetryPolicy.from(HttpConnectionPool.shared().properties().getRetry());
+    }
+
+    /**
+     * Cada tentativa tem a duração registrada em {@code meters}, pela classe de status da resposta.
+     */
+    static <T> T execute(String host, HttpMethod method, RetryPolicy policy, HttpMetrics.CallMeters meters,
+            Supplier<T> call) {
+        HostCircuitBreaker breaker = circuitBreaker(host);
+        AdaptiveConcurrencyLimiter limiter = limiter(host);
+        int maxAttempts = isIdempotent(method) ? policy.maxAttempts() : 1;
+        for (int attempt = 1; ; attempt++) {
+            if (!breaker.tryAcquire()) {
+                throw new RestClientException(HttpStatus.SERVICE_UNAVAILABLE, "Circuito aberto",
+                        "Chamadas para " + host + " suspensas após falhas seguidas")
+                        .withProperty("host", host);
+            }
+            if (!limiter.tryAcquire()) {
+                breaker.onIgnored();
+                throw new RestClientException(HttpStatus.SERVICE_UNAVAILABLE, "Limite de concorrência atingido",
+                        "Chamadas simultâneas para " + host + " acima do limite atual")
+                        .withProperty("host", host)
+                        .withProperty("limit", limiter.limit());
+            }
+            long start = System.nanoTime();
+            try {
+                T result = call.get();
+                long elapsed = System.nanoTime() - start;
+                meters.record(HttpMetrics.outcome(statusOf(result)), elapsed);
+                limiter.release(elapsed, false);
+                breaker.onSuccess();
+                return result;
+            } catch (HttpStatusCodeException e) {
+                long elapsed = System.nanoTime() - start;
+                meters.record(HttpMetrics.outcome(e.getStatusCode().value()), elapsed);
+                limiter.release(elapsed, isOverload(e.getStatusCode().value()));
+                if (e.getStatusCode().is5xxServerError()) {
+                    breaker.onFailure();
+                } else {
+                    breaker.onSuccess();
+                }
+                if (!isRetryable(e.getStatusCode().value())) {
+                    if (e.getStatusCode().is5xxServerError()) {
+                        throw upstreamFailure(method, host, e, attempt);
+                    }
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    throw upstreamFailure(method, host, e, attempt);
+                }
+            } catch (ResourceAccessException e) {
+                long elapsed = System.nanoTime() - start;
+                meters.record(HttpMetrics.IO_ERROR, elapsed);
+                if (Thread.currentThread().isInterrupted()) {
+                    limiter.releaseIgnored();
+                    breaker.onIgnored();
+                    throw e;
+                }
+                limiter.release(elapsed, true);
+                breaker.onFailure();
+                if (attempt >= maxAttempts) {
+                    boolean timeout = e.getCause() instanceof SocketTimeoutException;
+                    throw new RestClientException(timeout ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_GATEWAY,
+                            timeout ? "Tempo esgotado no serviço externo" : "Falha de comunicação com o serviço externo",
+                            method + " " + host + ": " + e.getMessage() + " após " + attempt + " tentativa(s)", e)
+                            .withProperty("host", host)
+                            .withProperty("attempts", attempt);
+                }
+            } catch (RuntimeException | Error e) {
+                meters.record(HttpMetrics.CLIENT_ERROR, System.nanoTime() - start);
+                limiter.releaseIgnored();
+                breaker.onIgnored();
+                throw e;
+            }
+            breaker.onRetry();
+            sleep(policy.backoffMillis(attempt));
+        }
+    }
+
+    /**
+     * Respostas sem erro que não chegam como {@link ClientHttpResponse} já foram convertidas; contam como 200.
+     */
+    private static int statusOf(Object result) {
+        if (result instanceof ClientHttpResponse response) {
+            try {
+                return response.getStatusCode().value();
+            } catch (IOException e) {
+                return HttpStatus.OK.value();
+            }
+        }
+        return HttpStatus.OK.value();
+    }
+
+    private static RestClientException upstreamFailure(HttpMethod method, String host, HttpStatusCodeException e, int attempt) {
+        return new RestClientException(HttpStatus.BAD_GATEWAY, "Falha no serviço externo",
+                method + " " + host + " respondeu " + e.getStatusCode().value() + " após " + attempt + " tentativa(s)", e)
+                .withProperty("host", host)
+                .withProperty("upstreamStatus", e.getStatusCode().value())
+                .withProperty("attempts", attempt);
+    }
+
+    private static boolean isIdempotent(HttpMethod method) {
+        return HttpMethod.GET.equals(method) || HttpMethod.PUT.equals(method) || HttpMethod.DELETE.equals(method)
+                || HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method);
+    }
+
+    private static boolean isOverload(int status) {
+        return status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == HttpStatus.TOO_MANY_REQUESTS.value()
+                || status == HttpStatus.BAD_GATEWAY.value()
+                || status == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || status == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestClientException(HttpStatus.SERVICE_UNAVAILABLE, "Chamada interrompida",
+                    "Chamada cancelada enquanto aguardava nova tentativa", e);
+        }
+    }
+
+}
@@ -0,0 +1,296 @@
+package com.sulimann.restclient.utils.http;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+
+/**
+ * Cache opcional das respostas de {@link Get}, seguindo a semântica HTTP: respeita {@code Cache-Control}
+ * ({@code max-age}, {@code no-cache}, {@code no-store}) e revalida entradas vencidas com {@code If-None-Match}
+ * e {@code If-Modified-Since}; um {@code 304} é servido do cache.
+ * <p>
+ * A chave é a URL montada pelo {@code createURL()} mais os valores dos cabeçalhos listados no {@code Vary}
+ * da resposta. A remoção é LRU limitada pelo total de bytes armazenados.
+ */
+public final class HttpResponseCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, List<String>> varyByUrl = new ConcurrentHashMap<>();
+    private long currentBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private HttpResponseCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Tamanho do cache precisa ser maior que zero");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    public static HttpResponseCache create(long maxBytes) {
+        return new HttpResponseCache(maxBytes);
+    }
+
+    public Stats stats() {
+        synchronized (this) {
+            return new Stats(this.hits.sum(), this.misses.sum(), this.revalidations.sum(), this.evictions.sum(),
+                    this.entries.size(), this.currentBytes, this.maxBytes);
+        }
+    }
+
+    public synchronized void clear() {
+        this.entries.clear();
+        this.varyByUrl.clear();
+        this.currentBytes = 0;
+    }
+
+    <T> T exchange(HttpPadrao padrao, String url, Type responseType, ResponseExtractor<T> extractor) throws IOException {
+        Lookup lookup = lookup(padrao, url);
+        if (lookup.isHit()) {
+            return extractor.extractData(lookup.cached().response());
+        }
+        BufferedClientHttpResponse fetched = padrao.fetchBuffered(url, lookup.callback(padrao.requestCallback(responseType)),
+                lookup.variant());
+        return extractor.extractData(settle(url, lookup, fetched));
+    }
+
+    /**
+     * Versão assíncrona do {@link #exchange}: devolve a resposta a converter. A busca na rede segue pelo
+     * {@link HttpPadrao#fetchBufferedAsync}, sem ocupar uma thread do executor esperando o hedging ou o agrupamento.
+     */
+    CompletableFuture<BufferedClientHttpResponse> fetchAsync(HttpPadrao padrao, String url, Type responseType) {
+        Lookup lookup = lookup(padrao, url);
+        if (lookup.isHit()) {
+            return CompletableFuture.completedFuture(lookup.cached().response());
+        }
+        return padrao.fetchBufferedAsync(url, lookup.callback(padrao.requestCallback(responseType)), lookup.variant())
+                .thenApply(fetched -> settle(url, lookup, fetched));
+    }
+
+    private Lookup lookup(HttpPadrao padrao, String url) {
+        HttpHeaders requestHeaders = padrao.getHeaders() != null ? padrao.getHeaders() : HttpHeaders.EMPTY;
+        String key = key(url, this.varyByUrl.getOrDefault(url, Collections.emptyList()), requestHeaders);
+        long now = System.currentTimeMillis();
+        Entry cached = get(key);
+        boolean hit = cached != null && cached.isFresh(now);
+        if (hit) {
+            this.hits.increment();
+        }
+        return new Lookup(key, requestHeaders, cached, now, hit);
+    }
+
+    /**
+     * Trata a resposta da rede: um {@code 304} renova a entrada e serve o corpo guardado; o resto é armazenado
+     * quando possível e devolvido como veio.
+     */
+    private BufferedClientHttpResponse settle(String url, Lookup lookup, BufferedClientHttpResponse fetched) {
+        Entry cached = lookup.cached();
+        if (cached != null && fetched.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+            this.hits.increment();
+            this.revalidations.increment();
+            Entry refreshed = cached.revalidated(fetched.getHeaders(), lookup.now());
+            put(lookup.key(), refreshed);
+            return refreshed.response();
+        }
+
+        this.misses.increment();
+        store(url, lookup.requestHeaders(), fetched, lookup.now());
+        return fetched;
+    }
+
+    private void store(String url, HttpHeaders requestHeaders, BufferedClientHttpResponse response, long now) {
+        if (response.getStatusCode().value() != HttpStatus.OK.value()) {
+            return;
+        }
+        HttpHeaders headers = response.getHeaders();
+        Directives directives = Directives.parse(headers.getCacheControl());
+        List<String> vary = headers.getVary().stream()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .sorted()
+                .toList();
+        if (directives.noStore() || vary.contains("*")) {
+            return;
+        }
+        boolean hasValidator = headers.getETag() != null || headers.getLastModified() >= 0;
+        long freshFor = directives.freshFor(headers);
+        if (freshFor <= 0 && !hasValidator) {
+            return;
+        }
+        this.varyByUrl.put(url, vary);
+        put(key(url, vary, requestHeaders), new Entry(response, now, freshFor));
+    }
+
+    private synchronized Entry get(String key) {
+        return this.entries.get(key);
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        long size = entry.size() + key.length() * 2L;
+        if (size > this.maxBytes) {
+            return;
+        }
+        Entry previous = this.entries.put(key, entry);
+        if (previous != null) {
+            this.currentBytes -= previous.size() + key.length() * 2L;
+        }
+        this.currentBytes += size;
+        Iterator<Map.Entry<String, Entry>> eldest = this.entries.entrySet().iterator();
+        while (this.currentBytes > this.maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> evicted = eldest.next();
+            eldest.remove();
+            this.currentBytes -= evicted.getValue().size() + evicted.getKey().length() * 2L;
+            this.evictions.increment();
+        }
+    }
+
+    private static String key(String url, List<String> vary, HttpHeaders requestHeaders) {
+        if (vary.isEmpty()) {
+            return url;
+        }
+        StringBuilder key = new StringBuilder(url.length() + 32 * vary.size()).append(url);
+        for (String name : vary) {
+            key.append('\n').append(name).append('=');
+            List<String> values = requestHeaders.get(name);
+            if (values != null) {
+                key.append(String.join(",", values));
+            }
+        }
+        return key.toString();
+    }
+
+    private record Lookup(String key, HttpHeaders requestHeaders, Entry cached, long now, boolean isHit) {
+
+        /**
+         * Com entrada vencida, acrescenta {@code If-None-Match}/{@code If-Modified-Since} à requisição.
+         */
+        RequestCallback callback(RequestCallback base) {
+            if (this.cached == null) {
+                return base;
+            }
+            return request -> {
+                base.doWithRequest(request);
+                this.cached.addConditionalHeaders(request.getHeaders());
+            };
+        }
+
+        String variant() {
+            return this.cached != null ? this.cached.validators() : "";
+        }
+    }
+
+    /**
+     * Contadores do cache. {@code revalidations} são os hits que precisaram de um {@code 304} do servidor.
+     */
+    public record Stats(long hits, long misses, long revalidations, long evictions, int entries, long bytes, long maxBytes) {}
+
+    private record Directives(boolean noStore, boolean noCache, long maxAgeSeconds) {
+
+        static Directives parse(String cacheControl) {
+            boolean noStore = false;
+            boolean noCache = false;
+            long maxAge = -1;
+            if (cacheControl != null) {
+                for (String directive : cacheControl.split(",")) {
+                    String value = directive.trim().toLowerCase(Locale.ROOT);
+                    if (value.equals("no-store")) {
+                        noStore = true;
+                    } else if (value.equals("no-cache")) {
+                        noCache = true;
+                    } else if (value.startsWith("max-age=")) {
+                        try {
+                            maxAge = Long.parseLong(value.substring("max-age=".length()).replace("\"", ""));
+                        } catch (NumberFormatException e) {
+                            maxAge = 0;
+                        }
+                    }
+                }
+            }
+            return new Directives(noStore, noCache, maxAge);
+        }
+
+        long freshFor(HttpHeaders headers) {
+            if (this.noCache || this.maxAgeSeconds <= 0) {
+                return 0;
+            }
+            long age = 0;
+            String ageHeader = headers.getFirst(HttpHeaders.AGE);
+            if (ageHeader != null) {
+                try {
+                    age = Long.parseLong(ageHeader.trim());
+                } catch (NumberFormatException e) {
+                    age = 0;
+                }
+            }
+            return Math.max(0, this.maxAgeSeconds - age) * 1000;
+        }
+    }
+
+    private record Entry(BufferedClientHttpResponse response, long storedAt, long freshForMillis) {
+
+        boolean isFresh(long now) {
+            return now - this.storedAt < this.freshForMillis;
+        }
+
+        long size() {
+            long size = this.response.bodyBytes().length;
+            for (Map.Entry<String, List<String>> header : this.response.getHeaders().entrySet()) {
+                size += header.getKey().length() * 2L;
+                for (String value : header.getValue()) {
+                    size += value.length() * 2L;
+                }
+            }
+            return size;
+        }
+
+        String validators() {
+            HttpHeaders headers = this.response.getHeaders();
+            return headers.getETag() + "|" + headers.getLastModified();
+        }
+
+        void addConditionalHeaders(HttpHeaders requestHeaders) {
+            HttpHeaders headers = this.response.getHeaders();
+            if (headers.getETag() != null) {
+                requestHeaders.setIfNoneMatch(headers.getETag());
+            }
+            if (headers.getLastModified() >= 0) {
+                requestHeaders.setIfModifiedSince(headers.getLastModified());
+            }
+        }
+
+        /**
+         * Aplica os cabeçalhos do {@code 304} sobre a resposta guardada e recalcula a validade.
+         */
+        Entry revalidated(HttpHeaders notModified, long now) {
+            HttpHeaders merged = new HttpHeaders();
+            merged.putAll(this.response.getHeaders());
+            List<String> skip = List.of(HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+                    HttpHeaders.CONTENT_ENCODING.toLowerCase(Locale.ROOT), HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT));
+            notModified.forEach((name, values) -> {
+                if (!skip.contains(name.toLowerCase(Locale.ROOT))) {
+                    merged.put(name, values);
+                }
+            });
+            BufferedClientHttpResponse response = new BufferedClientHttpResponse(this.response.getStatusCode(),
+                    this.response.getStatusText(), merged, this.response.bodyBytes());
+            return new Entry(response, now, Directives.parse(merged.getCacheControl()).freshFor(merged));
+        }
+    }
+
+}
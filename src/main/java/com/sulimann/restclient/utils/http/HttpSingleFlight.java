@@ -0,0 +1,98 @@
+package com.sulimann.restclient.utils.http;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa requisições idênticas em andamento: a primeira vai para a rede e as demais esperam a mesma resposta.
+ * A resposta compartilhada fica em memória e cada chamador desserializa a sua própria cópia dela.
+ */
+public final class HttpSingleFlight {
+
+    private static final ConcurrentMap<String, CompletableFuture<BufferedClientHttpResponse>> IN_FLIGHT = new ConcurrentHashMap<>();
+    private static final LongAdder COALESCED = new LongAdder();
+
+    private HttpSingleFlight() {
+        throw new AssertionError("Não é permitido instanciar esta classe.");
+    }
+
+    /**
+     * Total de chamadas que reaproveitaram uma requisição já em andamento em vez de ir para a rede.
+     */
+    public static long coalesced() {
+        return COALESCED.sum();
+    }
+
+    public static int inFlight() {
+        return IN_FLIGHT.size();
+    }
+
+    static BufferedClientHttpResponse execute(String key, Supplier<BufferedClientHttpResponse> fetch) {
+        CompletableFuture<BufferedClientHttpResponse> flight = new CompletableFuture<>();
+        CompletableFuture<BufferedClientHttpResponse> existing = IN_FLIGHT.putIfAbsent(key, flight);
+        if (existing != null) {
+            COALESCED.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            }
+        }
+        try {
+            BufferedClientHttpResponse response = fetch.get();
+            flight.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            IN_FLIGHT.remove(key, flight);
+        }
+    }
+
+    /**
+     * Versão assíncrona: quem chega depois só encadeia no futuro existente, sem ocupar thread esperando.
+     * Cancelar o futuro devolvido não cancela a requisição compartilhada.
+     */
+    static CompletableFuture<BufferedClientHttpResponse> executeAsync(String key,
+            Supplier<CompletableFuture<BufferedClientHttpResponse>> fetch) {
+        CompletableFuture<BufferedClientHttpResponse> flight = new CompletableFuture<>();
+        CompletableFuture<BufferedClientHttpResponse> existing = IN_FLIGHT.putIfAbsent(key, flight);
+        if (existing != null) {
+            COALESCED.increment();
+            return existing.thenApply(Function.identity());
+        }
+        CompletableFuture<BufferedClientHttpResponse> started;
+        try {
+            started = fetch.get();
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((response, error) -> {
+            IN_FLIGHT.remove(key, flight);
+            if (error != null) {
+                flight.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            } else {
+                flight.complete(response);
+            }
+        });
+        return flight.thenApply(Function.identity());
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return e;
+    }
+
+}
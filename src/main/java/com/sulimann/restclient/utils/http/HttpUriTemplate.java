@@ -0,0 +1,300 @@
+package com.sulimann.restclient.utils.http;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.http.HttpMethod;
+
+/**
+ * URL de um {@link HttpPadrao} ({@code address} + {@code resource}) já normalizada e quebrada em trechos
+ * literais e variáveis {@code {nome}}. É montada uma vez por combinação de endereço e recurso e reaproveitada;
+ * a expansão só escreve os trechos e os valores codificados num buffer já dimensionado.
+ * <p>
+ * A URL expandida já sai codificada e deve ir para o {@code RestTemplate} como {@link java.net.URI}, não como
+ * template. Valores de variáveis são codificados como segmento de caminho (uma {@code /} no valor vira {@code %2F}) e
+ * os parâmetros de query com o conjunto mais restrito, só os caracteres não reservados ficam como estão.
+ * <p>
+ * Com o host fixo no endereço, o template também guarda o host e os medidores do {@link HttpMetrics} da chamada,
+ * para que cada tentativa não precise extrair o host da URL nem consultar os mapas de métricas.
+ */
+final class HttpUriTemplate {
+
+    /** Acima disso os templates deixam de ser guardados: recursos montados à mão a cada chamada não enchem o cache. */
+    private static final int MAX_CACHED = 4_096;
+
+    private static final ConcurrentMap<String, ConcurrentMap<String, HttpUriTemplate>> CACHE = new ConcurrentHashMap<>();
+    private static final String NO_RESOURCE = "";
+
+    private static final boolean[] UNRESERVED = new boolean[128];
+    private static final boolean[] PATH_SEGMENT = new boolean[128];
+    private static final boolean[] URI_LITERAL = new boolean[128];
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            UNRESERVED[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            UNRESERVED[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            UNRESERVED[c] = true;
+        }
+        for (char c : "-._~".toCharArray()) {
+            UNRESERVED[c] = true;
+        }
+        System.arraycopy(UNRESERVED, 0, PATH_SEGMENT, 0, UNRESERVED.length);
+        for (char c : "!$&'()*+,;=:@".toCharArray()) {
+            PATH_SEGMENT[c] = true;
+        }
+        System.arraycopy(PATH_SEGMENT, 0, URI_LITERAL, 0, PATH_SEGMENT.length);
+        for (char c : "/?#[]%".toCharArray()) {
+            URI_LITERAL[c] = true;
+        }
+    }
+
+    private static int cached;
+
+    private final String[] literals;
+    private final String[] names;
+    private final boolean hasQuery;
+    private final int literalLength;
+    private final String resource;
+    /** {@code esquema://host[:porta]} do endereço; {@code null} quando o endereço tem variáveis. */
+    private final String origin;
+    private final String host;
+    private volatile HttpMetrics.CallMeters meters;
+
+    private HttpUriTemplate(String address, String resource) {
+        String base = normalizeAddress(address);
+        String url = base + normalizeResource(resource);
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int start = 0;
+        int open = url.indexOf('{');
+        while (open >= 0) {
+            int close = url.indexOf('}', open + 1);
+            if (close < 0) {
+                throw new IllegalArgumentException("Variável sem '}' na URL " + url);
+            }
+            String name = url.substring(open + 1, close).trim();
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Variável sem nome na URL " + url);
+            }
+            literals.add(literal(url.substring(start, open)));
+            names.add(name);
+            start = close + 1;
+            open = url.indexOf('{', start);
+        }
+        literals.add(literal(url.substring(start)));
+        this.literals = literals.toArray(String[]::new);
+        this.names = names.toArray(String[]::new);
+        this.hasQuery = url.indexOf('?') >= 0;
+        this.literalLength = url.length();
+        this.resource = resource != null ? resource : NO_RESOURCE;
+        this.origin = base.indexOf('{') < 0 ? base.substring(0, HttpHosts.end(base)) : null;
+        this.host = this.origin != null ? HttpHosts.of(this.origin) : null;
+    }
+
+    static HttpUriTemplate of(String address, String resource) {
+        if (address == null) {
+            throw new IllegalArgumentException("Endereço da chamada não informado");
+        }
+        String key = resource != null ? resource : NO_RESOURCE;
+        ConcurrentMap<String, HttpUriTemplate> byResource = CACHE.get(address);
+        HttpUriTemplate template = byResource != null ? byResource.get(key) : null;
+        if (template != null) {
+            return template;
+        }
+        template = new HttpUriTemplate(address, resource);
+        synchronized (CACHE) {
+            if (cached < MAX_CACHED) {
+                HttpUriTemplate previous = CACHE.computeIfAbsent(address, k -> new ConcurrentHashMap<>()).putIfAbsent(key, template);
+                if (previous != null) {
+                    return previous;
+                }
+                cached++;
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Monta a URL com as variáveis e os parâmetros de query. Valores de query que são coleções ou arrays
+     * repetem o parâmetro; {@code null} omite o parâmetro.
+     */
+    String expand(Map<String, ?> variables, Map<String, ?> queryParams) {
+        boolean noQuery = queryParams == null || queryParams.isEmpty();
+        if (this.names.length == 0 && noQuery) {
+            return this.literals[0];
+        }
+        StringBuilder url = new StringBuilder(this.literalLength + 24 * this.names.length + (noQuery ? 0 : 32 * queryParams.size()));
+        url.append(this.literals[0]);
+        for (int i = 0; i < this.names.length; i++) {
+            Object value = variables != null ? variables.get(this.names[i]) : null;
+            if (value == null) {
+                throw new IllegalArgumentException("Variável {" + this.names[i] + "} não informada para " + this.literals[0]);
+            }
+            encode(url, format(value), PATH_SEGMENT);
+            url.append(this.literals[i + 1]);
+        }
+        if (!noQuery) {
+            char separator = this.hasQuery ? '&' : '?';
+            for (Map.Entry<String, ?> param : queryParams.entrySet()) {
+                Object value = param.getValue();
+                if (value == null) {
+                    continue;
+                }
+                if (value instanceof Iterable<?> values) {
+                    for (Object item : values) {
+                        separator = appendParam(url, separator, param.getKey(), item);
+                    }
+                } else if (value.getClass().isArray()) {
+                    for (int i = 0, length = Array.getLength(value); i < length; i++) {
+                        separator = appendParam(url, separator, param.getKey(), Array.get(value, i));
+                    }
+                } else {
+                    separator = appendParam(url, separator, param.getKey(), value);
+                }
+            }
+        }
+        return url.toString();
+    }
+
+    /**
+     * Host de {@code url}, sem extraí-lo de novo quando a URL saiu deste template.
+     */
+    String host(String url) {
+        return owns(url) ? this.host : HttpHosts.of(url);
+    }
+
+    /**
+     * Medidores de {@code url} no {@link HttpMetrics} instalado. Os do último método usado ficam guardados; uma URL
+     * de outro host (como a de reserva do hedging) ou um endereço com variáveis caem na consulta aos mapas.
+     */
+    HttpMetrics.CallMeters meters(String url, HttpMethod method) {
+        HttpMetrics metrics = HttpMetrics.shared();
+        if (!owns(url)) {
+            return metrics.call(HttpHosts.of(url), this.resource, method);
+        }
+        HttpMetrics.CallMeters last = this.meters;
+        if (last == null || !last.belongsTo(metrics, method)) {
+            last = metrics.call(this.host, this.resource, method);
+            this.meters = last;
+        }
+        return last;
+    }
+
+    private boolean owns(String url) {
+        if (this.origin == null || !url.startsWith(this.origin)) {
+            return false;
+        }
+        int end = this.origin.length();
+        return url.length() == end || url.charAt(end) == '/' || url.charAt(end) == '?' || url.charAt(end) == '#';
+    }
+
+    /**
+     * Trechos fixos já vêm codificados; só caracteres que não podem aparecer numa URI (espaço, acentos) são escapados.
+     */
+    private static String literal(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 128 || !URI_LITERAL[c]) {
+                StringBuilder encoded = new StringBuilder(text.length() + 16);
+                encode(encoded, text, URI_LITERAL);
+                return encoded.toString();
+            }
+        }
+        return text;
+    }
+
+    private static char appendParam(StringBuilder url, char separator, String name, Object value) {
+        if (value == null) {
+            return separator;
+        }
+        url.append(separator);
+        encode(url, name, UNRESERVED);
+        url.append('=');
+        encode(url, format(value), UNRESERVED);
+        return '&';
+    }
+
+    private static String format(Object value) {
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        return value.toString();
+    }
+
+    /**
+     * Percent-encoding em UTF-8 direto no buffer, sem {@code getBytes} intermediário.
+     */
+    static void encode(StringBuilder out, String value, boolean[] allowed) {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 128) {
+                if (allowed[c]) {
+                    out.append(c);
+                } else {
+                    percent(out, c);
+                }
+                continue;
+            }
+            int codePoint = value.codePointAt(i);
+            if (Character.isSupplementaryCodePoint(codePoint)) {
+                i++;
+            }
+            if (codePoint < 0x800) {
+                percent(out, 0xC0 | (codePoint >> 6));
+                percent(out, 0x80 | (codePoint & 0x3F));
+            } else if (codePoint < 0x10000) {
+                percent(out, 0xE0 | (codePoint >> 12));
+                percent(out, 0x80 | ((codePoint >> 6) & 0x3F));
+                percent(out, 0x80 | (codePoint & 0x3F));
+            } else {
+                percent(out, 0xF0 | (codePoint >> 18));
+                percent(out, 0x80 | ((codePoint >> 12) & 0x3F));
+                percent(out, 0x80 | ((codePoint >> 6) & 0x3F));
+                percent(out, 0x80 | (codePoint & 0x3F));
+            }
+        }
+    }
+
+    private static void percent(StringBuilder out, int b) {
+        out.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
+
+    private static String normalizeAddress(String address) {
+        int end = address.length();
+        while (end > 0 && address.charAt(end - 1) == '/') {
+            end--;
+        }
+        return address.substring(0, end);
+    }
+
+    /**
+     * Garante a barra inicial e remove barras finais do caminho, preservando uma query já presente no recurso.
+     */
+    private static String normalizeResource(String resource) {
+        if (resource == null || resource.isEmpty()) {
+            return "";
+        }
+        int queryStart = resource.indexOf('?');
+        String path = queryStart < 0 ? resource : resource.substring(0, queryStart);
+        String query = queryStart < 0 ? "" : resource.substring(queryStart);
+        int end = path.length();
+        while (end > 0 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        path = path.substring(0, end);
+        if (!path.isEmpty() && path.charAt(0) != '/') {
+            path = "/" + path;
+        }
+        return path + query;
+    }
+
+}
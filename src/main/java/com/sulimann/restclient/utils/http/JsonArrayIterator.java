@@ -0,0 +1,108 @@
+package com.sulimann.restclient.utils.http;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Percorre um array JSON direto do corpo da resposta, um elemento por vez, com o {@link JsonReader} do Gson.
+ * Ao terminar o array, ou em qualquer erro, fecha a resposta e devolve a conexão ao pool. Um corpo que não é
+ * array falha com {@link JsonSyntaxException} já na primeira leitura.
+ */
+final class JsonArrayIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final TypeAdapter<T> adapter;
+    private final ClientHttpResponse response;
+    private final JsonReader reader;
+    private boolean started;
+    private boolean finished;
+    private boolean closed;
+
+    JsonArrayIterator(TypeAdapter<T> adapter, ClientHttpResponse response) throws IOException {
+        this.adapter = adapter;
+        this.response = response;
+        this.reader = new JsonReader(new InputStreamReader(response.getBody(), charset(response)));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.finished) {
+            return false;
+        }
+        try {
+            if (!this.started) {
+                JsonToken first = this.reader.peek();
+                if (first != JsonToken.BEGIN_ARRAY) {
+                    throw new JsonSyntaxException("Esperado um array JSON mas era " + first + " em " + this.reader.getPath());
+                }
+                this.reader.beginArray();
+                this.started = true;
+            }
+            if (this.reader.hasNext()) {
+                return true;
+            }
+            this.reader.endArray();
+            this.finished = true;
+            close();
+            return false;
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return this.adapter.read(this.reader);
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.finished = true;
+        try {
+            this.reader.close();
+        } catch (IOException e) {
+            // a resposta é fechada logo abaixo de qualquer forma
+        }
+        this.response.close();
+    }
+
+    private static Charset charset(ClientHttpResponse response) {
+        MediaType contentType = response.getHeaders().getContentType();
+        if (contentType != null && contentType.getCharset() != null) {
+            return contentType.getCharset();
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+}
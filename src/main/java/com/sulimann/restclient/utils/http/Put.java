@@ -4,7 +4,7 @@ import org.springframework.http.HttpMethod;
 
 import lombok.experimental.SuperBuilder;
 
-@SuperBuilder
+@SuperBuilder(toBuilder = true)
 public class Put extends HttpPadrao {
 
     @Override
@@ -0,0 +1,51 @@
+package com.sulimann.restclient.utils.http;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.sulimann.restclient.configs.HttpClientProperties;
+
+/**
+ * Política de novas tentativas com backoff exponencial e jitter completo: a espera antes da tentativa
+ * {@code n + 1} é sorteada entre zero e {@code min(maxBackoff, initialBackoff * 2^(n - 1))}.
+ */
+public final class RetryPolicy {
+
+    private static final RetryPolicy NONE = new RetryPolicy(1, Duration.ZERO, Duration.ZERO);
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Número de tentativas precisa ser maior que zero");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+    }
+
+    public static RetryPolicy of(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff);
+    }
+
+    public static RetryPolicy none() {
+        return NONE;
+    }
+
+    static RetryPolicy from(HttpClientProperties.Retry properties) {
+        return new RetryPolicy(properties.getMaxAttempts(), properties.getInitialBackoff(), properties.getMaxBackoff());
+    }
+
+    public int maxAttempts() {
+        return this.maxAttempts;
+    }
+
+    long backoffMillis(int attempt) {
+        int shift = Math.min(attempt - 1, 30);
+        long ceiling = Math.min(this.maxBackoffMillis, this.initialBackoffMillis << shift);
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+}
@@ -0,0 +1,286 @@
+package com.sulimann.restclient.utils.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Base64 MIME (linhas de 76 caracteres separadas por {@code \r\n}) do {@code withParseByteArray}, em pedaços.
+ * Escrevendo por um {@code toJson} do {@link JSONUtilitiesV2}, o texto vai direto para o writer em blocos de
+ * {@link #CHUNK_BYTES}, sem a {@code String} inteira; com outro {@link JsonWriter} o resultado é o mesmo, montado
+ * de uma vez. Na leitura o {@link JsonReader} do Gson sempre entrega a string inteira, então o limite ali é ela.
+ * <p>
+ * Além de {@code byte[]}, que é registrado pelo {@code withParseByteArray}, há adapters para campos
+ * {@link InputStream}, {@link Path} e {@link ByteBuffer}, ligados campo a campo com
+ * {@code @JsonAdapter(Base64Adapters.PathAdapter.class)}. Escrevendo, o stream é lido até o fim sem ser fechado,
+ * o arquivo é lido em blocos e o buffer vai de {@code position} a {@code limit} sem ser alterado. Lendo, o stream
+ * decodifica sob demanda a partir da string, o arquivo é um temporário novo (apague quando não precisar mais) e o
+ * buffer é um heap buffer com os bytes.
+ */
+public final class Base64Adapters {
+
+    /** Múltiplo de 57, o que cabe numa linha de 76 caracteres. */
+    static final int CHUNK_BYTES = 57 * 64;
+
+    private static final int LINE_CHARS = 76;
+    private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    private Base64Adapters() {
+        throw new AssertionError("Não é permitido instanciar esta classe.");
+    }
+
+    public static class ByteArrayAdapter extends TypeAdapter<byte[]> {
+
+        @Override
+        public void write(JsonWriter out, byte[] value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            if (out instanceof RawJsonWriter raw && !raw.isHtmlSafe()) {
+                MimeEncoder encoder = new MimeEncoder(raw.beginRawString());
+                encoder.write(value, 0, value.length);
+                encoder.finish();
+                raw.endRawString();
+            } else {
+                out.value(Base64.getMimeEncoder().encodeToString(value));
+            }
+        }
+
+        @Override
+        public byte[] read(JsonReader in) throws IOException {
+            String text = nextText(in);
+            return text == null ? null : decode(text);
+        }
+    }
+
+    public static class InputStreamAdapter extends TypeAdapter<InputStream> {
+
+        @Override
+        public void write(JsonWriter out, InputStream value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            writeStream(out, value);
+        }
+
+        @Override
+        public InputStream read(JsonReader in) throws IOException {
+            String text = nextText(in);
+            return text == null ? null : Base64.getMimeDecoder().wrap(new AsciiStream(text));
+        }
+    }
+
+    public static class PathAdapter extends TypeAdapter<Path> {
+
+        @Override
+        public void write(JsonWriter out, Path value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            try (InputStream stream = Files.newInputStream(value)) {
+                writeStream(out, stream);
+            }
+        }
+
+        @Override
+        public Path read(JsonReader in) throws IOException {
+            String text = nextText(in);
+            if (text == null) {
+                return null;
+            }
+            Path file = Files.createTempFile("json-base64-", ".bin");
+            try (InputStream stream = Base64.getMimeDecoder().wrap(new AsciiStream(text))) {
+                Files.copy(stream, file, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            return file;
+        }
+    }
+
+    public static class ByteBufferAdapter extends TypeAdapter<ByteBuffer> {
+
+        @Override
+        public void write(JsonWriter out, ByteBuffer value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            ByteBuffer source = value.duplicate();
+            if (out instanceof RawJsonWriter raw && !raw.isHtmlSafe()) {
+                MimeEncoder encoder = new MimeEncoder(raw.beginRawString());
+                byte[] chunk = new byte[Math.min(CHUNK_BYTES, source.remaining())];
+                while (source.hasRemaining()) {
+                    int n = Math.min(chunk.length, source.remaining());
+                    source.get(chunk, 0, n);
+                    encoder.write(chunk, 0, n);
+                }
+                encoder.finish();
+                raw.endRawString();
+            } else {
+                byte[] bytes = new byte[source.remaining()];
+                source.get(bytes);
+                out.value(Base64.getMimeEncoder().encodeToString(bytes));
+            }
+        }
+
+        @Override
+        public ByteBuffer read(JsonReader in) throws IOException {
+            String text = nextText(in);
+            return text == null ? null : ByteBuffer.wrap(decode(text));
+        }
+    }
+
+    private static void writeStream(JsonWriter out, InputStream stream) throws IOException {
+        if (out instanceof RawJsonWriter raw && !raw.isHtmlSafe()) {
+            MimeEncoder encoder = new MimeEncoder(raw.beginRawString());
+            byte[] chunk = new byte[CHUNK_BYTES];
+            int n;
+            while ((n = stream.readNBytes(chunk, 0, chunk.length)) > 0) {
+                encoder.write(chunk, 0, n);
+            }
+            encoder.finish();
+            raw.endRawString();
+        } else {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            stream.transferTo(bytes);
+            out.value(Base64.getMimeEncoder().encodeToString(bytes.toByteArray()));
+        }
+    }
+
+    private static String nextText(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private static byte[] decode(String text) {
+        try {
+            return Base64.getMimeDecoder().decode(text);
+        } catch (IllegalArgumentException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Codifica em Base64 MIME, já escapado para dentro de uma string JSON, num buffer de caracteres fixo. Guarda
+     * os até dois bytes que sobram de um bloco para o próximo; não põe separador depois da última linha.
+     */
+    static final class MimeEncoder {
+
+        private final Writer out;
+        private final char[] chars = new char[4096];
+        private int count;
+        private int column;
+        private int pending;
+        private int pendingBytes;
+
+        MimeEncoder(Writer out) {
+            this.out = out;
+        }
+
+        void write(byte[] bytes, int offset, int length) throws IOException {
+            int i = offset;
+            int end = offset + length;
+            while (this.pendingBytes > 0 && this.pendingBytes < 3 && i < end) {
+                this.pending = (this.pending << 8) | (bytes[i++] & 0xFF);
+                if (++this.pendingBytes == 3) {
+                    group(this.pending, 4);
+                    this.pendingBytes = 0;
+                    this.pending = 0;
+                }
+            }
+            for (; i + 2 < end; i += 3) {
+                group(((bytes[i] & 0xFF) << 16) | ((bytes[i + 1] & 0xFF) << 8) | (bytes[i + 2] & 0xFF), 4);
+            }
+            for (; i < end; i++) {
+                this.pending = (this.pending << 8) | (bytes[i] & 0xFF);
+                this.pendingBytes++;
+            }
+        }
+
+        void finish() throws IOException {
+            if (this.pendingBytes == 1) {
+                group(this.pending << 16, 2);
+            } else if (this.pendingBytes == 2) {
+                group(this.pending << 8, 3);
+            }
+            this.pendingBytes = 0;
+            this.pending = 0;
+            this.out.write(this.chars, 0, this.count);
+            this.count = 0;
+        }
+
+        /**
+         * Quatro caracteres para 24 bits, com {@code '='} completando depois de {@code significant}.
+         */
+        private void group(int bits, int significant) throws IOException {
+            if (this.count > this.chars.length - 8) {
+                this.out.write(this.chars, 0, this.count);
+                this.count = 0;
+            }
+            char[] chars = this.chars;
+            if (this.column == LINE_CHARS) {
+                chars[this.count++] = '\\';
+                chars[this.count++] = 'r';
+                chars[this.count++] = '\\';
+                chars[this.count++] = 'n';
+                this.column = 0;
+            }
+            chars[this.count++] = ALPHABET[(bits >>> 18) & 0x3F];
+            chars[this.count++] = ALPHABET[(bits >>> 12) & 0x3F];
+            chars[this.count++] = significant > 2 ? ALPHABET[(bits >>> 6) & 0x3F] : '=';
+            chars[this.count++] = significant > 3 ? ALPHABET[bits & 0x3F] : '=';
+            this.column += 4;
+        }
+    }
+
+    /**
+     * Caracteres de uma string Base64 como bytes, sem copiar a string.
+     */
+    private static final class AsciiStream extends InputStream {
+
+        private final String text;
+        private int position;
+
+        AsciiStream(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read() {
+            return this.position < this.text.length() ? this.text.charAt(this.position++) & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (this.position >= this.text.length()) {
+                return -1;
+            }
+            int n = Math.min(length, this.text.length() - this.position);
+            for (int i = 0; i < n; i++) {
+                bytes[offset + i] = (byte) this.text.charAt(this.position++);
+            }
+            return n;
+        }
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.sulimann.restclient.utils.json;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Tabelas de um enum montadas uma vez por classe: o JSON de cada constante ({@code name} mais as propriedades
+ * de leitura, como o {@link JSONUtilitiesV2.EnumAdapterFactory} sempre escreveu) e mapas de texto para
+ * constante, pelo nome ou {@code toString()} e pela propriedade {@code value}. Também atende o
+ * {@code ValidEnumValidator}.
+ * <p>
+ * As propriedades são lidas só na montagem, então precisam ser fixas por constante, como costumam ser os
+ * campos {@code final} de um enum.
+ */
+public final class EnumTable {
+
+    private static final String VALUE_PROPERTY = "value";
+
+    private static final ConcurrentMap<Class<?>, EnumTable> TABLES = new ConcurrentHashMap<>();
+
+    private final Enum<?>[] constants;
+    private final String[] json;
+    private final String[] htmlSafeJson;
+    private final Map<String, Enum<?>> byName;
+    private final Map<String, Enum<?>> byNameIgnoreCase;
+    private final Map<String, Enum<?>> byText;
+    private final Map<String, Enum<?>> byValue;
+
+    private EnumTable(Class<?> enumClass) {
+        this.constants = (Enum<?>[]) enumClass.getEnumConstants();
+        PropertyDescriptor[] properties = readableProperties(enumClass);
+        this.json = new String[this.constants.length];
+        this.htmlSafeJson = new String[this.constants.length];
+        this.byName = new HashMap<>(this.constants.length * 2);
+        this.byNameIgnoreCase = new HashMap<>(this.constants.length * 2);
+        this.byText = new HashMap<>(this.constants.length * 4);
+        this.byValue = new HashMap<>(this.constants.length * 2);
+        for (Enum<?> constant : this.constants) {
+            this.byName.put(constant.name(), constant);
+            this.byNameIgnoreCase.putIfAbsent(constant.name().toLowerCase(Locale.ROOT), constant);
+        }
+        this.byText.putAll(this.byName);
+        for (Enum<?> constant : this.constants) {
+            this.byText.putIfAbsent(constant.toString(), constant);
+        }
+        for (Enum<?> constant : this.constants) {
+            Map<String, String> values = read(constant, properties, this.byValue);
+            this.json[constant.ordinal()] = serialize(constant, values, false);
+            this.htmlSafeJson[constant.ordinal()] = serialize(constant, values, true);
+        }
+    }
+
+    /**
+     * Tabela do enum; aceita também a classe de uma constante com corpo próprio.
+     */
+    public static EnumTable of(Class<?> type) {
+        Class<?> enumClass = type.isEnum() ? type : type.getSuperclass();
+        if (enumClass == null || !enumClass.isEnum()) {
+            throw new IllegalArgumentException(type.getName() + " não é um enum");
+        }
+        EnumTable table = TABLES.get(enumClass);
+        if (table != null) {
+            return table;
+        }
+        table = new EnumTable(enumClass);
+        EnumTable previous = TABLES.putIfAbsent(enumClass, table);
+        return previous != null ? previous : table;
+    }
+
+    /**
+     * Objeto JSON já pronto da constante, para {@link JsonWriter#jsonValue}. {@code htmlSafe} segue o
+     * {@link JsonWriter#isHtmlSafe()} de quem escreve, já que o texto entra cru, sem novo escape.
+     */
+    public String json(Enum<?> constant, boolean htmlSafe) {
+        return htmlSafe ? this.htmlSafeJson[constant.ordinal()] : this.json[constant.ordinal()];
+    }
+
+    /**
+     * Constante cujo nome ou {@code toString()} é {@code text}, com preferência pelo nome.
+     */
+    public Enum<?> find(String text) {
+        return text != null ? this.byText.get(text) : null;
+    }
+
+    /**
+     * Constante cuja propriedade {@code value} tem esse texto.
+     */
+    public Enum<?> byValue(String value) {
+        return value != null ? this.byValue.get(value) : null;
+    }
+
+    public Enum<?> byName(String name, boolean ignoreCase) {
+        if (name == null) {
+            return null;
+        }
+        return ignoreCase ? this.byNameIgnoreCase.get(name.toLowerCase(Locale.ROOT)) : this.byName.get(name);
+    }
+
+    public boolean hasName(String name, boolean ignoreCase) {
+        return this.byName(name, ignoreCase) != null;
+    }
+
+    private static PropertyDescriptor[] readableProperties(Class<?> enumClass) {
+        try {
+            return Arrays.stream(Introspector.getBeanInfo(enumClass).getPropertyDescriptors())
+                    .filter(pd ->    pd.getReadMethod() != null
+                                  && !"class".equals(pd.getName())
+                                  && !"declaringClass".equals(pd.getName()))
+                    .sorted(Comparator.comparing(PropertyDescriptor::getName))
+                    .toArray(PropertyDescriptor[]::new);
+        } catch (IntrospectionException e) {
+            throw new IllegalStateException("Não foi possível inspecionar o enum " + enumClass.getName(), e);
+        }
+    }
+
+    /**
+     * Lê as propriedades da constante e, de passagem, indexa o texto da propriedade {@code value}. Uma propriedade
+     * que não pode ser lida falha aqui, na montagem, em vez de sumir do JSON.
+     */
+    private static Map<String, String> read(Enum<?> constant, PropertyDescriptor[] properties, Map<String, Enum<?>> byValue) {
+        Map<String, String> values = new LinkedHashMap<>(properties.length * 2);
+        for (PropertyDescriptor property : properties) {
+            Method getter = property.getReadMethod();
+            String value;
+            try {
+                getter.trySetAccessible();
+                value = String.valueOf(getter.invoke(constant));
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                Throwable cause = e instanceof InvocationTargetException ? e.getCause() : e;
+                throw new IllegalStateException("Não foi possível ler a propriedade " + property.getName() + " de "
+                        + constant.getDeclaringClass().getName() + "." + constant.name(), cause);
+            }
+            values.put(property.getName(), value);
+            if (VALUE_PROPERTY.equals(property.getName())) {
+                byValue.putIfAbsent(value, constant);
+            }
+        }
+        return values;
+    }
+
+    private static String serialize(Enum<?> constant, Map<String, String> values, boolean htmlSafe) {
+        StringWriter text = new StringWriter();
+        try (JsonWriter out = new JsonWriter(text)) {
+            out.setHtmlSafe(htmlSafe);
+            out.beginObject();
+            out.name("name");
+            out.value(constant.toString());
+            for (Map.Entry<String, String> value : values.entrySet()) {
+                out.name(value.getKey());
+                out.value(value.getValue());
+            }
+            out.endObject();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return text.toString();
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.sulimann.restclient.utils.json;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um DTO para ter um {@code TypeAdapter} gerado em tempo de compilação ({@code <Classe>_GsonAdapter}, no
+ * mesmo pacote) pelo processador do módulo {@code restclient-json-processor}, ativado pelo perfil
+ * {@code json-adapters}. O adapter lê e escreve os campos direto, sem reflexão, e é usado por todo Gson do
+ * {@link JSONUtilitiesV2} através do {@link GeneratedAdapterFactory}. Sem o perfil o DTO continua com o
+ * adapter reflexivo do Gson.
+ * <p>
+ * O DTO precisa de construtor sem argumentos visível no pacote e de campos não privados ou com getter e setter
+ * (escritos à mão ou pelo Lombok). {@code @SerializedName} e {@code @Expose} são respeitados.
+ */
+@Documented
+@Target({ ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface GenerateGsonAdapter {
+
+}
@@ -0,0 +1,74 @@
+package com.sulimann.restclient.utils.json;
+
+import java.lang.reflect.Constructor;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Entrega ao Gson os adapters gerados para as classes com {@link GenerateGsonAdapter}. O adapter é localizado
+ * pelo nome ({@code pacote.Externa_Interna_GsonAdapter}) uma vez por classe; se não existir, porque o
+ * processador não rodou, o Gson segue com o adapter reflexivo.
+ * <p>
+ * Em imagens nativas os {@code *_GsonAdapter} precisam estar registrados para reflexão, só pelo construtor.
+ */
+public final class GeneratedAdapterFactory implements TypeAdapterFactory {
+
+    static final String SUFFIX = "_GsonAdapter";
+
+    private static final ConcurrentMap<Class<?>, Optional<Constructor<?>>> CONSTRUCTORS = new ConcurrentHashMap<>();
+
+    private final boolean exposeOnly;
+
+    /**
+     * @param exposeOnly o Gson exclui campos sem {@code @Expose}; repassado aos adapters gerados.
+     */
+    public GeneratedAdapterFactory(boolean exposeOnly) {
+        this.exposeOnly = exposeOnly;
+    }
+
+    public static boolean hasAdapter(Class<?> type) {
+        return constructor(type) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (!rawType.isAnnotationPresent(GenerateGsonAdapter.class)) {
+            return null;
+        }
+        Constructor<?> constructor = constructor(rawType);
+        if (constructor == null) {
+            return null;
+        }
+        try {
+            return (TypeAdapter<T>) constructor.newInstance(gson, this.exposeOnly);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Não foi possível criar o adapter gerado de " + rawType.getName(), e);
+        }
+    }
+
+    private static Constructor<?> constructor(Class<?> type) {
+        Optional<Constructor<?>> cached = CONSTRUCTORS.get(type);
+        if (cached == null) {
+            cached = CONSTRUCTORS.computeIfAbsent(type, GeneratedAdapterFactory::lookup);
+        }
+        return cached.orElse(null);
+    }
+
+    private static Optional<Constructor<?>> lookup(Class<?> type) {
+        try {
+            Class<?> adapter = Class.forName(type.getName().replace('$', '_') + SUFFIX, false, type.getClassLoader());
+            return Optional.of(adapter.getConstructor(Gson.class, boolean.class));
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            return Optional.empty();
+        }
+    }
+
+}
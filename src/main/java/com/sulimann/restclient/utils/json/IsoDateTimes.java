@@ -0,0 +1,284 @@
+package com.sulimann.restclient.utils.json;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Leitura e escrita dos formatos de data do {@link JSONUtilitiesV2}. O caso comum (ano de quatro dígitos,
+ * campos no intervalo normal) é tratado à mão, direto nos caracteres; o resto cai nos formatadores estáticos,
+ * que dão o mesmo resultado de antes, só que mais devagar.
+ */
+final class IsoDateTimes {
+
+    static final String DATE_PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
+    static final DateTimeFormatter LOCAL_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    static final DateTimeFormatter LOCAL_DATE_TIME = DateTimeFormatter.ofPattern(DATE_PATTERN);
+    static final DateTimeFormatter OFFSET_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZZZ");
+
+    private static final int DATE_LENGTH = 10;
+    private static final int DATE_TIME_LENGTH = 19;
+
+    private IsoDateTimes() {
+        throw new AssertionError("Não é permitido instanciar esta classe.");
+    }
+
+    static String formatLocalDate(LocalDate date) {
+        int year = date.getYear();
+        if (year < 1 || year > 9999) {
+            return LOCAL_DATE.format(date);
+        }
+        char[] text = new char[DATE_LENGTH];
+        writeDate(text, year, date.getMonthValue(), date.getDayOfMonth());
+        return new String(text);
+    }
+
+    static String formatLocalDateTime(LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (year < 1 || year > 9999) {
+            return LOCAL_DATE_TIME.format(dateTime);
+        }
+        char[] text = new char[DATE_TIME_LENGTH];
+        writeDateTime(text, dateTime);
+        return new String(text);
+    }
+
+    /**
+     * Mesmo texto de {@code yyyy-MM-dd'T'HH:mm:ss.SSSZZZ}: milissegundos e deslocamento sem dois-pontos ({@code +0000}).
+     */
+    static String formatOffsetDateTime(OffsetDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (year < 1 || year > 9999) {
+            return OFFSET_DATE_TIME.format(dateTime);
+        }
+        char[] text = new char[DATE_TIME_LENGTH + 9];
+        writeDateTime(text, dateTime.toLocalDateTime());
+        text[19] = '.';
+        int millis = dateTime.getNano() / 1_000_000;
+        text[20] = (char) ('0' + millis / 100);
+        writeTwoDigits(text, 21, millis % 100);
+        int offsetMinutes = dateTime.getOffset().getTotalSeconds() / 60;
+        text[23] = offsetMinutes < 0 ? '-' : '+';
+        offsetMinutes = Math.abs(offsetMinutes);
+        writeTwoDigits(text, 24, offsetMinutes / 60);
+        writeTwoDigits(text, 26, offsetMinutes % 60);
+        return new String(text);
+    }
+
+    /**
+     * Equivale a {@code yyyy-MM-dd} com o resolvedor padrão: dia além do fim do mês vira o último dia.
+     */
+    static LocalDate parseLocalDate(String text) {
+        if (text.length() == DATE_LENGTH && isDateShape(text)) {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 2);
+            int day = digits(text, 8, 2);
+            if (year >= 1 && month >= 1 && month <= 12 && day >= 1 && day <= 31) {
+                return LocalDate.of(year, month, Math.min(day, Month.of(month).length(Year.isLeap(year))));
+            }
+        }
+        return LocalDate.parse(text, LOCAL_DATE);
+    }
+
+    static LocalDate localDate(String year, String month, String day) {
+        return parseLocalDate(year.concat("-")
+                .concat(String.format("%02d", Integer.parseInt(month)))
+                .concat("-")
+                .concat(String.format("%02d", Integer.parseInt(day))));
+    }
+
+    static LocalDateTime parseLocalDateTime(String text) {
+        if (text.length() == DATE_TIME_LENGTH) {
+            LocalDateTime dateTime = fastDateTime(text, true);
+            if (dateTime != null) {
+                return dateTime;
+            }
+        }
+        return LocalDateTime.parse(text, LOCAL_DATE_TIME);
+    }
+
+    /**
+     * Aceita o {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} e também o deslocamento sem dois-pontos que
+     * {@link #formatOffsetDateTime} escreve.
+     */
+    static OffsetDateTime parseOffsetDateTime(String text) {
+        OffsetDateTime dateTime = fastOffsetDateTime(text);
+        if (dateTime != null) {
+            return dateTime;
+        }
+        try {
+            return OffsetDateTime.parse(text, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        } catch (RuntimeException e) {
+            return OffsetDateTime.parse(text, OFFSET_DATE_TIME);
+        }
+    }
+
+    /**
+     * Como {@link SimpleDateFormat} com {@value #DATE_PATTERN} no fuso padrão, inclusive ignorando o que vier
+     * depois dos segundos. Datas fora do calendário gregoriano moderno usam o próprio {@link SimpleDateFormat}.
+     * <p>
+     * O deslocamento vem do {@link TimeZone}, como no {@link SimpleDateFormat}: antes da primeira transição de um
+     * fuso o {@code java.time} usa a hora média local (LMT) e o {@link TimeZone} não.
+     */
+    static String formatDate(Date date) {
+        long millis = date.getTime();
+        long localSeconds = Math.floorDiv(millis + TimeZone.getDefault().getOffset(millis), 1000L);
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(localSeconds, 0, ZoneOffset.UTC);
+        if (dateTime.getYear() < 1600 || dateTime.getYear() > 9999) {
+            return new SimpleDateFormat(DATE_PATTERN).format(date);
+        }
+        char[] text = new char[DATE_TIME_LENGTH];
+        writeDateTime(text, dateTime);
+        return new String(text);
+    }
+
+    static Date parseDate(String text) throws ParseException {
+        if (text.length() == DATE_TIME_LENGTH || (text.length() > DATE_TIME_LENGTH && !isDigit(text.charAt(DATE_TIME_LENGTH)))) {
+            LocalDateTime dateTime = fastDateTime(text, false);
+            if (dateTime != null && dateTime.getYear() >= 1600) {
+                TimeZone zone = TimeZone.getDefault();
+                ZonedDateTime zoned = dateTime.atZone(zone.toZoneId()).withLaterOffsetAtOverlap();
+                long millis = zoned.toInstant().toEpochMilli();
+                if (zone.getOffset(millis) == zoned.getOffset().getTotalSeconds() * 1000) {
+                    return new Date(millis);
+                }
+            }
+        }
+        return new SimpleDateFormat(DATE_PATTERN).parse(text);
+    }
+
+    private static OffsetDateTime fastOffsetDateTime(String text) {
+        int length = text.length();
+        if (length < DATE_TIME_LENGTH + 1) {
+            return null;
+        }
+        LocalDateTime dateTime = fastDateTime(text, false);
+        if (dateTime == null) {
+            return null;
+        }
+        int position = DATE_TIME_LENGTH;
+        if (text.charAt(position) == '.') {
+            int start = ++position;
+            int nanos = 0;
+            while (position < length && position - start < 9 && isDigit(text.charAt(position))) {
+                nanos = nanos * 10 + text.charAt(position++) - '0';
+            }
+            int fractionDigits = position - start;
+            if (fractionDigits == 0) {
+                return null;
+            }
+            for (int i = fractionDigits; i < 9; i++) {
+                nanos *= 10;
+            }
+            dateTime = dateTime.withNano(nanos);
+        }
+        ZoneOffset offset = fastOffset(text, position);
+        return offset != null ? OffsetDateTime.of(dateTime, offset) : null;
+    }
+
+    private static ZoneOffset fastOffset(String text, int position) {
+        int remaining = text.length() - position;
+        if (remaining == 1 && text.charAt(position) == 'Z') {
+            return ZoneOffset.UTC;
+        }
+        if (remaining != 5 && remaining != 6) {
+            return null;
+        }
+        char sign = text.charAt(position);
+        if (sign != '+' && sign != '-') {
+            return null;
+        }
+        int hours = digits(text, position + 1, 2);
+        int minutesAt = position + 3;
+        if (remaining == 6) {
+            if (text.charAt(minutesAt) != ':') {
+                return null;
+            }
+            minutesAt++;
+        }
+        int minutes = digits(text, minutesAt, 2);
+        if (hours < 0 || hours > 18 || minutes < 0 || minutes > 59) {
+            return null;
+        }
+        return sign == '+' ? ZoneOffset.ofHoursMinutes(hours, minutes) : ZoneOffset.ofHoursMinutes(-hours, -minutes);
+    }
+
+    /**
+     * Data e hora dos primeiros 19 caracteres, ou {@code null} se fugirem do formato ou dos intervalos normais.
+     * Datas inexistentes ({@code 02-30}) também voltam {@code null} para o caminho lento decidir.
+     */
+    private static LocalDateTime fastDateTime(String text, boolean exact) {
+        if ((exact && text.length() != DATE_TIME_LENGTH) || !isDateShape(text)
+                || text.charAt(10) != 'T' || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return null;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = digits(text, 17, 2);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second);
+    }
+
+    private static boolean isDateShape(String text) {
+        return text.length() >= DATE_LENGTH && text.charAt(4) == '-' && text.charAt(7) == '-';
+    }
+
+    /**
+     * Valor dos {@code count} dígitos a partir de {@code start}, ou {@code -1} se algum não for dígito.
+     */
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static void writeDateTime(char[] text, LocalDateTime dateTime) {
+        writeDate(text, dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth());
+        text[10] = 'T';
+        writeTwoDigits(text, 11, dateTime.getHour());
+        text[13] = ':';
+        writeTwoDigits(text, 14, dateTime.getMinute());
+        text[16] = ':';
+        writeTwoDigits(text, 17, dateTime.getSecond());
+    }
+
+    private static void writeDate(char[] text, int year, int month, int day) {
+        writeTwoDigits(text, 0, year / 100);
+        writeTwoDigits(text, 2, year % 100);
+        text[4] = '-';
+        writeTwoDigits(text, 5, month);
+        text[7] = '-';
+        writeTwoDigits(text, 8, day);
+    }
+
+    private static void writeTwoDigits(char[] text, int position, int value) {
+        text[position] = (char) ('0' + value / 10);
+        text[position + 1] = (char) ('0' + value % 10);
+    }
+
+}
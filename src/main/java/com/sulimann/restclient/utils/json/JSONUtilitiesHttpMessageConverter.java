@@ -0,0 +1,97 @@
+package com.sulimann.restclient.utils.json;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.GsonHttpMessageConverter;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotation;
+
+/**
+ * Conversor JSON do {@code RestTemplate}, {@code RestClient} e Spring MVC usando o {@link com.google.gson.Gson}
+ * de um {@link JSONUtilitiesV2}, para que as chamadas HTTP usem os mesmos adaptadores (datas, enums, byte[])
+ * do resto do projeto. Lê e escreve direto nos streams da mensagem com reader/writer UTF-8, sem {@code String}.
+ * <p>
+ * Só atende {@code application/json}. {@link ProblemDetail}, tipos do próprio Spring (actuator, etc.) e classes
+ * com anotações do Jackson (ex.: o {@code @JsonFormat} do {@code ErroResponse}) ficam com o Jackson, que as
+ * conhece; o Gson as ignoraria e mudaria o formato da resposta.
+ */
+public class JSONUtilitiesHttpMessageConverter extends GsonHttpMessageConverter {
+
+    private static final String SPRING_PACKAGE = "org.springframework.";
+
+    private static final ClassValue<Boolean> JACKSON_ANNOTATED = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return isJacksonAnnotated(type);
+        }
+    };
+
+    private final JSONUtilitiesV2 json;
+
+    public JSONUtilitiesHttpMessageConverter(JSONUtilitiesV2 json) {
+        super(json.gson());
+        this.json = json;
+        setSupportedMediaTypes(List.of(MediaType.APPLICATION_JSON));
+    }
+
+    public JSONUtilitiesV2 json() {
+        return this.json;
+    }
+
+    /**
+     * Entra logo antes do conversor do Jackson, depois dos de {@code String} e {@code byte[]}: respostas lidas
+     * como texto continuam chegando cruas.
+     */
+    public List<HttpMessageConverter<?>> registerIn(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof AbstractJackson2HttpMessageConverter) {
+                converters.add(i, this);
+                return converters;
+            }
+        }
+        converters.add(this);
+        return converters;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return !ProblemDetail.class.isAssignableFrom(clazz) && !clazz.getName().startsWith(SPRING_PACKAGE)
+                && !JACKSON_ANNOTATED.get(clazz);
+    }
+
+    private static boolean isJacksonAnnotated(Class<?> type) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            if (hasJacksonAnnotation(current.getDeclaredAnnotations())) {
+                return true;
+            }
+            for (Field field : current.getDeclaredFields()) {
+                if (hasJacksonAnnotation(field.getDeclaredAnnotations())) {
+                    return true;
+                }
+            }
+            for (Method method : current.getDeclaredMethods()) {
+                if (hasJacksonAnnotation(method.getDeclaredAnnotations())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasJacksonAnnotation(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation.annotationType().isAnnotationPresent(JacksonAnnotation.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -1,48 +1,83 @@
 package com.sulimann.restclient.utils.json;
 
-import java.beans.Introspector;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
 import java.lang.reflect.Type;
-import java.text.SimpleDateFormat;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
-import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
 
+import javax.xml.datatype.DatatypeConfigurationException;
 import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.XMLGregorianCalendar;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.ToNumberPolicy;
+import com.google.gson.ToNumberStrategy;
 import com.google.gson.TypeAdapter;
 import com.google.gson.TypeAdapterFactory;
 import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
-
+import com.google.gson.stream.MalformedJsonException;
+
+/**
+ * Configuração do Gson do projeto. Os {@code withParse*}/{@code noParse*} alteram esta instância e a devolvem,
+ * para encadear; com {@link BuildType#EAGER} o Gson passa a valer na hora, com {@link BuildType#LAZY} só no
+ * próximo {@link #builder()} ou chamada {@code EAGER}. Antes disso, {@link #create()} usa um Gson padrão,
+ * equivalente a {@code new Gson()}.
+ * <p>
+ * Cada combinação de recursos é um bit de uma máscara e tem um único {@link Gson} na JVM: instâncias com a
+ * mesma configuração compartilham o mesmo Gson já aquecido (cache de type adapters incluso), e ligar ou
+ * desligar um recurso só troca de Gson, sem recriar nada.
+ */
 public final class JSONUtilitiesV2 {
 
-    private Gson gson;
-    private GsonBuilder gsonBuilder;
-    private Boolean parseExpose;
-    private Boolean parseDate;
-    private Boolean parseLocalDate;
-    private Boolean parseLocalDateTime;
-    private Boolean parseXMLGregorianCalendar;
-    private Boolean parseByteArray;
-    private Boolean parseEnum;
+    private static final int EXPOSE = 1;
+    private static final int DATE = 1 << 1;
+    private static final int LOCAL_DATE = 1 << 2;
+    private static final int LOCAL_DATE_TIME = 1 << 3;
+    private static final int XML_GREGORIAN_CALENDAR = 1 << 4;
+    private static final int BYTE_ARRAY = 1 << 5;
+    private static final int ENUM = 1 << 6;
+
+    private static final AtomicReferenceArray<Gson> GSONS = new AtomicReferenceArray<>(ENUM << 1);
+
+    /**
+     * O {@code new Gson()} de antes do primeiro {@link #builder()}, mais os adapters gerados, que só valem para
+     * classes com {@link GenerateGsonAdapter} e escrevem o mesmo JSON do adapter reflexivo.
+     */
+    private static final Gson DEFAULT_GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new GeneratedAdapterFactory(false))
+            .create();
+
+    private static final Type MAP_TYPE = new TypeToken<Map<String, Object>>() {}.getType();
+
+    private int features;
+    private volatile Gson gson = DEFAULT_GSON;
 
     public static enum BuildType {
         EAGER,
@@ -50,17 +85,9 @@ public final class JSONUtilitiesV2 {
     }
 
     private JSONUtilitiesV2() {
-        this.parseExpose = Boolean.FALSE;
-        this.parseDate = Boolean.FALSE;
-        this.parseLocalDate = Boolean.FALSE;
-        this.parseLocalDateTime = Boolean.FALSE;
-        this.parseXMLGregorianCalendar = Boolean.FALSE;
-        this.parseByteArray = Boolean.FALSE;
-        this.parseEnum = Boolean.FALSE;
-        this.gson = new Gson();
     }
 
-    public static synchronized JSONUtilitiesV2 create() {
+    public static JSONUtilitiesV2 create() {
         return new JSONUtilitiesV2();
     }
 
@@ -68,79 +95,320 @@ public final class JSONUtilitiesV2 {
         return this.gson;
     }
 
+    /**
+     * Monta o JSON num buffer reaproveitado pela thread (ver {@link JsonBuffers}); só a {@code String} final é
+     * alocada.
+     */
     public String toJson(Object src) {
-        return this.gson.toJson(src);
+        JsonBuffers.Text buffer = JsonBuffers.text();
+        try {
+            this.write(src, buffer);
+            return buffer.toString();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Escreve direto no {@code out}, sem {@code String} intermediária.
+     */
+    public void toJson(Object src, Appendable out) {
+        if (out instanceof Writer writer) {
+            this.write(src, writer);
+        } else {
+            this.gson().toJson(src, out);
+        }
+    }
+
+    /**
+     * Escreve em UTF-8 direto no {@code stream}, por um buffer da thread (ver {@link JsonBuffers}). O stream recebe
+     * um flush e não é fechado.
+     */
+    public void toJson(Object src, OutputStream stream) {
+        JsonBuffers.Utf8 writer = JsonBuffers.utf8(stream);
+        try {
+            this.write(src, writer);
+            writer.flush();
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        } finally {
+            writer.release();
+        }
     }
 
     public <T> T fromJson(String json, Class<T> classOfT) {
-        return this.gson.fromJson(json, classOfT);
+        return this.gson().fromJson(json, classOfT);
     }
 
     public <T> T fromJson(String json, Type type) {
-        return this.gson.fromJson(json, type);
+        return this.gson().fromJson(json, type);
     }
 
     public Map<String, Object> jsonToMap(String json) {
-        return this.gson.fromJson(json, new TypeToken<Map<String, Object>>() {}.getType());
+        return this.gson().fromJson(json, MAP_TYPE);
+    }
+
+    /**
+     * Como {@link #jsonToMap(String)}, mas com os números pela estratégia dada no lugar de {@code Double}
+     * ({@link ToNumberPolicy#LONG_OR_DOUBLE} mantém IDs inteiros exatos; {@link ToNumberPolicy#BIG_DECIMAL}
+     * também valores monetários). Arrays só de {@code Long} ou só de {@code Double} vêm como
+     * {@link PrimitiveLists}, e nomes de campo repetidos compartilham a mesma {@code String}.
+     */
+    public Map<String, Object> jsonToMap(String json, ToNumberStrategy numbers) {
+        if (json == null) {
+            return null;
+        }
+        JsonReader in = this.gson().newJsonReader(new StringReader(json));
+        in.setLenient(true);
+        try {
+            JsonToken first;
+            try {
+                first = in.peek();
+            } catch (EOFException e) {
+                return null;
+            }
+            Map<String, Object> map;
+            if (first == JsonToken.NULL) {
+                in.nextNull();
+                map = null;
+            } else if (first == JsonToken.BEGIN_OBJECT) {
+                map = new NumericMapReader(numbers).readObject(in);
+            } else {
+                throw new JsonSyntaxException("Esperado um objeto JSON mas era " + first + " em " + in.getPath());
+            }
+            if (in.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("JSON não foi consumido inteiro em " + in.getPath());
+            }
+            return map;
+        } catch (EOFException | MalformedJsonException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Extrai só os caminhos da consulta, numa passada, parando assim que todos estiverem completos.
+     */
+    public JsonPathResult extract(String json, JsonPathQuery query) {
+        return this.extract(new StringReader(json), query);
+    }
+
+    /**
+     * Como {@link #extract(String, JsonPathQuery)}; o {@code reader} não é fechado e pode ficar com o resto do
+     * documento por ler.
+     */
+    public JsonPathResult extract(Reader reader, JsonPathQuery query) {
+        try {
+            return new JsonPathExtractor(this.gson(), query).extract(this.gson().newJsonReader(reader));
+        } catch (MalformedJsonException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Stream em UTF-8, não é fechado.
+     */
+    public JsonPathResult extract(InputStream stream, JsonPathQuery query) {
+        return this.extract(new InputStreamReader(stream, StandardCharsets.UTF_8), query);
+    }
+
+    /**
+     * Lê NDJSON (um registro por linha) sob demanda. O {@code reader} não é fechado, nem quando o stream é.
+     */
+    public <T> Stream<T> fromJsonLines(Reader reader, Type type) {
+        return JsonLines.stream(this.gson(), reader, this.adapter(type));
+    }
+
+    /**
+     * Stream em UTF-8, não é fechado.
+     */
+    public <T> Stream<T> fromJsonLines(InputStream stream, Type type) {
+        return this.fromJsonLines(new InputStreamReader(stream, StandardCharsets.UTF_8), type);
+    }
+
+    /**
+     * Arquivo em UTF-8, fechado junto com o stream: use em try-with-resources.
+     */
+    public <T> Stream<T> fromJsonLines(Path path, Type type) {
+        Reader reader;
+        try {
+            reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+        return this.<T>fromJsonLines(reader, type).onClose(() -> closeQuietly(reader));
+    }
+
+    /**
+     * Como {@link #fromJsonLines(Path, Type)}, mas dividindo o arquivo em trechos terminados em quebra de linha e
+     * decodificando os trechos em paralelo no pool comum. Cada registro precisa caber numa linha; a ordem do
+     * arquivo só é mantida por operações ordenadas como {@code forEachOrdered} e {@code toList}.
+     */
+    public <T> Stream<T> fromJsonLinesParallel(Path path, Type type) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            FileChannel opened = channel;
+            return JsonLines.<T>parallel(this.gson(), channel, this.adapter(type)).onClose(() -> closeQuietly(opened));
+        } catch (IOException e) {
+            if (channel != null) {
+                closeQuietly(channel);
+            }
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Escreve um registro por linha, em UTF-8 com buffer. O {@code stream} recebe um flush e não é fechado.
+     *
+     * @return quantidade de registros escritos
+     */
+    public long toJsonLines(Stream<?> records, OutputStream stream) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        try {
+            return JsonLines.write(this.gson(), records, writer);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Cria ou sobrescreve o arquivo.
+     */
+    public long toJsonLines(Stream<?> records, Path path) {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            return JsonLines.write(this.gson(), records, writer);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Passa a usar o Gson da configuração atual, aplicando o que foi ligado ou desligado com {@link BuildType#LAZY}.
+     */
+    public synchronized JSONUtilitiesV2 builder() {
+        this.gson = gsonFor(this.features);
+        return this;
+    }
+
+    private JSONUtilitiesV2 set(int feature, boolean enabled, BuildType buildType) {
+        synchronized (this) {
+            this.features = enabled ? this.features | feature : this.features & ~feature;
+        }
+        return BuildType.EAGER.equals(buildType) ? this.builder() : this;
+    }
+
+    private static Gson gsonFor(int features) {
+        Gson gson = GSONS.get(features);
+        if (gson == null) {
+            GSONS.compareAndSet(features, null, configGsonBuilder(features).create());
+            gson = GSONS.get(features);
+        }
+        return gson;
+    }
+
+    /**
+     * Pelo {@link RawJsonWriter}, que deixa adapters como o de Base64 escreverem em pedaços.
+     */
+    private void write(Object src, Writer writer) {
+        JsonWriter out = new RawJsonWriter(writer);
+        if (src == null) {
+            this.gson().toJson(JsonNull.INSTANCE, out);
+        } else {
+            this.gson().toJson(src, src.getClass(), out);
+        }
+    }
+
+    private static boolean has(int features, int feature) {
+        return (features & feature) != 0;
     }
 
-    public JSONUtilitiesV2 builder() {
-        return this.configGsonBuilder();
+    @SuppressWarnings("unchecked")
+    private <T> TypeAdapter<T> adapter(Type type) {
+        return (TypeAdapter<T>) this.gson().getAdapter(TypeToken.get(type));
     }
 
-    private JSONUtilitiesV2 configGsonBuilder() {
-        this.gsonBuilder = new GsonBuilder();
-        if (this.parseExpose) {
-            this.gsonBuilder = this.gsonBuilder
-                                   .excludeFieldsWithoutExposeAnnotation();
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            throw new JsonIOException(e);
         }
-        if (this.parseDate) {
-            this.gsonBuilder = this.gsonBuilder
-                                   .registerTypeAdapter(Date.class, new DateSerializer())
-                                   .registerTypeAdapter(Date.class, new DateDeserializer());
+    }
+
+    private static GsonBuilder configGsonBuilder(int features) {
+        GsonBuilder gsonBuilder = new GsonBuilder();
+        if (has(features, EXPOSE)) {
+            gsonBuilder = gsonBuilder
+                              .excludeFieldsWithoutExposeAnnotation();
         }
-        if (this.parseLocalDate) {
-            this.gsonBuilder = this.gsonBuilder
-                                   .registerTypeAdapter(LocalDate.class, new LocalDateSerializer())
-                                   .registerTypeAdapter(LocalDate.class, new LocalDateDeserializer());
+        if (has(features, DATE)) {
+            gsonBuilder = gsonBuilder
+                              .registerTypeAdapter(Date.class, new DateAdapter());
         }
-        if (this.parseLocalDateTime) {
-            this.gsonBuilder = this.gsonBuilder
-                                   .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeSerializer())
-                                   .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeDeserializer());
+        if (has(features, LOCAL_DATE)) {
+            gsonBuilder = gsonBuilder
+                              .registerTypeAdapter(LocalDate.class, new LocalDateAdapter());
         }
-        if (this.parseXMLGregorianCalendar) {
-            this.gsonBuilder = this.gsonBuilder
-                                   .registerTypeAdapter(XMLGregorianCalendar.class, new XMLGregorianCalendarSerializer())
-                                   .registerTypeAdapter(XMLGregorianCalendar.class, new XMLGregorianCalendarDeserializer());
+        if (has(features, LOCAL_DATE_TIME)) {
+            gsonBuilder = gsonBuilder
+                              .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter());
         }
-        if (this.parseByteArray) {
-            this.gsonBuilder = this.gsonBuilder
-                                   .registerTypeHierarchyAdapter(byte[].class, new ByteArraySerializer())
-                                   .registerTypeHierarchyAdapter(byte[].class, new ByteArrayDeserializer())
-                                   .disableHtmlEscaping();
+        if (has(features, XML_GREGORIAN_CALENDAR)) {
+            gsonBuilder = gsonBuilder
+                              .registerTypeHierarchyAdapter(XMLGregorianCalendar.class, new XMLGregorianCalendarAdapter());
         }
-        this.gsonBuilder = this.gsonBuilder.registerTypeAdapter(OffsetDateTime.class, new OffsetDateTimeSerializer());
-        this.gsonBuilder = this.gsonBuilder.registerTypeAdapter(OffsetDateTime.class, new OffsetDateTimeDeserializer());
+        if (has(features, BYTE_ARRAY)) {
+            gsonBuilder = gsonBuilder
+                              .registerTypeAdapter(byte[].class, new Base64Adapters.ByteArrayAdapter())
+                              .disableHtmlEscaping();
+        }
+        gsonBuilder = gsonBuilder.registerTypeAdapter(OffsetDateTime.class, new OffsetDateTimeAdapter());
 
-        if (this.parseEnum) {
-            this.gsonBuilder = this.gsonBuilder
-                                   .registerTypeAdapterFactory(new EnumAdapterFactory());
+        if (has(features, ENUM)) {
+            gsonBuilder = gsonBuilder
+                              .registerTypeAdapterFactory(new EnumAdapterFactory());
+        }
+        return gsonBuilder.registerTypeAdapterFactory(new GeneratedAdapterFactory(has(features, EXPOSE)));
+    }
+
+    /**
+     * Texto do próximo valor escalar, {@code null} para {@code null} e para objetos ou arrays, que são descartados.
+     */
+    private static String nextScalar(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        switch (token) {
+            case STRING:
+            case NUMBER:
+                return in.nextString();
+            case BOOLEAN:
+                return Boolean.toString(in.nextBoolean());
+            case NULL:
+                in.nextNull();
+                return null;
+            default:
+                in.skipValue();
+                return null;
         }
-        this.gson = this.gsonBuilder.create();
-        return this;
     }
 
     public JSONUtilitiesV2 noParseExpose() {
-        return this.noParseDate(BuildType.EAGER);
+        return this.noParseExpose(BuildType.EAGER);
     }
 
     public JSONUtilitiesV2 noParseExpose(BuildType buildType) {
-        this.parseExpose = Boolean.FALSE;
-        if (BuildType.EAGER.equals(buildType)) {
-            return this.configGsonBuilder();
-        }
-        return this;
+        return this.set(EXPOSE, false, buildType);
+    }
+
+    public JSONUtilitiesV2 withParseExpose() {
+        return this.withParseExpose(BuildType.EAGER);
+    }
+
+    public JSONUtilitiesV2 withParseExpose(BuildType buildType) {
+        return this.set(EXPOSE, true, buildType);
     }
 
     public JSONUtilitiesV2 noParseDate() {
@@ -148,23 +416,15 @@ public final class JSONUtilitiesV2 {
     }
 
     public JSONUtilitiesV2 noParseDate(BuildType buildType) {
-        this.parseDate = Boolean.FALSE;
-        if (BuildType.EAGER.equals(buildType)) {
-            return this.configGsonBuilder();
-        }
-        return this;
+        return this.set(DATE, false, buildType);
     }
 
     public JSONUtilitiesV2 withParseDate() {
-        return this.noParseDate(BuildType.EAGER);
+        return this.withParseDate(BuildType.EAGER);
     }
 
     public JSONUtilitiesV2 withParseDate(BuildType buildType) {
-        this.parseDate = Boolean.TRUE;
-        if (BuildType.EAGER.equals(buildType)) {
-            return this.configGsonBuilder();
-        }
-        return this;
+        return this.set(DATE, true, buildType);
     }
 
     public JSONUtilitiesV2 noParseLocalDate() {
@@ -172,23 +432,15 @@ public final class JSONUtilitiesV2 {
     }
 
     public JSONUtilitiesV2 noParseLocalDate(BuildType buildType) {
-        this.parseLocalDate = Boolean.FALSE;
-        if (BuildType.EAGER.equals(buildType)) {
-            return this.configGsonBuilder();
-        }
-        return this;
+        return this.set(LOCAL_DATE, false, buildType);
     }
 
     public JSONUtilitiesV2 withParseLocalDate() {
         return this.withParseLocalDate(BuildType.EAGER);
     }
 
-    public JSONUtilitiesV2 withParseLocalDate(BuildType builderType) {
-        this.parseLocalDate = Boolean.TRUE;
-        if (BuildType.EAGER.equals(builderType)) {
-            return this.configGsonBuilder();
-        }
-        return this;
+    public JSONUtilitiesV2 withParseLocalDate(BuildType buildType) {
+        return this.set(LOCAL_DATE, true, buildType);
     }
 
     public JSONUtilitiesV2 noParseLocalDateTime() {
@@ -196,114 +448,87 @@ public final class JSONUtilitiesV2 {
     }
 
     public JSONUtilitiesV2 noParseLocalDateTime(BuildType buildType) {
-        this.parseLocalDateTime = Boolean.FALSE;
-        if (BuildType.EAGER.equals(buildType)) {
-            return this.configGsonBuilder();
-        }
-        return this;
+        return this.set(LOCAL_DATE_TIME, false, buildType);
     }
 
     public JSONUtilitiesV2 withParseLocalDateTime() {
-        return this.withParseLocalDate(BuildType.EAGER);
+        return this.withParseLocalDateTime(BuildType.EAGER);
     }
 
-    public JSONUtilitiesV2 withParseLocalDateTime(BuildType builderType) {
-        this.parseLocalDateTime = Boolean.TRUE;
-        if (BuildType.EAGER.equals(builderType)) {
-            return this.configGsonBuilder();
-        }
-        return this;
+    public JSONUtilitiesV2 withParseLocalDateTime(BuildType buildType) {
+        return this.set(LOCAL_DATE_TIME, true, buildType);
     }
 
     public JSONUtilitiesV2 noParseXMLGregorianCalendar() {
         return this.noParseXMLGregorianCalendar(BuildType.EAGER);
     }
 
-    public JSONUtilitiesV2 noParseXMLGregorianCalendar(BuildType builderType) {
-        this.parseXMLGregorianCalendar = Boolean.FALSE;
-        if (BuildType.EAGER.equals(builderType)) {
-            return this.configGsonBuilder();
-        }
-        return this;
+    public JSONUtilitiesV2 noParseXMLGregorianCalendar(BuildType buildType) {
+        return this.set(XML_GREGORIAN_CALENDAR, false, buildType);
     }
 
     public JSONUtilitiesV2 withParseXMLGregorianCalendar() {
         return this.withParseXMLGregorianCalendar(BuildType.EAGER);
     }
 
-    public JSONUtilitiesV2 withParseXMLGregorianCalendar(BuildType builderType) {
-        this.parseXMLGregorianCalendar = Boolean.TRUE;
-        if (BuildType.EAGER.equals(builderType)) {
-            return this.configGsonBuilder();
-        }
-        return this;
+    public JSONUtilitiesV2 withParseXMLGregorianCalendar(BuildType buildType) {
+        return this.set(XML_GREGORIAN_CALENDAR, true, buildType);
     }
 
     public JSONUtilitiesV2 noParseByteArray() {
         return this.noParseByteArray(BuildType.EAGER);
     }
 
-    public JSONUtilitiesV2 noParseByteArray(BuildType builderType) {
-        this.parseByteArray = Boolean.FALSE;
-        if (BuildType.EAGER.equals(builderType)) {
-            return this.configGsonBuilder();
-        }
-        return this;
+    public JSONUtilitiesV2 noParseByteArray(BuildType buildType) {
+        return this.set(BYTE_ARRAY, false, buildType);
     }
 
     public JSONUtilitiesV2 withParseByteArray() {
         return this.withParseByteArray(BuildType.EAGER);
     }
 
-    public JSONUtilitiesV2 withParseByteArray(BuildType builderType) {
-        this.parseByteArray = Boolean.TRUE;
-        if (BuildType.EAGER.equals(builderType)) {
-            return this.configGsonBuilder();
-        }
-        return this;
+    public JSONUtilitiesV2 withParseByteArray(BuildType buildType) {
+        return this.set(BYTE_ARRAY, true, buildType);
     }
 
     public JSONUtilitiesV2 noParseEnum() {
         return this.noParseEnum(BuildType.EAGER);
     }
 
-    public JSONUtilitiesV2 noParseEnum(BuildType builderType) {
-        this.parseEnum = Boolean.FALSE;
-        if (BuildType.EAGER.equals(builderType)) {
-            return this.configGsonBuilder();
-        }
-        return this;
+    public JSONUtilitiesV2 noParseEnum(BuildType buildType) {
+        return this.set(ENUM, false, buildType);
     }
 
     public JSONUtilitiesV2 withParseEnum() {
         return this.withParseEnum(BuildType.EAGER);
     }
 
-    public JSONUtilitiesV2 withParseEnum(BuildType builderType) {
-        this.parseEnum = Boolean.TRUE;
-        if (BuildType.EAGER.equals(builderType)) {
-            return this.configGsonBuilder();
-        }
-        return this;
+    public JSONUtilitiesV2 withParseEnum(BuildType buildType) {
+        return this.set(ENUM, true, buildType);
     }
 
-    public static class DateSerializer implements JsonSerializer<Date> {
+    /**
+     * {@code yyyy-MM-dd'T'HH:mm:ss} no fuso padrão, como o {@code SimpleDateFormat} que era criado a cada valor.
+     */
+    public static class DateAdapter extends TypeAdapter<Date> {
 
         @Override
-        public JsonElement serialize(Date date, Type type, JsonSerializationContext jsonSerializationContext) {
-            return new JsonPrimitive(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(date));
+        public void write(JsonWriter out, Date date) throws IOException {
+            if (date == null) {
+                out.nullValue();
+                return;
+            }
+            out.value(IsoDateTimes.formatDate(date));
         }
-    }
-
-    public static class DateDeserializer implements JsonDeserializer<Date> {
 
         @Override
-        public Date deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) {
-            try {
-                if (jsonElement instanceof JsonPrimitive) {
-                    return new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").parse(jsonElement.getAsString());
-                }
+        public Date read(JsonReader in) throws IOException {
+            String text = nextScalar(in);
+            if (text == null) {
                 return null;
+            }
+            try {
+                return IsoDateTimes.parseDate(text);
             } catch (Exception e) {
                 e.printStackTrace();
                 return null;
@@ -311,63 +536,53 @@ public final class JSONUtilitiesV2 {
         }
     }
 
-    public static class LocalDateSerializer implements JsonSerializer<LocalDate> {
+    /**
+     * {@code yyyy-MM-dd}. Também lê o objeto {@code {year, monthValue, dayOfMonth}} da serialização por reflexão.
+     */
+    public static class LocalDateAdapter extends TypeAdapter<LocalDate> {
 
         @Override
-        public JsonElement serialize(LocalDate localDate, Type type, JsonSerializationContext jsonSerializationContext) {
-            return new JsonPrimitive(localDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+        public void write(JsonWriter out, LocalDate localDate) throws IOException {
+            if (localDate == null) {
+                out.nullValue();
+                return;
+            }
+            out.value(IsoDateTimes.formatLocalDate(localDate));
         }
-    }
-
-    public static class LocalDateDeserializer implements JsonDeserializer<LocalDate> {
 
         @Override
-        public LocalDate deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) {
+        public LocalDate read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.BEGIN_OBJECT) {
+                return this.readObject(in);
+            }
+            String text = nextScalar(in);
+            if (text == null) {
+                return null;
+            }
             try {
-                if (jsonElement instanceof JsonPrimitive) {
-                    return LocalDate.parse(jsonElement.getAsString(), DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-                }
-                JsonObject jsonObject = (JsonObject) jsonElement;
-                return LocalDate.parse(  jsonObject
-                                         .get("year")
-                                         .getAsString()
-                                         .concat("-")
-                                         .concat(String.format(  "%02d"
-                                                               , Integer
-                                                                 .parseInt(jsonObject
-                                                                           .get("monthValue")
-                                                                           .getAsString())))
-                                         .concat("-")
-                                         .concat(String.format(  "%02d"
-                                                               , Integer
-                                                                 .parseInt(jsonObject
-                                                                           .get("dayOfMonth")
-                                                                           .getAsString())))
-                                       , DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+                return IsoDateTimes.parseLocalDate(text);
             } catch (Exception e) {
                 e.printStackTrace();
                 return null;
             }
         }
-    }
-
-    public static class LocalDateTimeSerializer implements JsonSerializer<LocalDateTime> {
-
-        @Override
-        public JsonElement serialize(LocalDateTime localDate, Type type, JsonSerializationContext jsonSerializationContext) {
-            return new JsonPrimitive(localDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss")));
-        }
-    }
 
-    public static class LocalDateTimeDeserializer implements JsonDeserializer<LocalDateTime> {
-
-        @Override
-        public LocalDateTime deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) {
-            try {
-                if (jsonElement instanceof JsonPrimitive) {
-                    return LocalDateTime.parse(jsonElement.getAsString(), DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"));
+        private LocalDate readObject(JsonReader in) throws IOException {
+            String year = null;
+            String month = null;
+            String day = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "year" -> year = nextScalar(in);
+                    case "monthValue" -> month = nextScalar(in);
+                    case "dayOfMonth" -> day = nextScalar(in);
+                    default -> in.skipValue();
                 }
-                return null;
+            }
+            in.endObject();
+            try {
+                return IsoDateTimes.localDate(year, month, day);
             } catch (Exception e) {
                 e.printStackTrace();
                 return null;
@@ -375,23 +590,28 @@ public final class JSONUtilitiesV2 {
         }
     }
 
-    public static class OffsetDateTimeSerializer implements JsonSerializer<OffsetDateTime> {
+    /**
+     * {@code yyyy-MM-dd'T'HH:mm:ss}, sem fração de segundo.
+     */
+    public static class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
 
         @Override
-        public JsonElement serialize(OffsetDateTime offsetLocalDate, Type type, JsonSerializationContext jsonSerializationContext) {
-            return new JsonPrimitive(offsetLocalDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZZZ")));
+        public void write(JsonWriter out, LocalDateTime localDateTime) throws IOException {
+            if (localDateTime == null) {
+                out.nullValue();
+                return;
+            }
+            out.value(IsoDateTimes.formatLocalDateTime(localDateTime));
         }
-    }
-
-    public static class OffsetDateTimeDeserializer implements JsonDeserializer<OffsetDateTime> {
 
         @Override
-        public OffsetDateTime deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) {
-            try {
-                if (jsonElement instanceof JsonPrimitive) {
-                    return OffsetDateTime.parse(jsonElement.getAsString(), DateTimeFormatter.ISO_OFFSET_DATE_TIME);
-                }
+        public LocalDateTime read(JsonReader in) throws IOException {
+            String text = nextScalar(in);
+            if (text == null) {
                 return null;
+            }
+            try {
+                return IsoDateTimes.parseLocalDateTime(text);
             } catch (Exception e) {
                 e.printStackTrace();
                 return null;
@@ -399,24 +619,28 @@ public final class JSONUtilitiesV2 {
         }
     }
 
-
-    public static class XMLGregorianCalendarSerializer implements JsonSerializer<XMLGregorianCalendar> {
+    /**
+     * Escreve {@code yyyy-MM-dd'T'HH:mm:ss.SSSZZZ} e lê ISO 8601 com deslocamento, com ou sem dois-pontos.
+     */
+    public static class OffsetDateTimeAdapter extends TypeAdapter<OffsetDateTime> {
 
         @Override
-        public JsonElement serialize(XMLGregorianCalendar xmlGregorianCalendar, Type type, JsonSerializationContext jsonSerializationContext) {
-            return new JsonPrimitive(xmlGregorianCalendar.toXMLFormat());
+        public void write(JsonWriter out, OffsetDateTime offsetDateTime) throws IOException {
+            if (offsetDateTime == null) {
+                out.nullValue();
+                return;
+            }
+            out.value(IsoDateTimes.formatOffsetDateTime(offsetDateTime));
         }
-    }
-
-    public static class XMLGregorianCalendarDeserializer implements JsonDeserializer<XMLGregorianCalendar> {
 
         @Override
-        public XMLGregorianCalendar deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) {
-            try {
-                if (jsonElement instanceof JsonPrimitive) {
-                    return DatatypeFactory.newInstance().newXMLGregorianCalendar(jsonElement.getAsString());
-                }
+        public OffsetDateTime read(JsonReader in) throws IOException {
+            String text = nextScalar(in);
+            if (text == null) {
                 return null;
+            }
+            try {
+                return IsoDateTimes.parseOffsetDateTime(text);
             } catch (Exception e) {
                 e.printStackTrace();
                 return null;
@@ -424,86 +648,106 @@ public final class JSONUtilitiesV2 {
         }
     }
 
-    private static class ByteArraySerializer implements JsonSerializer<byte[]> {
+    /**
+     * Formato léxico do XML Schema. A {@link DatatypeFactory} é procurada uma vez só: a busca passa pelo
+     * {@code ServiceLoader} e a implementação do JDK não guarda estado, então pode ser compartilhada.
+     */
+    public static class XMLGregorianCalendarAdapter extends TypeAdapter<XMLGregorianCalendar> {
 
-        @Override
-        public JsonElement serialize(byte[] src, Type typeOfSrc, JsonSerializationContext context) {
-            return new JsonPrimitive(Base64.getMimeEncoder().encodeToString(src));
+        private static final DatatypeFactory DATATYPE_FACTORY = newDatatypeFactory();
+
+        private static DatatypeFactory newDatatypeFactory() {
+            try {
+                return DatatypeFactory.newInstance();
+            } catch (DatatypeConfigurationException e) {
+                throw new IllegalStateException(e);
+            }
         }
-    }
 
-    private static class ByteArrayDeserializer implements JsonDeserializer<byte[]> {
+        @Override
+        public void write(JsonWriter out, XMLGregorianCalendar xmlGregorianCalendar) throws IOException {
+            if (xmlGregorianCalendar == null) {
+                out.nullValue();
+                return;
+            }
+            out.value(xmlGregorianCalendar.toXMLFormat());
+        }
 
         @Override
-        public byte[] deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
-            return Base64.getMimeDecoder().decode(json.getAsString());
+        public XMLGregorianCalendar read(JsonReader in) throws IOException {
+            String text = nextScalar(in);
+            if (text == null) {
+                return null;
+            }
+            try {
+                return DATATYPE_FACTORY.newXMLGregorianCalendar(text);
+            } catch (Exception e) {
+                e.printStackTrace();
+                return null;
+            }
         }
     }
 
+    /**
+     * Enums como objeto {@code {"name": ..., <propriedades>}}. O JSON de cada constante e os mapas de leitura vêm
+     * da {@link EnumTable} da classe, montada uma vez.
+     */
     public static class EnumAdapterFactory implements TypeAdapterFactory {
 
         @Override
         public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type) {
             Class<? super T> rawType = type.getRawType();
-            if (rawType.isEnum()) {
-                return new EnumTypeAdapter<>();
+            if (Enum.class.isAssignableFrom(rawType) && rawType != Enum.class) {
+                return new EnumTypeAdapter<>(EnumTable.of(rawType));
             }
             return null;
         }
 
         public class EnumTypeAdapter<T> extends TypeAdapter<T> {
 
+            private final EnumTable table;
+
+            public EnumTypeAdapter(EnumTable table) {
+                this.table = table;
+            }
+
             @Override
             public void write(JsonWriter out, T value) throws IOException {
-                if (value == null || !value.getClass().isEnum()) {
+                if (!(value instanceof Enum<?> constant)) {
                     out.nullValue();
                     return;
                 }
-                try {
-                    out.beginObject();
-                    out.name("name");
-                    out.value(value.toString());
-                    Arrays
-                    .stream(Introspector
-                            .getBeanInfo(value.getClass())
-                            .getPropertyDescriptors())
-                    .filter(pd ->    pd.getReadMethod() != null
-                                  && !"class".equals(pd.getName())
-                                  && !"declaringClass".equals(pd.getName()))
-                    .forEach(pd -> {
-                            try {
-                                out.name(pd.getName());
-                                out.value(String.valueOf(pd.getReadMethod().invoke(value)));
-                            } catch (IllegalAccessException | InvocationTargetException | IOException e) {
-                                e.printStackTrace();
-                            }
-                        });
-                    out.endObject();
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e.getMessage());
-                }
+                out.jsonValue(this.table.json(constant, out.isHtmlSafe()));
             }
 
+            /**
+             * Lê o objeto escrito por {@link #write}, preferindo a propriedade {@code value} e depois o
+             * {@code name}, ou uma string simples com o nome. Texto sem constante correspondente vira {@code null}.
+             */
             @Override
+            @SuppressWarnings("unchecked")
             public T read(JsonReader in) throws IOException {
-                try {
-                    in.beginObject();
-                    String text = null;
-                    while (in.hasNext()) {
-                        String name = in.nextName();
-                        if (name.equals("value")) {
-                            text = in.nextString();
-                        } else {
-                            in.skipValue();
-                        }
+                JsonToken token = in.peek();
+                if (token == JsonToken.NULL) {
+                    in.nextNull();
+                    return null;
+                }
+                if (token != JsonToken.BEGIN_OBJECT) {
+                    return (T) this.table.find(nextScalar(in));
+                }
+                String value = null;
+                String name = null;
+                in.beginObject();
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "value" -> value = nextScalar(in);
+                        case "name" -> name = nextScalar(in);
+                        default -> in.skipValue();
                     }
-                    in.endObject();
-                    return (T) text;
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e.getMessage());
                 }
+                in.endObject();
+                Enum<?> constant = this.table.byValue(value);
+                return (T) (constant != null ? constant : this.table.find(name));
             }
         }
     }
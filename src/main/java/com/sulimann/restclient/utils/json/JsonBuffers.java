@@ -0,0 +1,268 @@
+package com.sulimann.restclient.utils.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Buffers de escrita do {@link JSONUtilitiesV2#toJson(Object)} reaproveitados por thread e criados no primeiro uso
+ * de cada tipo. O buffer de texto cresce conforme o maior documento da thread, mas volta ao tamanho inicial quando
+ * passa de {@link #MAX_RETAINED_CHARS}, para que um documento grande isolado não fique preso na thread. O de UTF-8
+ * tem tamanho fixo: vai escrevendo no {@link OutputStream} conforme enche.
+ * <p>
+ * Uma chamada aninhada na mesma thread (um adapter que chama {@code toJson}) recebe um buffer novo. Em virtual
+ * threads, que costumam viver uma chamada só, não há reaproveitamento: cada chamada recebe um buffer pequeno.
+ */
+final class JsonBuffers {
+
+    static final int INITIAL_CHARS = 1024;
+    static final int MAX_RETAINED_CHARS = 64 * 1024;
+    static final int UTF8_CHUNK_CHARS = 4096;
+
+    private static final ThreadLocal<JsonBuffers> LOCAL = ThreadLocal.withInitial(JsonBuffers::new);
+    private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+
+    private Text text;
+    private Utf8 utf8;
+
+    private JsonBuffers() {
+    }
+
+    /**
+     * Buffer de texto vazio; devolva com {@link Text#release()} num {@code finally}.
+     */
+    static Text text() {
+        if (onVirtualThread()) {
+            return new Text();
+        }
+        JsonBuffers buffers = LOCAL.get();
+        Text local = buffers.text;
+        if (local == null) {
+            local = buffers.text = new Text();
+        } else if (local.inUse) {
+            return new Text();
+        }
+        local.inUse = true;
+        return local;
+    }
+
+    /**
+     * Writer UTF-8 sobre {@code out}; devolva com {@link Utf8#release()} num {@code finally}.
+     */
+    static Utf8 utf8(OutputStream out) {
+        Utf8 local;
+        if (onVirtualThread()) {
+            local = new Utf8(INITIAL_CHARS);
+        } else {
+            JsonBuffers buffers = LOCAL.get();
+            local = buffers.utf8;
+            if (local == null) {
+                local = buffers.utf8 = new Utf8(UTF8_CHUNK_CHARS);
+            } else if (local.inUse) {
+                local = new Utf8(INITIAL_CHARS);
+            }
+        }
+        local.inUse = true;
+        local.out = out;
+        return local;
+    }
+
+    static boolean onVirtualThread() {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(Thread.currentThread());
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * {@code Thread.isVirtual()} quando o runtime tem virtual threads; {@code null} no Java 17.
+     */
+    private static MethodHandle isVirtualHandle() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    static final class Text extends Writer {
+
+        private char[] chars = new char[INITIAL_CHARS];
+        private int count;
+        private boolean inUse;
+
+        @Override
+        public void write(int c) {
+            ensure(1);
+            this.chars[this.count++] = (char) c;
+        }
+
+        @Override
+        public void write(char[] source, int offset, int length) {
+            ensure(length);
+            System.arraycopy(source, offset, this.chars, this.count, length);
+            this.count += length;
+        }
+
+        @Override
+        public void write(String source, int offset, int length) {
+            ensure(length);
+            source.getChars(offset, offset + length, this.chars, this.count);
+            this.count += length;
+        }
+
+        @Override
+        public String toString() {
+            return new String(this.chars, 0, this.count);
+        }
+
+        int capacity() {
+            return this.chars.length;
+        }
+
+        void release() {
+            this.count = 0;
+            this.inUse = false;
+            if (this.chars.length > MAX_RETAINED_CHARS) {
+                this.chars = new char[INITIAL_CHARS];
+            }
+        }
+
+        private void ensure(int length) {
+            int needed = this.count + length;
+            if (needed > this.chars.length) {
+                char[] grown = new char[Math.max(needed, this.chars.length * 2)];
+                System.arraycopy(this.chars, 0, grown, 0, this.count);
+                this.chars = grown;
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Codifica em UTF-8 à mão, um bloco de caracteres por vez ({@link #UTF8_CHUNK_CHARS} no buffer da thread). Um
+     * surrogate alto no fim do bloco espera o par no próximo; surrogates sem par viram {@code '?'}, como no
+     * {@link java.io.OutputStreamWriter}.
+     */
+    static final class Utf8 extends Writer {
+
+        private final char[] chars;
+        private final byte[] bytes;
+        private int count;
+        private OutputStream out;
+        private boolean inUse;
+
+        private Utf8(int chunkChars) {
+            this.chars = new char[chunkChars];
+            this.bytes = new byte[chunkChars * 3];
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            if (this.count == this.chars.length) {
+                encode(false);
+            }
+            this.chars[this.count++] = (char) c;
+        }
+
+        @Override
+        public void write(char[] source, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (this.count == this.chars.length) {
+                    encode(false);
+                }
+                int n = Math.min(length, this.chars.length - this.count);
+                System.arraycopy(source, offset, this.chars, this.count, n);
+                this.count += n;
+                offset += n;
+                length -= n;
+            }
+        }
+
+        @Override
+        public void write(String source, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (this.count == this.chars.length) {
+                    encode(false);
+                }
+                int n = Math.min(length, this.chars.length - this.count);
+                source.getChars(offset, offset + n, this.chars, this.count);
+                this.count += n;
+                offset += n;
+                length -= n;
+            }
+        }
+
+        /**
+         * Escreve o que falta e faz flush do stream, que não é fechado.
+         */
+        @Override
+        public void flush() throws IOException {
+            encode(true);
+            this.out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        void release() {
+            this.count = 0;
+            this.out = null;
+            this.inUse = false;
+        }
+
+        private void encode(boolean end) throws IOException {
+            char[] chars = this.chars;
+            byte[] bytes = this.bytes;
+            int n = this.count;
+            int i = 0;
+            int j = 0;
+            while (i < n) {
+                char c = chars[i];
+                if (c < 0x80) {
+                    bytes[j++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[j++] = (byte) (0xC0 | (c >> 6));
+                    bytes[j++] = (byte) (0x80 | (c & 0x3F));
+                } else if (!Character.isSurrogate(c)) {
+                    bytes[j++] = (byte) (0xE0 | (c >> 12));
+                    bytes[j++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[j++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(chars[i + 1])) {
+                    int codePoint = Character.toCodePoint(c, chars[++i]);
+                    bytes[j++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[j++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[j++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[j++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 == n && !end) {
+                    break;
+                } else {
+                    bytes[j++] = '?';
+                }
+                i++;
+            }
+            this.out.write(bytes, 0, j);
+            this.count = n - i;
+            if (this.count > 0) {
+                chars[0] = chars[i];
+            }
+        }
+    }
+
+}
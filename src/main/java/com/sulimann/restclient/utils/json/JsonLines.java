@@ -0,0 +1,270 @@
+package com.sulimann.restclient.utils.json;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+
+/**
+ * NDJSON (um valor JSON por linha) do {@link JSONUtilitiesV2}. Cada stream usa um único {@link JsonReader} ou
+ * {@link JsonWriter} em modo leniente, que é o que permite vários valores de topo em sequência; por registro só
+ * se aloca o próprio registro.
+ * <p>
+ * O modo leniente também aceita as extensões de sintaxe do Gson (nomes sem aspas, comentários), e um registro
+ * quebrado em várias linhas é lido normalmente: a divisão por linha só importa para a leitura paralela.
+ */
+final class JsonLines {
+
+    /** Abaixo disso um trecho do arquivo não é mais dividido entre threads. */
+    static final long MIN_SPLIT_BYTES = 1L << 20;
+
+    private JsonLines() {
+        throw new AssertionError("Não é permitido instanciar esta classe.");
+    }
+
+    static <T> Stream<T> stream(Gson gson, Reader reader, TypeAdapter<T> adapter) {
+        Iterator<T> records = new Records<>(gson, reader, adapter);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(records, Spliterator.ORDERED), false);
+    }
+
+    static <T> Stream<T> parallel(Gson gson, FileChannel channel, TypeAdapter<T> adapter) throws IOException {
+        return StreamSupport.stream(new FileRange<>(gson, channel, adapter, 0, channel.size()), true);
+    }
+
+    /**
+     * Escreve cada registro numa linha, sem indentação mesmo num Gson com pretty printing, pelo
+     * {@link RawJsonWriter}. O {@code writer} recebe um flush no fim e não é fechado.
+     */
+    static long write(Gson gson, Stream<?> records, Writer writer) throws IOException {
+        JsonWriter out = new RawJsonWriter(writer);
+        out.setLenient(true);
+        out.setHtmlSafe(gson.htmlSafe());
+        out.setSerializeNulls(gson.serializeNulls());
+        Iterator<?> iterator = records.iterator();
+        Class<?> lastType = null;
+        TypeAdapter<Object> lastAdapter = null;
+        long count = 0;
+        while (iterator.hasNext()) {
+            Object record = iterator.next();
+            if (record == null) {
+                out.nullValue();
+            } else {
+                if (record.getClass() != lastType) {
+                    lastType = record.getClass();
+                    lastAdapter = adapter(gson, lastType);
+                }
+                lastAdapter.write(out, record);
+            }
+            writer.write('\n');
+            count++;
+        }
+        out.flush();
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TypeAdapter<Object> adapter(Gson gson, Class<?> type) {
+        return (TypeAdapter<Object>) gson.getAdapter(type);
+    }
+
+    private static JsonReader newReader(Gson gson, Reader reader) {
+        JsonReader in = gson.newJsonReader(reader);
+        in.setLenient(true);
+        return in;
+    }
+
+    /**
+     * Registros de um {@link Reader} na ordem, lidos sob demanda.
+     */
+    private static final class Records<T> implements Iterator<T> {
+
+        private final JsonReader in;
+        private final TypeAdapter<T> adapter;
+
+        Records(Gson gson, Reader reader, TypeAdapter<T> adapter) {
+            this.in = newReader(gson, reader);
+            this.adapter = adapter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return this.in.peek() != JsonToken.END_DOCUMENT;
+            } catch (MalformedJsonException e) {
+                throw new JsonSyntaxException(e);
+            } catch (IOException e) {
+                throw new JsonIOException(e);
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return this.adapter.read(this.in);
+            } catch (EOFException | MalformedJsonException | IllegalStateException e) {
+                throw new JsonSyntaxException(e);
+            } catch (IOException e) {
+                throw new JsonIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Trecho {@code [start, end)} de um arquivo NDJSON que começa e termina em fim de linha. Divide ao meio na
+     * primeira quebra de linha depois do ponto médio; cada parte lê o arquivo por leituras posicionais no
+     * mesmo {@link FileChannel}, que são seguras entre threads.
+     */
+    private static final class FileRange<T> implements Spliterator<T> {
+
+        private final Gson gson;
+        private final FileChannel channel;
+        private final TypeAdapter<T> adapter;
+        private long start;
+        private final long end;
+        private Records<T> records;
+
+        FileRange(Gson gson, FileChannel channel, TypeAdapter<T> adapter, long start, long end) {
+            this.gson = gson;
+            this.channel = channel;
+            this.adapter = adapter;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Records<T> current = records();
+            if (!current.hasNext()) {
+                return false;
+            }
+            action.accept(current.next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Records<T> current = records();
+            while (current.hasNext()) {
+                action.accept(current.next());
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (this.records != null || this.end - this.start < 2 * MIN_SPLIT_BYTES) {
+                return null;
+            }
+            long boundary = nextLineStart(this.start + (this.end - this.start) / 2);
+            if (boundary <= this.start || boundary >= this.end) {
+                return null;
+            }
+            FileRange<T> prefix = new FileRange<>(this.gson, this.channel, this.adapter, this.start, boundary);
+            this.start = boundary;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.end - this.start;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.IMMUTABLE;
+        }
+
+        private Records<T> records() {
+            if (this.records == null) {
+                InputStream bytes = new ChannelRange(this.channel, this.start, this.end);
+                this.records = new Records<>(this.gson, new InputStreamReader(bytes, StandardCharsets.UTF_8), this.adapter);
+            }
+            return this.records;
+        }
+
+        /**
+         * Posição logo depois do primeiro {@code '\n'} a partir de {@code position}, ou {@code end} se não houver.
+         */
+        private long nextLineStart(long position) {
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            try {
+                while (position < this.end) {
+                    buffer.clear().limit((int) Math.min(buffer.capacity(), this.end - position));
+                    int read = this.channel.read(buffer, position);
+                    if (read <= 0) {
+                        return this.end;
+                    }
+                    for (int i = 0; i < read; i++) {
+                        if (buffer.get(i) == '\n') {
+                            return position + i + 1;
+                        }
+                    }
+                    position += read;
+                }
+                return this.end;
+            } catch (IOException e) {
+                throw new JsonIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Bytes de {@code [position, end)} do canal por leituras posicionais, sem mexer na posição do canal.
+     */
+    private static final class ChannelRange extends InputStream {
+
+        private final FileChannel channel;
+        private long position;
+        private final long end;
+
+        ChannelRange(FileChannel channel, long position, long end) {
+            this.channel = channel;
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (this.position >= this.end) {
+                return -1;
+            }
+            int wanted = (int) Math.min(length, this.end - this.position);
+            int read = this.channel.read(ByteBuffer.wrap(bytes, offset, wanted), this.position);
+            if (read < 0) {
+                return -1;
+            }
+            this.position += read;
+            return read;
+        }
+    }
+
+}
@@ -0,0 +1,248 @@
+package com.sulimann.restclient.utils.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Uma passada de {@link JsonPathQuery} sobre um {@link JsonReader}. Só desce nos membros e elementos que algum
+ * caminho ainda pode alcançar; o resto é pulado com {@link JsonReader#skipValue()}, sem montar nada. Quando todos
+ * os caminhos estão completos a leitura para, sem consumir (nem validar) o restante do documento.
+ * <p>
+ * Um valor que é destino de um caminho e também passagem para outro (ou destino de dois caminhos, como
+ * {@code $.a[*]} e {@code $.a[0]}) é lido uma vez como árvore e distribuído a partir dela.
+ */
+final class JsonPathExtractor {
+
+    private final Gson gson;
+    private final JsonPathQuery query;
+    private final JsonPathResult result;
+    private final TypeAdapter<?>[] adapters;
+    private final boolean[] complete;
+    private int pending;
+
+    JsonPathExtractor(Gson gson, JsonPathQuery query) {
+        this.gson = gson;
+        this.query = query;
+        this.result = new JsonPathResult(query);
+        this.adapters = new TypeAdapter<?>[query.targets.size()];
+        this.complete = new boolean[query.targets.size()];
+        this.pending = query.targets.size();
+        for (JsonPathQuery.Target target : query.targets) {
+            this.adapters[target.index] = target.type == Object.class
+                    ? new NaturalAdapter(gson.getAdapter(Object.class))
+                    : gson.getAdapter(TypeToken.get(target.type));
+        }
+    }
+
+    JsonPathResult extract(JsonReader in) throws IOException {
+        if (this.pending > 0) {
+            value(in, List.of(this.query.root));
+        }
+        return this.result;
+    }
+
+    /**
+     * Processa o próximo valor do stream para os nós em {@code states}; devolve {@code true} quando todos os
+     * caminhos ficaram completos e a leitura deve parar.
+     */
+    private boolean value(JsonReader in, List<JsonPathQuery.Node> states) throws IOException {
+        int targets = 0;
+        boolean descend = false;
+        for (JsonPathQuery.Node node : states) {
+            targets += node.targets != null ? node.targets.length : 0;
+            descend |= node.hasChildren();
+        }
+        if (targets > 1 || (targets == 1 && descend)) {
+            tree(JsonParser.parseReader(in), states);
+        } else if (targets == 1) {
+            JsonPathQuery.Target target = single(states);
+            this.result.add(target, this.adapters[target.index].read(in));
+        } else if (descend) {
+            if (descend(in, states)) {
+                return true;
+            }
+        } else {
+            in.skipValue();
+        }
+        return finished(states);
+    }
+
+    private boolean descend(JsonReader in, List<JsonPathQuery.Node> states) throws IOException {
+        switch (in.peek()) {
+            case BEGIN_OBJECT -> {
+                in.beginObject();
+                while (in.hasNext()) {
+                    List<JsonPathQuery.Node> next = members(states, in.nextName());
+                    if (next == null) {
+                        in.skipValue();
+                    } else if (value(in, next)) {
+                        return true;
+                    }
+                }
+                in.endObject();
+            }
+            case BEGIN_ARRAY -> {
+                in.beginArray();
+                for (int index = 0; in.hasNext(); index++) {
+                    List<JsonPathQuery.Node> next = elements(states, index);
+                    if (next == null) {
+                        in.skipValue();
+                    } else if (value(in, next)) {
+                        return true;
+                    }
+                }
+                in.endArray();
+            }
+            default -> in.skipValue();
+        }
+        return false;
+    }
+
+    private void tree(JsonElement element, List<JsonPathQuery.Node> states) {
+        for (JsonPathQuery.Node node : states) {
+            if (node.targets != null) {
+                for (JsonPathQuery.Target target : node.targets) {
+                    this.result.add(target, this.adapters[target.index].fromJsonTree(element));
+                }
+            }
+        }
+        if (element instanceof JsonObject object) {
+            for (Map.Entry<String, JsonElement> member : object.entrySet()) {
+                List<JsonPathQuery.Node> next = members(states, member.getKey());
+                if (next != null) {
+                    tree(member.getValue(), next);
+                }
+            }
+        } else if (element instanceof JsonArray array) {
+            for (int index = 0; index < array.size(); index++) {
+                List<JsonPathQuery.Node> next = elements(states, index);
+                if (next != null) {
+                    tree(array.get(index), next);
+                }
+            }
+        }
+        finished(states);
+    }
+
+    private static List<JsonPathQuery.Node> members(List<JsonPathQuery.Node> states, String name) {
+        List<JsonPathQuery.Node> next = null;
+        for (JsonPathQuery.Node node : states) {
+            next = add(next, node.member(name));
+            next = add(next, node.wildcard);
+        }
+        return next;
+    }
+
+    private static List<JsonPathQuery.Node> elements(List<JsonPathQuery.Node> states, int index) {
+        List<JsonPathQuery.Node> next = null;
+        for (JsonPathQuery.Node node : states) {
+            next = add(next, node.element(index));
+            next = add(next, node.wildcard);
+        }
+        return next;
+    }
+
+    private static List<JsonPathQuery.Node> add(List<JsonPathQuery.Node> nodes, JsonPathQuery.Node node) {
+        if (node == null) {
+            return nodes;
+        }
+        if (nodes == null) {
+            return List.of(node);
+        }
+        List<JsonPathQuery.Node> grown = new ArrayList<>(nodes.size() + 1);
+        grown.addAll(nodes);
+        grown.add(node);
+        return grown;
+    }
+
+    private static JsonPathQuery.Target single(List<JsonPathQuery.Node> states) {
+        for (JsonPathQuery.Node node : states) {
+            if (node.targets != null) {
+                return node.targets[0];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Marca como completos os caminhos ancorados nos nós cujo valor acabou de ser lido.
+     */
+    private boolean finished(List<JsonPathQuery.Node> states) {
+        for (JsonPathQuery.Node node : states) {
+            if (node.anchored != null) {
+                for (JsonPathQuery.Target target : node.anchored) {
+                    if (!this.complete[target.index]) {
+                        this.complete[target.index] = true;
+                        this.pending--;
+                    }
+                }
+            }
+        }
+        return this.pending == 0;
+    }
+
+    /**
+     * Escalares pelo tipo natural, sem passar números inteiros por {@code Double}; objetos e arrays pelo adapter
+     * de {@code Object} do Gson.
+     */
+    private static final class NaturalAdapter extends TypeAdapter<Object> {
+
+        private final TypeAdapter<Object> objects;
+
+        NaturalAdapter(TypeAdapter<Object> objects) {
+            this.objects = objects;
+        }
+
+        @Override
+        public void write(JsonWriter out, Object value) throws IOException {
+            this.objects.write(out, value);
+        }
+
+        @Override
+        public Object read(JsonReader in) throws IOException {
+            switch (in.peek()) {
+                case STRING:
+                    return in.nextString();
+                case NUMBER:
+                    return number(in.nextString());
+                case BOOLEAN:
+                    return in.nextBoolean();
+                case NULL:
+                    in.nextNull();
+                    return null;
+                default:
+                    return this.objects.read(in);
+            }
+        }
+
+        private static Object number(String text) {
+            boolean integral = true;
+            for (int i = 0; i < text.length() && integral; i++) {
+                char c = text.charAt(i);
+                integral = c == '-' || (c >= '0' && c <= '9');
+            }
+            if (integral && text.length() <= 19) {
+                try {
+                    return Long.parseLong(text);
+                } catch (NumberFormatException e) {
+                    return new BigDecimal(text);
+                }
+            }
+            return integral ? new BigDecimal(text) : Double.valueOf(text);
+        }
+    }
+
+}
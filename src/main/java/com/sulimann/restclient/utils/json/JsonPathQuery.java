@@ -0,0 +1,216 @@
+package com.sulimann.restclient.utils.json;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conjunto pequeno de caminhos JSON a extrair de um documento numa passada só, com
+ * {@link JSONUtilitiesV2#extract(String, JsonPathQuery)}, sem montar o documento inteiro. Compile uma vez e
+ * reaproveite: a consulta é imutável e pode ser compartilhada entre threads.
+ * <p>
+ * Sintaxe aceita: {@code $}, {@code .nome}, {@code ['nome']}, {@code [3]}, {@code [*]} e {@code .*} (qualquer
+ * membro ou elemento). Filtros e busca recursiva ({@code ..}) não são suportados.
+ * <p>
+ * Cada caminho tem um tipo de destino, lido direto do stream pelo adapter do Gson. Sem tipo, escalares viram
+ * {@code String}, {@code Boolean}, {@code Long} (inteiros; {@code BigDecimal} se não couberem) ou {@code Double},
+ * e objetos e arrays viram {@code Map}/{@code List}.
+ */
+public final class JsonPathQuery {
+
+    final Node root;
+    final List<Target> targets;
+    private final Map<String, Target> byPath;
+
+    private JsonPathQuery(Map<String, Type> paths) {
+        this.root = new Node();
+        List<Target> targets = new ArrayList<>(paths.size());
+        Map<String, Target> byPath = new HashMap<>(paths.size() * 2);
+        for (Map.Entry<String, Type> path : paths.entrySet()) {
+            Target target = new Target(path.getKey(), path.getValue(), targets.size());
+            Node node = this.root;
+            Node anchor = this.root;
+            boolean definite = true;
+            for (Segment segment : parse(path.getKey())) {
+                node = node.child(segment);
+                definite &= !segment.wildcard();
+                if (definite) {
+                    anchor = node;
+                }
+            }
+            node.targets = append(node.targets, target);
+            anchor.anchored = append(anchor.anchored, target);
+            targets.add(target);
+            byPath.put(target.path, target);
+        }
+        this.targets = Collections.unmodifiableList(targets);
+        this.byPath = byPath;
+    }
+
+    public static JsonPathQuery of(String... paths) {
+        Map<String, Type> typed = new LinkedHashMap<>();
+        for (String path : paths) {
+            typed.put(path, Object.class);
+        }
+        return new JsonPathQuery(typed);
+    }
+
+    /**
+     * Cópia da consulta com mais um caminho, ou com o tipo trocado se o caminho já existir.
+     */
+    public JsonPathQuery with(String path, Type type) {
+        Map<String, Type> typed = new LinkedHashMap<>();
+        for (Target target : this.targets) {
+            typed.put(target.path, target.type);
+        }
+        typed.put(path, type);
+        return new JsonPathQuery(typed);
+    }
+
+    Target target(String path) {
+        Target target = this.byPath.get(path);
+        if (target == null) {
+            throw new IllegalArgumentException("Caminho " + path + " não faz parte da consulta");
+        }
+        return target;
+    }
+
+    private static List<Segment> parse(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '$') {
+            throw invalid(path, "precisa começar com $");
+        }
+        List<Segment> segments = new ArrayList<>();
+        int i = 1;
+        while (i < path.length()) {
+            char c = path.charAt(i);
+            if (c == '.') {
+                int start = ++i;
+                if (i < path.length() && path.charAt(i) == '.') {
+                    throw invalid(path, "busca recursiva (..) não é suportada");
+                }
+                while (i < path.length() && path.charAt(i) != '.' && path.charAt(i) != '[') {
+                    i++;
+                }
+                String name = path.substring(start, i);
+                if (name.isEmpty()) {
+                    throw invalid(path, "nome vazio na posição " + start);
+                }
+                segments.add("*".equals(name) ? Segment.WILDCARD : Segment.name(name));
+            } else if (c == '[') {
+                int close = path.indexOf(']', i);
+                if (close < 0) {
+                    throw invalid(path, "falta ]");
+                }
+                String inner = path.substring(i + 1, close).trim();
+                i = close + 1;
+                if ("*".equals(inner)) {
+                    segments.add(Segment.WILDCARD);
+                } else if (inner.length() >= 2 && (inner.charAt(0) == '\'' || inner.charAt(0) == '"')
+                        && inner.charAt(inner.length() - 1) == inner.charAt(0)) {
+                    segments.add(Segment.name(inner.substring(1, inner.length() - 1)));
+                } else {
+                    try {
+                        segments.add(Segment.index(Integer.parseInt(inner)));
+                    } catch (NumberFormatException e) {
+                        throw invalid(path, "seletor [" + inner + "] não é suportado");
+                    }
+                }
+            } else {
+                throw invalid(path, "caractere inesperado '" + c + "' na posição " + i);
+            }
+        }
+        return segments;
+    }
+
+    private static IllegalArgumentException invalid(String path, String reason) {
+        return new IllegalArgumentException("Caminho JSON inválido " + path + ": " + reason);
+    }
+
+    private static Target[] append(Target[] targets, Target target) {
+        if (targets == null) {
+            return new Target[] { target };
+        }
+        Target[] grown = new Target[targets.length + 1];
+        System.arraycopy(targets, 0, grown, 0, targets.length);
+        grown[targets.length] = target;
+        return grown;
+    }
+
+    private record Segment(String name, int index, boolean wildcard) {
+
+        static final Segment WILDCARD = new Segment(null, -1, true);
+
+        static Segment name(String name) {
+            return new Segment(name, -1, false);
+        }
+
+        static Segment index(int index) {
+            if (index < 0) {
+                throw new IllegalArgumentException("Índice negativo não é suportado: " + index);
+            }
+            return new Segment(null, index, false);
+        }
+    }
+
+    static final class Target {
+
+        final String path;
+        final Type type;
+        final int index;
+
+        private Target(String path, Type type, int index) {
+            this.path = path;
+            this.type = type;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Nó da árvore de caminhos. {@code targets} são os caminhos que terminam aqui; {@code anchored} os que ficam
+     * completos quando o valor deste nó termina, porque o trecho até o primeiro curinga é este.
+     */
+    static final class Node {
+
+        private Map<String, Node> names;
+        private Map<Integer, Node> indexes;
+        Node wildcard;
+        Target[] targets;
+        Target[] anchored;
+
+        private Node child(Segment segment) {
+            if (segment.wildcard()) {
+                if (this.wildcard == null) {
+                    this.wildcard = new Node();
+                }
+                return this.wildcard;
+            }
+            if (segment.name() != null) {
+                if (this.names == null) {
+                    this.names = new HashMap<>();
+                }
+                return this.names.computeIfAbsent(segment.name(), key -> new Node());
+            }
+            if (this.indexes == null) {
+                this.indexes = new HashMap<>();
+            }
+            return this.indexes.computeIfAbsent(segment.index(), key -> new Node());
+        }
+
+        Node member(String name) {
+            return this.names != null ? this.names.get(name) : null;
+        }
+
+        Node element(int index) {
+            return this.indexes != null ? this.indexes.get(index) : null;
+        }
+
+        boolean hasChildren() {
+            return this.names != null || this.indexes != null || this.wildcard != null;
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.sulimann.restclient.utils.json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Valores extraídos por uma {@link JsonPathQuery}, na ordem em que aparecem no documento. Caminhos sem curinga
+ * têm no máximo um valor; os com curinga, um por correspondência.
+ */
+public final class JsonPathResult {
+
+    private final JsonPathQuery query;
+    private final List<Object>[] values;
+
+    @SuppressWarnings("unchecked")
+    JsonPathResult(JsonPathQuery query) {
+        this.query = query;
+        this.values = new List[query.targets.size()];
+    }
+
+    void add(JsonPathQuery.Target target, Object value) {
+        List<Object> list = this.values[target.index];
+        if (list == null) {
+            list = new ArrayList<>(4);
+            this.values[target.index] = list;
+        }
+        list.add(value);
+    }
+
+    /**
+     * Se o caminho apareceu no documento, mesmo com valor {@code null}.
+     */
+    public boolean contains(String path) {
+        return this.values[this.query.target(path).index] != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> all(String path) {
+        List<Object> list = this.values[this.query.target(path).index];
+        return list != null ? (List<T>) Collections.unmodifiableList(list) : List.of();
+    }
+
+    /**
+     * Primeiro valor do caminho, ou {@code null} se não apareceu.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T first(String path) {
+        List<Object> list = this.values[this.query.target(path).index];
+        return list != null ? (T) list.get(0) : null;
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.sulimann.restclient.utils.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.ToNumberStrategy;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Leitura de um documento em {@code Map}/{@code List} com os números pela {@link ToNumberStrategy} dada. Arrays
+ * em que a estratégia devolve só {@code Long} ou só {@code Double} viram {@link PrimitiveLists}; qualquer outro
+ * valor no meio volta para {@code ArrayList}. Nomes de campo repetidos saem da mesma {@code String}, por um cache
+ * pequeno de {@link #KEY_SLOTS} posições que vive só durante a leitura. Uma instância por documento.
+ */
+final class NumericMapReader {
+
+    static final int KEY_SLOTS = 256;
+
+    private static final int INITIAL_ARRAY = 8;
+
+    private final ToNumberStrategy numbers;
+    private final String[] keys = new String[KEY_SLOTS];
+
+    NumericMapReader(ToNumberStrategy numbers) {
+        this.numbers = numbers;
+    }
+
+    Object read(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case BEGIN_OBJECT:
+                return readObject(in);
+            case BEGIN_ARRAY:
+                return readArray(in);
+            case STRING:
+                return in.nextString();
+            case NUMBER:
+                return this.numbers.readNumber(in);
+            case BOOLEAN:
+                return in.nextBoolean();
+            case NULL:
+                in.nextNull();
+                return null;
+            default:
+                throw new IllegalStateException("Token inesperado " + in.peek() + " em " + in.getPath());
+        }
+    }
+
+    Map<String, Object> readObject(JsonReader in) throws IOException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            map.put(key(in.nextName()), read(in));
+        }
+        in.endObject();
+        return map;
+    }
+
+    private List<?> readArray(JsonReader in) throws IOException {
+        in.beginArray();
+        long[] longs = null;
+        double[] doubles = null;
+        int size = 0;
+        List<Object> boxed = null;
+        while (in.hasNext()) {
+            if (boxed == null && in.peek() == JsonToken.NUMBER) {
+                Object number = this.numbers.readNumber(in);
+                if (number instanceof Long value && doubles == null) {
+                    longs = grow(longs, size);
+                    longs[size++] = value;
+                    continue;
+                }
+                if (number instanceof Double value && longs == null) {
+                    doubles = grow(doubles, size);
+                    doubles[size++] = value;
+                    continue;
+                }
+                boxed = box(longs, doubles, size);
+                boxed.add(number);
+                continue;
+            }
+            if (boxed == null) {
+                boxed = box(longs, doubles, size);
+            }
+            boxed.add(read(in));
+        }
+        in.endArray();
+        if (boxed != null) {
+            return boxed;
+        }
+        if (longs != null) {
+            return new PrimitiveLists.OfLong(longs.length == size ? longs : Arrays.copyOf(longs, size), size);
+        }
+        if (doubles != null) {
+            return new PrimitiveLists.OfDouble(doubles.length == size ? doubles : Arrays.copyOf(doubles, size), size);
+        }
+        return new ArrayList<>(0);
+    }
+
+    private String key(String name) {
+        int slot = name.hashCode() & (KEY_SLOTS - 1);
+        String cached = this.keys[slot];
+        if (name.equals(cached)) {
+            return cached;
+        }
+        this.keys[slot] = name;
+        return name;
+    }
+
+    private static List<Object> box(long[] longs, double[] doubles, int size) {
+        List<Object> list = new ArrayList<>(Math.max(size + 1, INITIAL_ARRAY));
+        for (int i = 0; i < size; i++) {
+            list.add(longs != null ? (Object) longs[i] : (Object) doubles[i]);
+        }
+        return list;
+    }
+
+    private static long[] grow(long[] values, int size) {
+        if (values == null) {
+            return new long[INITIAL_ARRAY];
+        }
+        return size < values.length ? values : Arrays.copyOf(values, size * 2);
+    }
+
+    private static double[] grow(double[] values, int size) {
+        if (values == null) {
+            return new double[INITIAL_ARRAY];
+        }
+        return size < values.length ? values : Arrays.copyOf(values, size * 2);
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.sulimann.restclient.utils.json;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Listas imutáveis sobre {@code long[]}/{@code double[]}, devolvidas por
+ * {@link JSONUtilitiesV2#jsonToMap(String, com.google.gson.ToNumberStrategy)} para arrays só de números. Como
+ * {@code List} cada acesso cria um box; {@code getLong}/{@code getDouble} e {@code toArray} leem sem box.
+ */
+public final class PrimitiveLists {
+
+    private PrimitiveLists() {
+        throw new AssertionError("Não é permitido instanciar esta classe.");
+    }
+
+    public static final class OfLong extends AbstractList<Long> implements RandomAccess {
+
+        private final long[] values;
+        private final int size;
+
+        OfLong(long[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        public long getLong(int index) {
+            return this.values[checkIndex(index, this.size)];
+        }
+
+        public long[] toLongArray() {
+            return Arrays.copyOf(this.values, this.size);
+        }
+
+        @Override
+        public Long get(int index) {
+            return getLong(index);
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+    }
+
+    public static final class OfDouble extends AbstractList<Double> implements RandomAccess {
+
+        private final double[] values;
+        private final int size;
+
+        OfDouble(double[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        public double getDouble(int index) {
+            return this.values[checkIndex(index, this.size)];
+        }
+
+        public double[] toDoubleArray() {
+            return Arrays.copyOf(this.values, this.size);
+        }
+
+        @Override
+        public Double get(int index) {
+            return getDouble(index);
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+    }
+
+    private static int checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Índice " + index + " fora de [0, " + size + ")");
+        }
+        return index;
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.sulimann.restclient.utils.json;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * {@link JsonWriter} que deixa um adapter escrever uma string longa em pedaços direto no {@link Writer}, sem montar
+ * a {@code String} inteira. O {@link JsonWriter} não tem buffer próprio, então o texto cru sai na ordem certa entre
+ * o que ele escreve. Usado pelos {@code toJson} do {@link JSONUtilitiesV2}; os adapters que aproveitam isso caem
+ * para {@link JsonWriter#value(String)} com qualquer outro writer.
+ */
+final class RawJsonWriter extends JsonWriter {
+
+    private final Writer out;
+
+    RawJsonWriter(Writer out) {
+        super(out);
+        this.out = out;
+    }
+
+    /**
+     * Abre uma string no lugar do próximo valor (vírgula e nome pendente inclusos) e devolve o writer para o
+     * conteúdo, que precisa vir já escapado. Feche com {@link #endRawString()}.
+     */
+    Writer beginRawString() throws IOException {
+        jsonValue("\"");
+        return this.out;
+    }
+
+    void endRawString() throws IOException {
+        this.out.write('"');
+    }
+
+}
@@ -1,16 +1,18 @@
 package com.sulimann.restclient.utils.validators.validenum;
 
+import com.sulimann.restclient.utils.json.EnumTable;
+
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
 public class ValidEnumValidator implements ConstraintValidator<ValidEnum, CharSequence> {
 
-  private Class<? extends Enum<?>> klass;
+  private EnumTable table;
   private boolean ignoreCase;
 
   @Override
   public void initialize(ValidEnum annotation) {
-    this.klass = annotation.enumClass();
+    this.table = EnumTable.of(annotation.enumClass());
     this.ignoreCase = annotation.ignoreCase();
   }
 
@@ -19,15 +21,6 @@ public class ValidEnumValidator implements ConstraintValidator<ValidEnum, CharSe
     if (value == null) {
       return true;
     }
-
-    Enum<?>[] enumConstants = this.klass.getEnumConstants();
-    for (Enum<?> enumConstant : enumConstants) {
-      if (this.ignoreCase ? enumConstant.name().equalsIgnoreCase(value.toString())
-          : enumConstant.name().equals(value.toString())) {
-        return true;
-      }
-    }
-
-    return false;
+    return this.table.hasName(value.toString(), this.ignoreCase);
   }
 }
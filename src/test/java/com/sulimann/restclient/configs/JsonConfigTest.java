@@ -0,0 +1,62 @@
+package com.sulimann.restclient.configs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.sulimann.restclient.utils.httpresponse.ErroResponse;
+import com.sulimann.restclient.utils.json.JSONUtilitiesHttpMessageConverter;
+
+class JsonConfigTest {
+
+	@Test
+	void erroResponseMantemOFormatoDoJsonFormat() throws IOException {
+		ErroResponse erro = new ErroResponse(LocalDateTime.of(2024, 5, 10, 14, 30, 15, 123_000_000), 404,
+				"Não encontrado", "/clientes/1");
+
+		String body = write(erro);
+
+		assertThat(body).contains("\"timestamp\":\"2024-05-10T14:30:15Z\"");
+		assertThat(body).contains("\"status\":404", "\"path\":\"/clientes/1\"");
+	}
+
+	@Test
+	void dtosSemAnotacaoDoJacksonSeguemComOGson() throws IOException {
+		HttpMessageConverter<Object> converter = converterFor(Pedido.class);
+
+		assertThat(converter).isInstanceOf(JSONUtilitiesHttpMessageConverter.class);
+		assertThat(write(new Pedido(7, LocalDate.of(2024, 5, 10)))).isEqualTo("{\"id\":7,\"data\":\"2024-05-10\"}");
+	}
+
+	private static String write(Object value) throws IOException {
+		MockHttpOutputMessage message = new MockHttpOutputMessage();
+		converterFor(value.getClass()).write(value, MediaType.APPLICATION_JSON, message);
+		return message.getBodyAsString(StandardCharsets.UTF_8);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static HttpMessageConverter<Object> converterFor(Class<?> type) {
+		List<HttpMessageConverter<?>> converters = new ArrayList<>(
+				List.of(new StringHttpMessageConverter(), new MappingJackson2HttpMessageConverter()));
+		new JsonConfig().extendMessageConverters(converters);
+		return (HttpMessageConverter<Object>) converters.stream()
+				.filter(converter -> converter.canWrite(type, MediaType.APPLICATION_JSON))
+				.findFirst()
+				.orElseThrow();
+	}
+
+	record Pedido(int id, LocalDate data) {}
+
+}
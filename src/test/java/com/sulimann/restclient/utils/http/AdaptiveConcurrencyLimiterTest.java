@@ -0,0 +1,147 @@
+package com.sulimann.restclient.utils.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import com.sulimann.restclient.configs.HttpClientProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long RTT = TimeUnit.MILLISECONDS.toNanos(20);
+
+	@BeforeEach
+	void enableLimiter() {
+		HttpClientProperties properties = new HttpClientProperties();
+		properties.getLimiter().setEnabled(true);
+		properties.getLimiter().setMinLimit(1);
+		HttpConnectionPool.install(HttpConnectionPool.create(properties));
+	}
+
+	@AfterEach
+	void restorePool() {
+		HttpConnectionPool.install(HttpConnectionPool.create(new HttpClientProperties()));
+	}
+
+	@Test
+	void limiteSobeComLatenciaEstavelECaiQuandoAumenta() {
+		AdaptiveConcurrencyLimiter limiter = limiter(true, 20, 1);
+		for (int round = 0; round < 5; round++) {
+			fillAndRelease(limiter, RTT);
+		}
+
+		int grownLimit = limiter.limit();
+		assertThat(grownLimit).isGreaterThan(20);
+		assertThat(limiter.inFlight()).isZero();
+
+		fillAndRelease(limiter, RTT * 10);
+
+		assertThat(limiter.limit()).isLessThan(grownLimit);
+		assertThat(limiter.inFlight()).isZero();
+	}
+
+	@Test
+	void falhaRapidaNaoViraLatenciaDeReferencia() {
+		AdaptiveConcurrencyLimiter limiter = limiter(true, 20, 1);
+		fillAndRelease(limiter, RTT);
+		limiter.tryAcquire();
+		limiter.release(TimeUnit.MICROSECONDS.toNanos(50), true);
+		int afterDrop = limiter.limit();
+
+		fillAndRelease(limiter, RTT + RTT / 2);
+
+		assertThat(limiter.limit()).isGreaterThan(afterDrop);
+	}
+
+	@Test
+	void reduzNoMaximoUmaVezPorJanelaDeRtt() {
+		AdaptiveConcurrencyLimiter limiter = limiter(true, 20, 1);
+		long slow = TimeUnit.SECONDS.toNanos(1);
+		for (int i = 0; i < 10; i++) {
+			limiter.tryAcquire();
+		}
+
+		limiter.release(slow, true);
+		int afterFirst = limiter.limit();
+		for (int i = 0; i < 8; i++) {
+			limiter.release(slow, true);
+		}
+
+		assertThat(afterFirst).isEqualTo(18);
+		assertThat(limiter.limit()).isEqualTo(afterFirst);
+
+		limiter.tryAcquire();
+		limiter.release(1, true);
+		assertThat(limiter.limit()).isLessThan(afterFirst);
+	}
+
+	@Test
+	void naoCaiAbaixoDoMinimo() {
+		AdaptiveConcurrencyLimiter limiter = limiter(true, 12, 10);
+		for (int i = 0; i < 50; i++) {
+			limiter.tryAcquire();
+			limiter.release(1, true);
+		}
+
+		assertThat(limiter.limit()).isEqualTo(10);
+	}
+
+	@Test
+	void desligadoPorPadraoNaoRejeita() {
+		HttpClientProperties.Limiter properties = new HttpClientProperties.Limiter();
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+		assertThat(properties.isEnabled()).isFalse();
+		for (int i = 0; i < properties.getMaxLimit() * 2; i++) {
+			assertThat(limiter.tryAcquire()).isTrue();
+		}
+		assertThat(limiter.snapshot().rejections()).isZero();
+	}
+
+	@Test
+	void rejeicoesViramContadorNoMicrometer() {
+		String host = "limiter-metricas.test";
+		AdaptiveConcurrencyLimiter limiter = HttpResilience.limiter(host);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		HttpMetrics.create(registry).call(host, "/itens", HttpMethod.GET);
+
+		int limit = limiter.limit();
+		for (int i = 0; i <= limit + 2; i++) {
+			limiter.tryAcquire();
+		}
+
+		assertThat(registry.get("restclient.http.limiter.rejections").tag("host", host).functionCounter().count())
+				.isEqualTo(3.0);
+		assertThat(registry.get("restclient.http.limiter.limit").tag("host", host).gauge().value()).isEqualTo(limit);
+	}
+
+	private static AdaptiveConcurrencyLimiter limiter(boolean enabled, int initialLimit, int minLimit) {
+		HttpClientProperties.Limiter properties = new HttpClientProperties.Limiter();
+		properties.setEnabled(enabled);
+		properties.setInitialLimit(initialLimit);
+		properties.setMinLimit(minLimit);
+		properties.setBackoffRatio(0.9);
+		return new AdaptiveConcurrencyLimiter(properties);
+	}
+
+	/**
+	 * Ocupa todas as vagas do limite atual e devolve cada uma com a mesma latência.
+	 */
+	private static void fillAndRelease(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+		int calls = limiter.limit();
+		for (int i = 0; i < calls; i++) {
+			assertThat(limiter.tryAcquire()).isTrue();
+		}
+		for (int i = 0; i < calls; i++) {
+			limiter.release(rttNanos, false);
+		}
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.sulimann.restclient.utils.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CompressingClientHttpRequestFactoryTest {
+
+	private static final int THRESHOLD = 1024;
+
+	private HttpServer server;
+	private final AtomicReference<String> contentEncoding = new AtomicReference<>();
+	private final AtomicReference<String> contentLength = new AtomicReference<>();
+	private final AtomicReference<String> received = new AtomicReference<>();
+	private String address;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.setExecutor(Executors.newCachedThreadPool());
+		this.server.createContext("/eco", exchange -> {
+			this.contentEncoding.set(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+			this.contentLength.set(exchange.getRequestHeaders().getFirst("Content-Length"));
+			InputStream body = exchange.getRequestBody();
+			if ("gzip".equals(this.contentEncoding.get())) {
+				body = new GZIPInputStream(body);
+			}
+			this.received.set(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+			exchange.sendResponseHeaders(204, -1);
+			exchange.close();
+		});
+		this.server.start();
+		this.address = "http://127.0.0.1:" + this.server.getAddress().getPort();
+	}
+
+	@AfterEach
+	void stopServer() {
+		this.server.stop(0);
+	}
+
+	@Test
+	void corpoAbaixoDoLimiteEhSerializadoUmaVezEVaiComContentLength() throws IOException {
+		AtomicInteger writes = new AtomicInteger();
+		String json = "{\"id\":7}";
+
+		send((CompressingClientHttpRequestFactory.RepeatableBody) out -> {
+			writes.incrementAndGet();
+			out.write(json.getBytes(StandardCharsets.UTF_8));
+		});
+
+		assertThat(writes).hasValue(1);
+		assertThat(this.contentEncoding.get()).isNull();
+		assertThat(this.contentLength.get()).isEqualTo(String.valueOf(json.length()));
+		assertThat(this.received.get()).isEqualTo(json);
+	}
+
+	@Test
+	void corpoAcimaDoLimiteVaiComprimidoEEntraNasMetricasDoHost() throws IOException {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		String host = HttpHosts.of(this.address);
+		HttpMetrics.create(registry).call(host, "/eco", HttpMethod.POST);
+		String json = "{\"valor\":\"" + "a".repeat(THRESHOLD * 4) + "\"}";
+
+		send((CompressingClientHttpRequestFactory.RepeatableBody) out -> out.write(json.getBytes(StandardCharsets.UTF_8)));
+
+		assertThat(this.contentEncoding.get()).isEqualTo("gzip");
+		assertThat(this.received.get()).isEqualTo(json);
+		HttpCompressionStats.Snapshot stats = HttpCompressionStats.snapshot().get(host);
+		assertThat(host).isEqualTo("127.0.0.1:" + this.server.getAddress().getPort());
+		assertThat(stats.requestPlainBytes()).isEqualTo(json.length());
+		assertThat(stats.requestRatio()).isLessThan(0.1);
+		assertThat(registry.get("restclient.http.compression.ratio").tag("host", host).tag("direction", "request")
+				.gauge().value()).isEqualTo(stats.requestRatio());
+		assertThat(registry.get("restclient.http.compression.saved").tag("host", host).gauge().value())
+				.isEqualTo((double) stats.bytesSaved());
+	}
+
+	private void send(StreamingHttpOutputMessage.Body body) throws IOException {
+		CompressingClientHttpRequestFactory factory = new CompressingClientHttpRequestFactory(
+				new SimpleClientHttpRequestFactory(), true, true, THRESHOLD);
+		ClientHttpRequest request = factory.createRequest(URI.create(this.address + "/eco"), HttpMethod.POST);
+		((StreamingHttpOutputMessage) request).setBody(body);
+		try (ClientHttpResponse response = request.execute()) {
+			assertThat(response.getStatusCode().value()).isEqualTo(204);
+		}
+	}
+
+}
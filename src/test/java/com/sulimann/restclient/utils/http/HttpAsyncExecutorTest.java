@@ -0,0 +1,137 @@
+package com.sulimann.restclient.utils.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sulimann.restclient.configs.HttpClientProperties;
+import com.sulimann.restclient.configs.HttpClientProperties.ThreadMode;
+import com.sun.net.httpserver.HttpServer;
+
+class HttpAsyncExecutorTest {
+
+	private HttpServer server;
+	private String address;
+	private final CountDownLatch recebida = new CountDownLatch(1);
+	private final CountDownLatch abortada = new CountDownLatch(1);
+
+	@BeforeEach
+	void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.setExecutor(Executors.newCachedThreadPool());
+		this.server.createContext("/lento", exchange -> {
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			try (OutputStream body = exchange.getResponseBody()) {
+				exchange.sendResponseHeaders(200, 0);
+				this.recebida.countDown();
+				body.write('[');
+				for (int i = 0; i < 500; i++) {
+					body.write(' ');
+					body.flush();
+					Thread.sleep(20);
+				}
+				body.write(']');
+			} catch (IOException e) {
+				this.abortada.countDown();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		this.server.start();
+		this.address = "http://127.0.0.1:" + this.server.getAddress().getPort();
+	}
+
+	@AfterEach
+	void stopServer() {
+		this.server.stop(0);
+	}
+
+	@Test
+	void cancelarOFuturoAbortaARequisicaoEDevolveAConexao() throws Exception {
+		CompletableFuture<?> future = lento().callAsync(Map.class);
+		assertThat(this.recebida.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(leased()).isEqualTo(1);
+
+		assertThat(future.cancel(true)).isTrue();
+
+		assertThat(this.abortada.await(5, TimeUnit.SECONDS)).as("requisição abortada no servidor").isTrue();
+		assertThatThrownBy(future::join).isInstanceOf(CancellationException.class);
+		awaitNoLeased();
+	}
+
+	@Test
+	void timeoutAbortaARequisicaoEDevolveAConexao() throws Exception {
+		CompletableFuture<?> future = lento().callAsync(Map.class, Duration.ofMillis(300));
+
+		assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(TimeoutException.class);
+		assertThat(this.recebida.getCount()).isZero();
+		assertThat(this.abortada.await(5, TimeUnit.SECONDS)).as("requisição abortada no servidor").isTrue();
+		awaitNoLeased();
+	}
+
+	@Test
+	void excessoDeChamadasEhRejeitadoNaHora() throws Exception {
+		HttpClientProperties.Async properties = new HttpClientProperties.Async();
+		properties.setMode(ThreadMode.PLATFORM);
+		properties.setMaxThreads(1);
+		properties.setQueueCapacity(1);
+		try (HttpAsyncExecutor executor = HttpAsyncExecutor.create(properties)) {
+			CountDownLatch liberar = new CountDownLatch(1);
+			CompletableFuture<String> ocupada = executor.submit(() -> {
+				await(liberar);
+				return "primeira";
+			});
+			CompletableFuture<String> enfileirada = executor.submit(() -> "segunda");
+
+			assertThatThrownBy(() -> executor.submit(() -> "terceira").join())
+					.hasCauseInstanceOf(RejectedExecutionException.class);
+
+			liberar.countDown();
+			assertThat(ocupada.get(5, TimeUnit.SECONDS)).isEqualTo("primeira");
+			assertThat(enfileirada.get(5, TimeUnit.SECONDS)).isEqualTo("segunda");
+		}
+	}
+
+	private Get lento() {
+		return Get.builder().address(this.address).resource("/lento").retry(RetryPolicy.none()).build();
+	}
+
+	private static int leased() {
+		return HttpConnectionPool.shared().stats().leased();
+	}
+
+	private static void awaitNoLeased() throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (leased() > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(leased()).as("conexões emprestadas").isZero();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.sulimann.restclient.utils.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sulimann.restclient.utils.httpresponse.ErroResponse;
+import com.sulimann.restclient.utils.httpresponse.Resultado;
+import com.sun.net.httpserver.HttpServer;
+
+class HttpBatchTest {
+
+	private HttpServer server;
+	private final Map<String, AtomicInteger> activeByHost = new ConcurrentHashMap<>();
+	private final Map<String, Integer> maxByHost = new ConcurrentHashMap<>();
+
+	@BeforeEach
+	void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.setExecutor(Executors.newCachedThreadPool());
+		this.server.createContext("/item", exchange -> {
+			String host = exchange.getRequestHeaders().getFirst("Host");
+			int running = this.activeByHost.computeIfAbsent(host, key -> new AtomicInteger()).incrementAndGet();
+			this.maxByHost.merge(host, running, Math::max);
+			try {
+				Thread.sleep(30);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				this.activeByHost.get(host).decrementAndGet();
+			}
+			byte[] body = exchange.getRequestURI().getQuery().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=UTF-8");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		this.server.start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		this.server.stop(0);
+	}
+
+	@Test
+	void respeitaLimitePorHostEDevolveNaOrdemDasRequisicoes() {
+		int port = this.server.getAddress().getPort();
+		List<Get> requests = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			String address = (i % 2 == 0 ? "http://127.0.0.1:" : "http://localhost:") + port;
+			requests.add(Get.builder().address(address).resource("/item").queryParam("n", i).build());
+		}
+
+		List<Resultado<Optional<String>, ErroResponse>> results = HttpBatch.of(4, 2).call(requests, String.class);
+
+		assertThat(results).hasSize(12);
+		for (int i = 0; i < results.size(); i++) {
+			assertThat(results.get(i).isSucesso()).isTrue();
+			assertThat(results.get(i).getSucesso()).contains("n=" + i);
+		}
+		assertThat(this.maxByHost).hasSize(2);
+		assertThat(this.maxByHost.values()).allSatisfy(max -> assertThat(max).isBetween(1, 2));
+	}
+
+	@Test
+	void hostLentoNaoSeguraOsOutros() {
+		int port = this.server.getAddress().getPort();
+		List<Get> requests = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			requests.add(Get.builder().address("http://127.0.0.1:" + port).resource("/item").queryParam("n", i).build());
+		}
+		requests.add(Get.builder().address("http://localhost:" + port).resource("/item").queryParam("n", 8).build());
+
+		List<Integer> order = HttpBatch.of(2, 1).stream(requests, String.class)
+				.map(HttpBatch.Item::index)
+				.collect(Collectors.toList());
+
+		assertThat(order).hasSize(9);
+		assertThat(order.indexOf(8)).isLessThan(2);
+	}
+
+	@Test
+	void variavelFaltandoViraErroSemTravarOLote() {
+		String address = "http://127.0.0.1:" + this.server.getAddress().getPort();
+		List<Get> requests = List.of(
+				Get.builder().address(address).resource("/item").queryParam("n", 0).build(),
+				Get.builder().address(address).resource("/item/{id}").build(),
+				Get.builder().address(null).resource("/item").build());
+
+		List<Resultado<Optional<String>, ErroResponse>> results = assertTimeoutPreemptively(Duration.ofSeconds(10),
+				() -> HttpBatch.of(2, 2).call(requests, String.class));
+
+		assertThat(results.get(0).isSucesso()).isTrue();
+		assertThat(results.get(1).isErro()).isTrue();
+		assertThat(results.get(1).getErro().getPath()).isEqualTo(address);
+		assertThat(results.get(1).getErro().getStatus()).isEqualTo(500);
+		assertThat(results.get(2).isErro()).isTrue();
+		assertThat(results.get(2).getErro().getPath()).isNull();
+	}
+
+	@Test
+	void muitasFalhasSincronasNaoEstouramAPilha() {
+		// com coalesce a URL é montada já no callAsync: a falha volta num future pronto, na mesma thread
+		List<Get> requests = new ArrayList<>();
+		for (int i = 0; i < 20_000; i++) {
+			requests.add(Get.builder().address("http://127.0.0.1:1").resource("/item/{id}").coalesce(true).build());
+		}
+
+		List<Resultado<Optional<String>, ErroResponse>> results = assertTimeoutPreemptively(Duration.ofSeconds(30),
+				() -> HttpBatch.of(1, 1).call(requests, String.class));
+
+		assertThat(results).hasSize(20_000).allSatisfy(result -> assertThat(result.isErro()).isTrue());
+	}
+
+}
@@ -0,0 +1,242 @@
+package com.sulimann.restclient.utils.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sulimann.restclient.configs.HttpClientProperties;
+import com.sulimann.restclient.configs.HttpClientProperties.ThreadMode;
+import com.sun.net.httpserver.HttpServer;
+
+class HttpHedgingTest {
+
+	private static final AtomicInteger HOSTS = new AtomicInteger();
+
+	private HttpServer server;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.setExecutor(Executors.newCachedThreadPool());
+		this.server.createContext("/item", exchange -> {
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			byte[] body = exchange.getRequestURI().getQuery().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=UTF-8");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		this.server.start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		this.server.stop(0);
+		HttpAsyncExecutor.install(HttpAsyncExecutor.create(new HttpClientProperties.Async()));
+	}
+
+	@Test
+	void orcamentoGanhaFracaoPorChamadaELimitaARajada() {
+		HttpClientProperties.Hedge properties = new HttpClientProperties.Hedge();
+		properties.setBudgetRatio(0.5);
+		properties.setBudgetBurst(2);
+		HostHedgeTracker tracker = new HostHedgeTracker(properties);
+
+		tracker.onRequest();
+		assertThat(tracker.tryHedge()).isFalse();
+		tracker.onRequest();
+		assertThat(tracker.tryHedge()).isTrue();
+		assertThat(tracker.tryHedge()).isFalse();
+
+		for (int i = 0; i < 100; i++) {
+			tracker.onRequest();
+		}
+		assertThat(tracker.tryHedge()).isTrue();
+		assertThat(tracker.tryHedge()).isTrue();
+		assertThat(tracker.tryHedge()).isFalse();
+
+		HostHedgeTracker.Snapshot snapshot = tracker.snapshot();
+		assertThat(snapshot.requests()).isEqualTo(102);
+		assertThat(snapshot.hedgesFired()).isEqualTo(3);
+		assertThat(snapshot.budgetExhausted()).isEqualTo(3);
+	}
+
+	@Test
+	void esperaEhOPercentilLimitadoAoMinimoEMaximo() {
+		HttpClientProperties.Hedge properties = new HttpClientProperties.Hedge();
+		properties.setMinSamples(10);
+		properties.setWindow(10);
+		properties.setPercentile(90);
+		properties.setMinDelay(Duration.ofMillis(5));
+		properties.setMaxDelay(Duration.ofMillis(50));
+		HostHedgeTracker tracker = new HostHedgeTracker(properties);
+
+		for (int i = 1; i < 10; i++) {
+			tracker.record(TimeUnit.MILLISECONDS.toNanos(i * 2));
+		}
+		assertThat(tracker.delayNanos()).isEqualTo(-1);
+		tracker.record(TimeUnit.MILLISECONDS.toNanos(20));
+		assertThat(tracker.delayNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(18));
+
+		for (int i = 0; i < 10; i++) {
+			tracker.record(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		assertThat(tracker.delayNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+
+		for (int i = 0; i < 10; i++) {
+			tracker.record(TimeUnit.SECONDS.toNanos(1));
+		}
+		assertThat(tracker.delayNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+	}
+
+	@Test
+	void reservaVenceQuandoAOriginalDemora() throws Exception {
+		String primary = "http://" + host() + "/item";
+		String alternate = "http://reserva.test/item";
+		HostHedgeTracker tracker = prime(primary);
+
+		String value = HttpHedging.executeAsync(primary, alternate, url -> {
+			if (url.equals(primary)) {
+				sleep(2_000);
+				return "original";
+			}
+			return "reserva";
+		}).get(5, TimeUnit.SECONDS);
+
+		assertThat(value).isEqualTo("reserva");
+		assertThat(tracker.snapshot().hedgesFired()).isEqualTo(1);
+		assertThat(tracker.snapshot().hedgesWon()).isEqualTo(1);
+	}
+
+	@Test
+	void originalRapidaNaoDisparaReserva() throws Exception {
+		String primary = "http://" + host() + "/item";
+		HostHedgeTracker tracker = prime(primary);
+
+		String value = HttpHedging.executeAsync(primary, null, url -> "original").get(5, TimeUnit.SECONDS);
+		sleep(50);
+
+		assertThat(value).isEqualTo("original");
+		assertThat(tracker.snapshot().hedgesFired()).isZero();
+	}
+
+	@Test
+	void semOrcamentoAOriginalSegueSozinha() throws Exception {
+		String primary = "http://" + host() + "/item";
+		HostHedgeTracker tracker = HttpHedging.tracker(HttpHosts.of(primary));
+		for (int i = 0; i < 50; i++) {
+			tracker.record(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		AtomicInteger attempts = new AtomicInteger();
+
+		String value = HttpHedging.executeAsync(primary, null, url -> {
+			attempts.incrementAndGet();
+			sleep(100);
+			return "original";
+		}).get(5, TimeUnit.SECONDS);
+
+		assertThat(value).isEqualTo("original");
+		assertThat(attempts).hasValue(1);
+		assertThat(tracker.snapshot().budgetExhausted()).isEqualTo(1);
+	}
+
+	@Test
+	void falhaDaOriginalEsperaAReservaEPrevaleceQuandoAmbasFalham() throws Exception {
+		String primary = "http://" + host() + "/item";
+		String alternate = "http://reserva.test/item";
+		prime(primary);
+
+		String value = HttpHedging.executeAsync(primary, alternate, url -> {
+			if (url.equals(primary)) {
+				sleep(100);
+				throw new IllegalStateException("original");
+			}
+			sleep(200);
+			return "reserva";
+		}).get(5, TimeUnit.SECONDS);
+		assertThat(value).isEqualTo("reserva");
+
+		prime(primary);
+		CompletableFuture<String> bothFail = HttpHedging.executeAsync(primary, alternate, url -> {
+			if (url.equals(primary)) {
+				sleep(200);
+				throw new IllegalStateException("original");
+			}
+			throw new IllegalStateException("reserva");
+		});
+		assertThatThrownBy(() -> bothFail.get(5, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IllegalStateException.class)
+				.hasRootCauseMessage("original");
+	}
+
+	@Test
+	void hedgingComAgrupamentoOuCacheNaoTravaOExecutorLimitado() throws Exception {
+		HttpClientProperties.Async async = new HttpClientProperties.Async();
+		async.setMode(ThreadMode.PLATFORM);
+		async.setMaxThreads(2);
+		HttpAsyncExecutor.install(HttpAsyncExecutor.create(async));
+		String address = "http://127.0.0.1:" + this.server.getAddress().getPort();
+		HttpResponseCache cache = HttpResponseCache.create(1 << 20);
+
+		List<CompletableFuture<Optional<String>>> calls = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			calls.add(Get.builder().address(address).resource("/item").queryParam("agrupada", i)
+					.hedge(true).coalesce(true).build().callAsync(String.class));
+			calls.add(Get.builder().address(address).resource("/item").queryParam("cache", i)
+					.hedge(true).cache(cache).build().callAsync(String.class));
+		}
+
+		CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+		assertThat(calls).allSatisfy(call -> assertThat(call.join()).isPresent());
+	}
+
+	/**
+	 * Host exclusivo do teste, com latência conhecida e orçamento para exatamente uma reserva.
+	 */
+	private static HostHedgeTracker prime(String url) {
+		HostHedgeTracker tracker = HttpHedging.tracker(HttpHosts.of(url));
+		for (int i = 0; i < 50; i++) {
+			tracker.record(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		for (int i = 0; i < 20; i++) {
+			tracker.onRequest();
+		}
+		return tracker;
+	}
+
+	private static String host() {
+		return "hedge-" + HOSTS.incrementAndGet() + ".test";
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.sulimann.restclient.utils.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.sulimann.restclient.configs.HttpClientProperties;
+import com.sulimann.restclient.configs.HttpClientProperties.Transport;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HttpMetricsTest {
+
+	@Test
+	void gaugesDoPoolSoExistemNoHttp1() {
+		HttpClientProperties properties = new HttpClientProperties();
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		try (HttpConnectionPool pool = HttpConnectionPool.create(properties)) {
+			HttpMetrics.create(registry, pool);
+
+			assertThat(registry.find("restclient.http.pool.max").gauge()).isNotNull()
+					.satisfies(gauge -> assertThat(gauge.value()).isEqualTo(properties.getMaxTotal()));
+		}
+	}
+
+	@Test
+	void http2NaoRegistraGaugesDoPool() {
+		HttpClientProperties properties = new HttpClientProperties();
+		properties.setTransport(Transport.HTTP2);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		try (HttpConnectionPool pool = HttpConnectionPool.create(properties)) {
+			HttpMetrics.create(registry, pool);
+
+			assertThat(registry.find("restclient.http.pool.leased").gauge()).isNull();
+			assertThat(registry.find("restclient.http.pool.max").gauge()).isNull();
+			assertThat(registry.find("restclient.http.coalesced").functionCounter()).isNotNull();
+		}
+	}
+
+}
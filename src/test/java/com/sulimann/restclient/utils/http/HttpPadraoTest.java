@@ -0,0 +1,109 @@
+package com.sulimann.restclient.utils.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpServer;
+
+class HttpPadraoTest {
+
+	private HttpServer server;
+	private String address;
+	private final List<Recebida> recebidas = new CopyOnWriteArrayList<>();
+	private final AtomicInteger falhas = new AtomicInteger();
+
+	@BeforeEach
+	void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.setExecutor(Executors.newCachedThreadPool());
+		this.server.createContext("/pedidos", exchange -> {
+			byte[] body;
+			try (InputStream in = exchange.getRequestBody()) {
+				body = in.readAllBytes();
+			}
+			this.recebidas.add(new Recebida(exchange.getRequestMethod(),
+					exchange.getRequestHeaders().getFirst("Content-Type"), new String(body, StandardCharsets.UTF_8)));
+			int status = this.falhas.getAndDecrement() > 0 ? 503 : 200;
+			byte[] response = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(status, response.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(response);
+			}
+		});
+		this.server.start();
+		this.address = "http://127.0.0.1:" + this.server.getAddress().getPort();
+	}
+
+	@AfterEach
+	void stopServer() {
+		this.server.stop(0);
+	}
+
+	@Test
+	void corpoDoPostChegaInteiroComJsonUtf8PorPadrao() {
+		Pedido pedido = new Pedido("Ação ☕ 😀", "x".repeat(200_000));
+
+		Post.builder().address(this.address).resource("/pedidos").request(pedido).build().call(Map.class);
+
+		assertThat(this.recebidas).singleElement().satisfies(recebida -> {
+			assertThat(recebida.method()).isEqualTo("POST");
+			assertThat(recebida.contentType()).isEqualTo("application/json;charset=UTF-8");
+			assertThat(recebida.body()).isEqualTo(new Gson().toJson(pedido));
+		});
+	}
+
+	@Test
+	void contentTypeDoBuilderPrevalece() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.CONTENT_TYPE, "application/vnd.pedido+json");
+
+		Put.builder().address(this.address).resource("/pedidos").headers(headers)
+				.request(new Pedido("a", "b")).build().call(Map.class);
+
+		assertThat(this.recebidas).singleElement().satisfies(recebida -> {
+			assertThat(recebida.method()).isEqualTo("PUT");
+			assertThat(recebida.contentType()).isEqualTo("application/vnd.pedido+json");
+			assertThat(recebida.body()).isEqualTo("{\"cliente\":\"a\",\"observacao\":\"b\"}");
+		});
+	}
+
+	@Test
+	void novaTentativaReenviaOCorpoInteiro() {
+		this.falhas.set(2);
+		Pedido pedido = new Pedido("Ana", "y".repeat(50_000));
+
+		assertThat(Put.builder().address(this.address).resource("/pedidos").request(pedido)
+				.retry(RetryPolicy.of(3, Duration.ofMillis(1), Duration.ofMillis(1)))
+				.build().call(Map.class)).hasValue(Map.of("ok", true));
+
+		String expected = new Gson().toJson(pedido);
+		assertThat(this.recebidas).hasSize(3)
+				.allSatisfy(recebida -> {
+					assertThat(recebida.body()).isEqualTo(expected);
+					assertThat(recebida.contentType()).isEqualTo("application/json;charset=UTF-8");
+				});
+	}
+
+	record Pedido(String cliente, String observacao) {}
+
+	record Recebida(String method, String contentType, String body) {}
+
+}
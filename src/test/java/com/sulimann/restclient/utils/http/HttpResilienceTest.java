@@ -0,0 +1,120 @@
+package com.sulimann.restclient.utils.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.sulimann.restclient.exceptions.RestClientException;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HttpResilienceTest {
+
+	private HttpServer server;
+	private final AtomicInteger hits = new AtomicInteger();
+	private String address;
+	private String host;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.setExecutor(Executors.newCachedThreadPool());
+		this.server.createContext("/status", exchange -> {
+			this.hits.incrementAndGet();
+			String path = exchange.getRequestURI().getPath();
+			exchange.sendResponseHeaders(Integer.parseInt(path.substring(path.lastIndexOf('/') + 1)), -1);
+			exchange.close();
+		});
+		this.server.start();
+		this.address = "http://127.0.0.1:" + this.server.getAddress().getPort();
+		this.host = HttpHosts.of(this.address);
+	}
+
+	@AfterEach
+	void stopServer() {
+		this.server.stop(0);
+	}
+
+	@Test
+	void todo5xxNaoRepetivelViraRestClientException() {
+		for (int status : new int[] { 500, 501, 505 }) {
+			this.hits.set(0);
+			assertThatThrownBy(() -> call(status))
+					.isInstanceOfSatisfying(RestClientException.class, e -> {
+						assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_GATEWAY);
+						assertThat(e.toProblemDetail().getProperties())
+								.containsEntry("upstreamStatus", status)
+								.containsEntry("attempts", 1);
+					});
+			assertThat(this.hits).hasValue(1);
+		}
+	}
+
+	@Test
+	void quatroXxSegueComoHttpStatusCodeException() {
+		assertThatThrownBy(() -> call(404))
+				.isInstanceOfSatisfying(HttpClientErrorException.class,
+						e -> assertThat(e.getStatusCode().value()).isEqualTo(404));
+	}
+
+	@Test
+	void novasTentativasEFalhasViramContadores() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		HttpMetrics.create(registry).call(this.host, "/status", HttpMethod.GET);
+
+		assertThatThrownBy(() -> call(503))
+				.isInstanceOfSatisfying(RestClientException.class, e -> assertThat(e.toProblemDetail().getProperties())
+						.containsEntry("upstreamStatus", 503)
+						.containsEntry("attempts", 3));
+
+		assertThat(this.hits).hasValue(3);
+		assertThat(count(registry, "restclient.http.retries")).isEqualTo(2.0);
+		assertThat(count(registry, "restclient.http.circuit.failures")).isEqualTo(3.0);
+		assertThat(count(registry, "restclient.http.circuit.rejections")).isZero();
+	}
+
+	@Test
+	void circuitoAbertoRejeitaEContaRejeicao() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		HttpMetrics.create(registry).call(this.host, "/status", HttpMethod.GET);
+
+		for (int i = 0; i < 5; i++) {
+			assertThatThrownBy(() -> call(500)).isInstanceOf(RestClientException.class);
+		}
+		assertThatThrownBy(() -> call(500))
+				.isInstanceOfSatisfying(RestClientException.class,
+						e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+		assertThat(this.hits).hasValue(5);
+		assertThat(count(registry, "restclient.http.circuit.failures")).isEqualTo(5.0);
+		assertThat(count(registry, "restclient.http.circuit.rejections")).isEqualTo(1.0);
+	}
+
+	private void call(int status) {
+		Get.builder()
+				.address(this.address)
+				.resource("/status/{status}")
+				.variable("status", status)
+				.retry(RetryPolicy.of(3, Duration.ofMillis(1), Duration.ofMillis(1)))
+				.build()
+				.call(String.class);
+	}
+
+	private double count(SimpleMeterRegistry registry, String name) {
+		return registry.get(name).tag("host", this.host).functionCounter().count();
+	}
+
+}
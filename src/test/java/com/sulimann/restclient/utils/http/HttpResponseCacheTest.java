@@ -0,0 +1,208 @@
+package com.sulimann.restclient.utils.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.sulimann.restclient.exceptions.RestClientException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class HttpResponseCacheTest {
+
+	private static final String ETAG = "\"v1\"";
+
+	private HttpServer server;
+	private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+	private final AtomicInteger notModified = new AtomicInteger();
+	private String address;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.setExecutor(Executors.newCachedThreadPool());
+		this.server.createContext("/idioma", exchange -> {
+			count(exchange);
+			exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+			exchange.getResponseHeaders().add("Vary", "Accept-Language");
+			respond(exchange, exchange.getRequestHeaders().getFirst("Accept-Language"));
+		});
+		this.server.createContext("/versionado", exchange -> {
+			count(exchange);
+			exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+			exchange.getResponseHeaders().add("ETag", ETAG);
+			if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+				this.notModified.incrementAndGet();
+				exchange.sendResponseHeaders(304, -1);
+				exchange.close();
+				return;
+			}
+			respond(exchange, "versao 1");
+		});
+		this.server.createContext("/grande", exchange -> {
+			count(exchange);
+			exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+			respond(exchange, "x".repeat(2_000));
+		});
+		this.server.createContext("/indisponivel", exchange -> {
+			count(exchange);
+			exchange.sendResponseHeaders(503, -1);
+			exchange.close();
+		});
+		this.server.createContext("/quebrado", exchange -> {
+			count(exchange);
+			throw new IOException("conexão derrubada sem resposta");
+		});
+		this.server.start();
+		this.address = "http://127.0.0.1:" + this.server.getAddress().getPort();
+	}
+
+	@AfterEach
+	void stopServer() {
+		this.server.stop(0);
+	}
+
+	@Test
+	void varyGuardaUmaVariantePorValorDoCabecalho() {
+		HttpResponseCache cache = HttpResponseCache.create(1 << 20);
+
+		assertThat(call(cache, "/idioma", "pt-BR")).contains("pt-BR");
+		assertThat(call(cache, "/idioma", "en-US")).contains("en-US");
+		assertThat(call(cache, "/idioma", "pt-BR")).contains("pt-BR");
+		assertThat(call(cache, "/idioma", "en-US")).contains("en-US");
+
+		assertThat(this.hits.get("/idioma")).hasValue(2);
+		assertThat(cache.stats().hits()).isEqualTo(2);
+		assertThat(cache.stats().entries()).isEqualTo(2);
+	}
+
+	@Test
+	void entradaVencidaRevalidaEServeOCorpoGuardadoNo304() {
+		HttpResponseCache cache = HttpResponseCache.create(1 << 20);
+
+		assertThat(call(cache, "/versionado", null)).contains("versao 1");
+		assertThat(call(cache, "/versionado", null)).contains("versao 1");
+		assertThat(call(cache, "/versionado", null)).contains("versao 1");
+
+		assertThat(this.hits.get("/versionado")).hasValue(3);
+		assertThat(this.notModified).hasValue(2);
+		HttpResponseCache.Stats stats = cache.stats();
+		assertThat(stats.misses()).isEqualTo(1);
+		assertThat(stats.revalidations()).isEqualTo(2);
+		assertThat(stats.hits()).isEqualTo(2);
+	}
+
+	@Test
+	void remocaoLruRespeitaOLimiteDeBytes() {
+		HttpResponseCache cache = HttpResponseCache.create(6_000);
+
+		grande(cache, 1);
+		grande(cache, 2);
+		grande(cache, 1);
+		grande(cache, 3);
+
+		HttpResponseCache.Stats stats = cache.stats();
+		assertThat(stats.evictions()).isEqualTo(1);
+		assertThat(stats.entries()).isEqualTo(2);
+		assertThat(stats.bytes()).isLessThanOrEqualTo(stats.maxBytes());
+		assertThat(this.hits.get("/grande")).hasValue(3);
+
+		grande(cache, 1);
+		assertThat(this.hits.get("/grande")).hasValue(3);
+		grande(cache, 2);
+		assertThat(this.hits.get("/grande")).hasValue(4);
+	}
+
+	@Test
+	void respostaMaiorQueOCacheNaoEhGuardada() {
+		HttpResponseCache cache = HttpResponseCache.create(1_000);
+
+		grande(cache, 1);
+		grande(cache, 1);
+
+		assertThat(this.hits.get("/grande")).hasValue(2);
+		assertThat(cache.stats().entries()).isZero();
+		assertThat(cache.stats().bytes()).isZero();
+	}
+
+	@Test
+	void falhasDoGetComCachePassamPelasNovasTentativasEViram502() {
+		HttpResponseCache cache = HttpResponseCache.create(1 << 20);
+
+		assertThatThrownBy(() -> falha(cache, "/indisponivel"))
+				.isInstanceOfSatisfying(RestClientException.class, e -> {
+					assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_GATEWAY);
+					assertThat(e.toProblemDetail().getProperties())
+							.containsEntry("upstreamStatus", 503)
+							.containsEntry("attempts", 2);
+				});
+		assertThat(this.hits.get("/indisponivel")).hasValue(2);
+
+		assertThatThrownBy(() -> falha(cache, "/quebrado"))
+				.isInstanceOfSatisfying(RestClientException.class, e -> {
+					assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_GATEWAY);
+					assertThat(e.toProblemDetail().getProperties()).containsEntry("attempts", 2);
+				})
+				.hasCauseInstanceOf(ResourceAccessException.class);
+		assertThat(cache.stats().entries()).isZero();
+	}
+
+	private void falha(HttpResponseCache cache, String resource) {
+		Get.builder()
+				.address(this.address)
+				.resource(resource)
+				.cache(cache)
+				.retry(RetryPolicy.of(2, Duration.ofMillis(1), Duration.ofMillis(1)))
+				.build()
+				.call(String.class);
+	}
+
+	private Optional<String> call(HttpResponseCache cache, String resource, String language) {
+		HttpHeaders headers = new HttpHeaders();
+		if (language != null) {
+			headers.set(HttpHeaders.ACCEPT_LANGUAGE, language);
+		}
+		return Get.builder()
+				.address(this.address)
+				.resource(resource)
+				.headers(headers)
+				.cache(cache)
+				.build()
+				.call(String.class);
+	}
+
+	private void grande(HttpResponseCache cache, int n) {
+		Get.builder().address(this.address).resource("/grande").queryParam("n", n).cache(cache).build().call(String.class);
+	}
+
+	private void count(HttpExchange exchange) {
+		this.hits.computeIfAbsent(exchange.getRequestURI().getPath(), key -> new AtomicInteger()).incrementAndGet();
+	}
+
+	private static void respond(HttpExchange exchange, String text) throws IOException {
+		byte[] body = String.valueOf(text).getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=UTF-8");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+}
@@ -0,0 +1,156 @@
+package com.sulimann.restclient.utils.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+class HttpSingleFlightTest {
+
+	private static final AtomicInteger KEYS = new AtomicInteger();
+
+	@Test
+	void chamadasIdenticasSimultaneasCompartilhamUmaRequisicao() throws Exception {
+		String key = key();
+		AtomicInteger fetches = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		long coalescedBefore = HttpSingleFlight.coalesced();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<BufferedClientHttpResponse> first = executor.submit(() -> HttpSingleFlight.execute(key, () -> {
+				fetches.incrementAndGet();
+				await(release);
+				return response("compartilhada");
+			}));
+			waitUntilInFlight();
+			List<Future<BufferedClientHttpResponse>> others = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				others.add(executor.submit(() -> HttpSingleFlight.execute(key, () -> {
+					fetches.incrementAndGet();
+					return response("outra");
+				})));
+			}
+			while (HttpSingleFlight.coalesced() - coalescedBefore < 3) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+
+			assertThat(body(first.get(5, TimeUnit.SECONDS))).isEqualTo("compartilhada");
+			for (Future<BufferedClientHttpResponse> other : others) {
+				assertThat(body(other.get(5, TimeUnit.SECONDS))).isEqualTo("compartilhada");
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(fetches).hasValue(1);
+		assertThat(HttpSingleFlight.coalesced() - coalescedBefore).isEqualTo(3);
+	}
+
+	@Test
+	void falhaChegaATodosEAChaveEhLiberada() throws Exception {
+		String key = key();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<BufferedClientHttpResponse> first = executor.submit(() -> HttpSingleFlight.execute(key, () -> {
+				await(release);
+				throw new IllegalStateException("falhou");
+			}));
+			waitUntilInFlight();
+			long coalescedBefore = HttpSingleFlight.coalesced();
+			Future<BufferedClientHttpResponse> second = executor.submit(() -> HttpSingleFlight.execute(key, () -> response("outra")));
+			while (HttpSingleFlight.coalesced() == coalescedBefore) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+
+			assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+			assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+					.isInstanceOf(ExecutionException.class)
+					.hasCauseInstanceOf(IllegalStateException.class)
+					.hasRootCauseMessage("falhou");
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(body(HttpSingleFlight.execute(key, () -> response("nova")))).isEqualTo("nova");
+	}
+
+	@Test
+	void assincronoEncadeiaSemNovaRequisicaoEPropagaAFalha() throws Exception {
+		String key = key();
+		AtomicInteger fetches = new AtomicInteger();
+		CompletableFuture<BufferedClientHttpResponse> network = new CompletableFuture<>();
+
+		CompletableFuture<BufferedClientHttpResponse> first = HttpSingleFlight.executeAsync(key, () -> {
+			fetches.incrementAndGet();
+			return network;
+		});
+		CompletableFuture<BufferedClientHttpResponse> second = HttpSingleFlight.executeAsync(key, () -> {
+			fetches.incrementAndGet();
+			return CompletableFuture.completedFuture(response("outra"));
+		});
+		second.cancel(true);
+		network.complete(response("compartilhada"));
+
+		assertThat(body(first.get(5, TimeUnit.SECONDS))).isEqualTo("compartilhada");
+		assertThat(fetches).hasValue(1);
+
+		String failing = key();
+		CompletableFuture<BufferedClientHttpResponse> failed = HttpSingleFlight.executeAsync(failing,
+				() -> CompletableFuture.failedFuture(new IllegalStateException("falhou")));
+		assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IllegalStateException.class)
+				.hasRootCauseMessage("falhou");
+		CompletableFuture<BufferedClientHttpResponse> thrown = HttpSingleFlight.executeAsync(failing, () -> {
+			throw new IllegalArgumentException("síncrona");
+		});
+		assertThatThrownBy(() -> thrown.get(5, TimeUnit.SECONDS))
+				.hasCauseInstanceOf(IllegalArgumentException.class);
+		assertThat(body(HttpSingleFlight.executeAsync(failing, () -> CompletableFuture.completedFuture(response("nova")))
+				.get(5, TimeUnit.SECONDS))).isEqualTo("nova");
+	}
+
+	private static void waitUntilInFlight() throws InterruptedException {
+		while (HttpSingleFlight.inFlight() == 0) {
+			Thread.sleep(1);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static BufferedClientHttpResponse response(String body) {
+		return new BufferedClientHttpResponse(HttpStatus.OK, "OK", new HttpHeaders(), body.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String body(BufferedClientHttpResponse response) {
+		return new String(response.bodyBytes(), StandardCharsets.UTF_8);
+	}
+
+	private static String key() {
+		return "GET http://single-flight-" + KEYS.incrementAndGet() + ".test/item";
+	}
+
+}
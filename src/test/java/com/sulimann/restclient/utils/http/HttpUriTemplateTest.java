@@ -0,0 +1,110 @@
+package com.sulimann.restclient.utils.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+class HttpUriTemplateTest {
+
+	@Test
+	void normalizaBarrasEPreservaQueryDoRecurso() {
+		assertThat(expand("http://api.test/", "clientes/", Map.of(), Map.of())).isEqualTo("http://api.test/clientes");
+		assertThat(expand("http://api.test//", "/clientes?ativo=true", Map.of(), Map.of("pagina", 2)))
+				.isEqualTo("http://api.test/clientes?ativo=true&pagina=2");
+		assertThat(expand("http://api.test", null, Map.of(), Map.of())).isEqualTo("http://api.test");
+	}
+
+	@Test
+	void variavelEhCodificadaComoSegmentoDeCaminho() {
+		assertThat(expand("http://api.test", "/arquivos/{nome}", Map.of("nome", "a/b c?ção"), Map.of()))
+				.isEqualTo("http://api.test/arquivos/a%2Fb%20c%3F%C3%A7%C3%A3o");
+		assertThat(expand("http://api.test", "/{id}/{tipo}", Map.of("id", 7, "tipo", "GET"), Map.of()))
+				.isEqualTo("http://api.test/7/GET");
+		assertThat(expand("http://api.test", "/emoji/{valor}", Map.of("valor", "😀:@"), Map.of()))
+				.isEqualTo("http://api.test/emoji/%F0%9F%98%80:@");
+	}
+
+	@Test
+	void querySoDeixaOsNaoReservadosERepeteColecoes() {
+		Map<String, Object> query = new LinkedHashMap<>();
+		query.put("q", "a&b=c d");
+		query.put("ids", List.of(1, 2));
+		query.put("tags", new String[] { "x", "y" });
+		query.put("vazio", null);
+		query.put("modo", Modo.RAPIDO);
+
+		assertThat(expand("http://api.test", "/busca", Map.of(), query))
+				.isEqualTo("http://api.test/busca?q=a%26b%3Dc%20d&ids=1&ids=2&tags=x&tags=y&modo=RAPIDO");
+	}
+
+	@Test
+	void trechoFixoSoEscapaOQueNaoPodeEstarNaUri() {
+		assertThat(expand("http://api.test", "/relatórios anuais/%41", Map.of(), Map.of()))
+				.isEqualTo("http://api.test/relat%C3%B3rios%20anuais/%41");
+	}
+
+	@Test
+	void variavelFaltandoOuMalFormadaFalhaComMensagemClara() {
+		assertThatThrownBy(() -> expand("http://api.test", "/clientes/{id}", Map.of(), Map.of()))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Variável {id} não informada para http://api.test/clientes/");
+		assertThatThrownBy(() -> HttpUriTemplate.of("http://api.test", "/clientes/{id"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageStartingWith("Variável sem '}'");
+		assertThatThrownBy(() -> HttpUriTemplate.of("http://api.test", "/clientes/{ }"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageStartingWith("Variável sem nome");
+		assertThatThrownBy(() -> HttpUriTemplate.of(null, "/clientes"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Endereço da chamada não informado");
+	}
+
+	@Test
+	void mesmoEnderecoERecursoReaproveitamOTemplate() {
+		assertThat(HttpUriTemplate.of("http://cache.test", "/itens/{id}"))
+				.isSameAs(HttpUriTemplate.of("http://cache.test", "/itens/{id}"));
+	}
+
+	@Test
+	void hostEMedidoresFicamGuardadosParaAsUrlsDoTemplate() {
+		HttpUriTemplate template = HttpUriTemplate.of("http://user@medidores.test:8080/api", "/itens/{id}");
+		String url = template.expand(Map.of("id", 1), null);
+
+		assertThat(template.host(url)).isEqualTo("medidores.test:8080");
+		assertThat(template.host("http://reserva.test/api/itens/1")).isEqualTo("reserva.test");
+		assertThat(template.host("http://user@medidores.test:80801/api")).isEqualTo("medidores.test:80801");
+
+		HttpMetrics.CallMeters meters = template.meters(url, HttpMethod.GET);
+		assertThat(meters).isSameAs(template.meters(url, HttpMethod.GET))
+				.isSameAs(HttpMetrics.shared().call("medidores.test:8080", "/itens/{id}", HttpMethod.GET));
+		assertThat(template.meters(url, HttpMethod.PUT)).isNotSameAs(meters)
+				.isSameAs(HttpMetrics.shared().call("medidores.test:8080", "/itens/{id}", HttpMethod.PUT));
+		assertThat(template.meters("http://reserva.test/api/itens/1", HttpMethod.GET))
+				.isSameAs(HttpMetrics.shared().call("reserva.test", "/itens/{id}", HttpMethod.GET));
+	}
+
+	@Test
+	void enderecoComVariavelExtraiOHostDaUrl() {
+		HttpUriTemplate template = HttpUriTemplate.of("http://{regiao}.medidores.test", "/itens");
+		String url = template.expand(Map.of("regiao", "sul"), null);
+
+		assertThat(template.host(url)).isEqualTo("sul.medidores.test");
+		assertThat(template.meters(url, HttpMethod.GET))
+				.isSameAs(HttpMetrics.shared().call("sul.medidores.test", "/itens", HttpMethod.GET));
+	}
+
+	private static String expand(String address, String resource, Map<String, ?> variables, Map<String, ?> query) {
+		return HttpUriTemplate.of(address, resource).expand(variables, query);
+	}
+
+	enum Modo {
+		RAPIDO
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.sulimann.restclient.utils.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.google.gson.JsonSyntaxException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class JsonArrayIteratorTest {
+
+	private static final int TOTAL = 20_000;
+
+	private HttpServer server;
+	private String address;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.setExecutor(Executors.newCachedThreadPool());
+		this.server.createContext("/itens", exchange -> {
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, 0);
+			try (OutputStream body = exchange.getResponseBody()) {
+				body.write('[');
+				for (int i = 0; i < TOTAL; i++) {
+					body.write(((i > 0 ? "," : "") + "{\"id\":" + i + ",\"nome\":\"item-" + i + "\"}")
+							.getBytes(StandardCharsets.UTF_8));
+				}
+				body.write(']');
+			} catch (IOException e) {
+				// o cliente fechou a conexão antes do fim
+			}
+		});
+		this.server.createContext("/objeto", exchange -> respond(exchange, 200, "{\"id\":1}"));
+		this.server.createContext("/ausente", exchange -> respond(exchange, 404, "{\"erro\":\"não existe\"}"));
+		this.server.createContext("/invalido", exchange -> respond(exchange, 200, "[{\"id\":1},{\"id\":\"x\"},{\"id\":3}]"));
+		this.server.createContext("/truncado", exchange -> respond(exchange, 200, "[{\"id\":1},{\"id\":"));
+		this.server.start();
+		this.address = "http://127.0.0.1:" + this.server.getAddress().getPort();
+	}
+
+	@AfterEach
+	void stopServer() {
+		this.server.stop(0);
+	}
+
+	@Test
+	void fecharOStreamAntesDoFimDevolveAConexao() {
+		List<Item> primeiros;
+		try (Stream<Item> itens = get("/itens").callStreaming(Item.class)) {
+			assertThat(leased()).isEqualTo(1);
+			primeiros = itens.limit(3).toList();
+		}
+
+		assertThat(primeiros).extracting(Item::id).containsExactly(0, 1, 2);
+		assertThat(leased()).isZero();
+	}
+
+	@Test
+	void streamConsumidoAteOFimDevolveAConexao() {
+		try (Stream<Item> itens = get("/itens").callStreaming(Item.class)) {
+			assertThat(itens.count()).isEqualTo(TOTAL);
+			assertThat(leased()).isZero();
+		}
+		assertThat(get("/itens").callStreaming(Item.class, item -> {})).isEqualTo(TOTAL);
+		assertThat(leased()).isZero();
+	}
+
+	@Test
+	void corpoQueNaoEhArrayFalhaComMensagemClara() {
+		try (Stream<Item> itens = get("/objeto").callStreaming(Item.class)) {
+			assertThatThrownBy(itens::toList).isInstanceOf(JsonSyntaxException.class)
+					.hasMessage("Esperado um array JSON mas era BEGIN_OBJECT em $");
+		}
+		assertThat(leased()).isZero();
+
+		assertThatThrownBy(() -> get("/objeto").callStreaming(Item.class, item -> {}))
+				.isInstanceOf(JsonSyntaxException.class).hasMessageStartingWith("Esperado um array JSON");
+		assertThat(leased()).isZero();
+	}
+
+	@Test
+	void statusDeErroPassaPeloTratamentoDeErros() {
+		assertThatThrownBy(() -> get("/ausente").callStreaming(Item.class))
+				.isInstanceOfSatisfying(HttpClientErrorException.class, e -> {
+					assertThat(e.getStatusCode().value()).isEqualTo(404);
+					assertThat(e.getResponseBodyAsString()).contains("não existe");
+				});
+		assertThat(leased()).isZero();
+
+		assertThatThrownBy(() -> get("/ausente").callStreaming(Item.class, item -> {}))
+				.isInstanceOf(HttpClientErrorException.class);
+		assertThat(leased()).isZero();
+	}
+
+	@Test
+	void elementoInvalidoNoMeioFechaAResposta() {
+		List<Item> lidos = new ArrayList<>();
+		try (Stream<Item> itens = get("/invalido").callStreaming(Item.class)) {
+			assertThatThrownBy(() -> itens.forEach(lidos::add)).isInstanceOf(JsonSyntaxException.class);
+		}
+		assertThat(lidos).extracting(Item::id).containsExactly(1);
+		assertThat(leased()).isZero();
+
+		lidos.clear();
+		assertThatThrownBy(() -> get("/truncado").callStreaming(Item.class, lidos::add))
+				.isInstanceOf(UncheckedIOException.class);
+		assertThat(lidos).extracting(Item::id).containsExactly(1);
+		assertThat(leased()).isZero();
+	}
+
+	private Get get(String resource) {
+		return Get.builder().address(this.address).resource(resource).build();
+	}
+
+	private static int leased() {
+		return HttpConnectionPool.shared().stats().leased();
+	}
+
+	private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+		byte[] body = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	record Item(int id, String nome) {}
+
+}
@@ -0,0 +1,129 @@
+package com.sulimann.restclient.utils.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.annotations.JsonAdapter;
+
+class Base64AdaptersTest {
+
+	private static final int CHUNK = Base64Adapters.CHUNK_BYTES;
+	private static final List<Integer> SIZES = List.of(0, 1, 2, 3, 56, 57, 58, CHUNK - 1, CHUNK, CHUNK + 1,
+			3 * CHUNK + 2, 200_000);
+
+	private final JSONUtilitiesV2 json = JSONUtilitiesV2.create().withParseByteArray();
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void byteArrayEmPedacosIgualAoEncoderMime() {
+		for (int size : SIZES) {
+			byte[] bytes = bytes(size);
+			String expected = this.json.gson().toJson(Base64.getMimeEncoder().encodeToString(bytes));
+
+			assertThat(this.json.toJson(bytes)).as("%d bytes", size).isEqualTo(expected);
+			assertThat(this.json.gson().toJson(bytes)).as("%d bytes", size).isEqualTo(expected);
+			StringWriter writer = new StringWriter();
+			this.json.toJson(bytes, writer);
+			assertThat(writer.toString()).isEqualTo(expected);
+			ByteArrayOutputStream stream = new ByteArrayOutputStream();
+			this.json.toJson(bytes, stream);
+			assertThat(stream.toString(StandardCharsets.US_ASCII)).isEqualTo(expected);
+
+			assertThat(this.json.fromJson(expected, byte[].class)).isEqualTo(bytes);
+		}
+	}
+
+	@Test
+	void camposStreamArquivoEBufferFazemIdaEVolta() throws IOException {
+		for (int size : SIZES) {
+			byte[] bytes = bytes(size);
+			Path file = Files.write(this.dir.resolve("origem-" + size + ".bin"), bytes);
+			ByteBuffer buffer = ByteBuffer.allocate(size + 4).put(new byte[2]).put(bytes).put(new byte[2]);
+			buffer.position(2).limit(2 + size);
+			Anexo anexo = new Anexo();
+			anexo.stream = new ByteArrayInputStream(bytes);
+			anexo.arquivo = file;
+			anexo.buffer = buffer;
+
+			String text = this.json.toJson(anexo);
+
+			String encoded = this.json.gson().toJson(Base64.getMimeEncoder().encodeToString(bytes));
+			assertThat(text).isEqualTo("{\"stream\":" + encoded + ",\"arquivo\":" + encoded + ",\"buffer\":" + encoded + "}");
+			assertThat(buffer.position()).isEqualTo(2);
+			assertThat(buffer.limit()).isEqualTo(2 + size);
+
+			Anexo lido = this.json.fromJson(text, Anexo.class);
+			try (InputStream stream = lido.stream) {
+				assertThat(stream.readAllBytes()).isEqualTo(bytes);
+			}
+			try {
+				assertThat(Files.readAllBytes(lido.arquivo)).isEqualTo(bytes);
+			} finally {
+				Files.deleteIfExists(lido.arquivo);
+			}
+			byte[] read = new byte[lido.buffer.remaining()];
+			lido.buffer.get(read);
+			assertThat(read).isEqualTo(bytes);
+		}
+	}
+
+	@Test
+	void comEscapeHtmlOTextoInteiroPassaPeloGson() {
+		JSONUtilitiesV2 htmlSafe = JSONUtilitiesV2.create();
+		Anexo anexo = new Anexo();
+		anexo.buffer = ByteBuffer.wrap(bytes(CHUNK + 1));
+		String encoded = Base64.getMimeEncoder().encodeToString(anexo.buffer.array());
+
+		assertThat(htmlSafe.toJson(anexo)).isEqualTo("{\"buffer\":" + htmlSafe.gson().toJson(encoded) + "}")
+				.contains("\\u003d");
+		assertThat(htmlSafe.fromJson(htmlSafe.toJson(anexo), Anexo.class).buffer).isEqualTo(anexo.buffer);
+	}
+
+	@Test
+	void nuloEBase64InvalidoNaLeitura() {
+		Anexo vazio = this.json.fromJson("{\"stream\":null,\"arquivo\":null,\"buffer\":null}", Anexo.class);
+		assertThat(vazio.stream).isNull();
+		assertThat(vazio.arquivo).isNull();
+		assertThat(vazio.buffer).isNull();
+		assertThat(this.json.toJson(new Anexo())).isEqualTo("{}");
+
+		assertThatThrownBy(() -> this.json.fromJson("\"=QQ\"", byte[].class)).isInstanceOf(JsonSyntaxException.class);
+		assertThatThrownBy(() -> this.json.fromJson("{\"buffer\":\"QQ=x\"}", Anexo.class))
+				.isInstanceOf(JsonSyntaxException.class);
+	}
+
+	private static byte[] bytes(int size) {
+		byte[] bytes = new byte[size];
+		new Random(size).nextBytes(bytes);
+		return bytes;
+	}
+
+	static class Anexo {
+		@JsonAdapter(Base64Adapters.InputStreamAdapter.class)
+		InputStream stream;
+		@JsonAdapter(Base64Adapters.PathAdapter.class)
+		Path arquivo;
+		@JsonAdapter(Base64Adapters.ByteBufferAdapter.class)
+		ByteBuffer buffer;
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.sulimann.restclient.utils.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+class EnumTableTest {
+
+	@Test
+	void escapeDeHtmlSegueOGsonQueEscreve() {
+		Gson htmlSafe = new GsonBuilder().registerTypeAdapterFactory(new JSONUtilitiesV2.EnumAdapterFactory()).create();
+		Gson raw = new GsonBuilder().registerTypeAdapterFactory(new JSONUtilitiesV2.EnumAdapterFactory())
+				.disableHtmlEscaping().create();
+
+		assertThat(htmlSafe.toJson(Marcador.TAG))
+				.isEqualTo("{\"name\":\"TAG\",\"value\":\"\\u003cb\\u003e \\u0026 \\u0027\"}");
+		assertThat(raw.toJson(Marcador.TAG)).isEqualTo("{\"name\":\"TAG\",\"value\":\"<b> & '\"}");
+		assertThat(htmlSafe.fromJson(htmlSafe.toJson(Marcador.TAG), Marcador.class)).isEqualTo(Marcador.TAG);
+	}
+
+	@Test
+	void propriedadeQueFalhaDerrubaAMontagemDaTabela() {
+		assertThatThrownBy(() -> EnumTable.of(Quebrado.class))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("descricao")
+				.hasRootCauseInstanceOf(UnsupportedOperationException.class);
+	}
+
+	enum Marcador {
+		TAG("<b> & '");
+
+		private final String value;
+
+		Marcador(String value) {
+			this.value = value;
+		}
+
+		public String getValue() {
+			return this.value;
+		}
+	}
+
+	enum Quebrado {
+		UM;
+
+		public String getDescricao() {
+			throw new UnsupportedOperationException("sem descrição");
+		}
+	}
+
+}
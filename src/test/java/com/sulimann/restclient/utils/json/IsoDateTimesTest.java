@@ -0,0 +1,130 @@
+package com.sulimann.restclient.utils.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IsoDateTimesTest {
+
+	private static final List<LocalDateTime> DATE_TIMES = List.of(
+			LocalDateTime.of(2024, 5, 10, 14, 30, 15, 123_456_789),
+			LocalDateTime.of(2024, 2, 29, 0, 0, 0),
+			LocalDateTime.of(1999, 12, 31, 23, 59, 59, 999_000_000),
+			LocalDateTime.of(1, 1, 1, 0, 0, 1),
+			LocalDateTime.of(999, 7, 4, 8, 5, 9),
+			LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+			LocalDateTime.of(10_000, 1, 1, 0, 0, 0),
+			LocalDateTime.of(-5, 3, 1, 12, 0, 0));
+
+	private TimeZone defaultZone;
+
+	@BeforeEach
+	void fixZone() {
+		this.defaultZone = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
+	}
+
+	@AfterEach
+	void restoreZone() {
+		TimeZone.setDefault(this.defaultZone);
+	}
+
+	@Test
+	void escritaIgualAosFormatadores() {
+		for (LocalDateTime dateTime : DATE_TIMES) {
+			assertThat(IsoDateTimes.formatLocalDate(dateTime.toLocalDate()))
+					.isEqualTo(IsoDateTimes.LOCAL_DATE.format(dateTime.toLocalDate()));
+			assertThat(IsoDateTimes.formatLocalDateTime(dateTime)).isEqualTo(IsoDateTimes.LOCAL_DATE_TIME.format(dateTime));
+			for (ZoneOffset offset : List.of(ZoneOffset.UTC, ZoneOffset.ofHours(-3), ZoneOffset.ofHoursMinutes(5, 45))) {
+				OffsetDateTime offsetDateTime = OffsetDateTime.of(dateTime, offset);
+				assertThat(IsoDateTimes.formatOffsetDateTime(offsetDateTime))
+						.isEqualTo(IsoDateTimes.OFFSET_DATE_TIME.format(offsetDateTime));
+			}
+		}
+	}
+
+	@Test
+	void leituraIgualAosFormatadores() {
+		for (LocalDateTime dateTime : DATE_TIMES.subList(0, 6)) {
+			String date = IsoDateTimes.LOCAL_DATE.format(dateTime);
+			String text = IsoDateTimes.LOCAL_DATE_TIME.format(dateTime);
+			assertThat(IsoDateTimes.parseLocalDate(date)).isEqualTo(LocalDate.parse(date, IsoDateTimes.LOCAL_DATE));
+			assertThat(IsoDateTimes.parseLocalDateTime(text)).isEqualTo(LocalDateTime.parse(text, IsoDateTimes.LOCAL_DATE_TIME));
+		}
+	}
+
+	/**
+	 * O resolvedor SMART do {@code DateTimeFormatter} aceita dia até 31 em qualquer mês e recua para o último dia.
+	 */
+	@Test
+	void diaAlemDoFimDoMesRecuaComoNoResolvedorSmart() {
+		for (String text : List.of("2023-02-29", "2023-02-31", "2024-02-30", "2024-04-31", "1900-02-29")) {
+			assertThat(IsoDateTimes.parseLocalDate(text)).isEqualTo(LocalDate.parse(text, IsoDateTimes.LOCAL_DATE));
+		}
+		assertThat(IsoDateTimes.parseLocalDate("2023-02-31")).isEqualTo(LocalDate.of(2023, 2, 28));
+		assertThat(IsoDateTimes.parseLocalDateTime("2024-02-30T10:00:00")).isEqualTo(LocalDateTime.of(2024, 2, 29, 10, 0));
+		assertThat(IsoDateTimes.localDate("2024", "4", "31")).isEqualTo(LocalDate.of(2024, 4, 30));
+
+		for (String invalid : List.of("2024-02-32", "2024-13-01", "2024-00-10", "0000-01-01", "24-01-01")) {
+			assertThatThrownBy(() -> LocalDate.parse(invalid, IsoDateTimes.LOCAL_DATE)).isInstanceOf(DateTimeParseException.class);
+			assertThatThrownBy(() -> IsoDateTimes.parseLocalDate(invalid)).isInstanceOf(DateTimeParseException.class);
+		}
+	}
+
+	@Test
+	void offsetAceitaIsoEOFormatoSemDoisPontos() {
+		OffsetDateTime expected = OffsetDateTime.of(2024, 5, 10, 14, 30, 15, 123_000_000, ZoneOffset.ofHours(-3));
+
+		assertThat(IsoDateTimes.parseOffsetDateTime("2024-05-10T14:30:15.123-03:00")).isEqualTo(expected);
+		assertThat(IsoDateTimes.parseOffsetDateTime("2024-05-10T14:30:15.123-0300")).isEqualTo(expected);
+		assertThat(IsoDateTimes.parseOffsetDateTime(IsoDateTimes.formatOffsetDateTime(expected))).isEqualTo(expected);
+		assertThat(IsoDateTimes.parseOffsetDateTime("2024-05-10T14:30:15Z"))
+				.isEqualTo(OffsetDateTime.of(2024, 5, 10, 14, 30, 15, 0, ZoneOffset.UTC));
+		assertThat(IsoDateTimes.parseOffsetDateTime("2024-05-10T14:30:15.123456789+05:45"))
+				.isEqualTo(OffsetDateTime.parse("2024-05-10T14:30:15.123456789+05:45"));
+	}
+
+	/**
+	 * São Paulo usa hora média local (-03:06:28 no {@code java.time}) até 1914, período em que o {@link TimeZone}
+	 * já usa -03:00; é o {@link TimeZone} que vale, como no {@link SimpleDateFormat}.
+	 */
+	@Test
+	void dateIgualAoSimpleDateFormatInclusiveAntesDe1600() throws ParseException {
+		SimpleDateFormat baseline = new SimpleDateFormat(IsoDateTimes.DATE_PATTERN);
+		for (String text : List.of("2024-05-10T14:30:15", "1600-01-01T00:00:00", "1900-01-01T00:00:00", "1582-10-10T12:00:00",
+				"1500-03-01T08:00:00", "0100-06-15T10:20:30", "2018-11-04T00:30:00", "2019-02-16T23:30:00")) {
+			Date date = IsoDateTimes.parseDate(text);
+			assertThat(date).isEqualTo(baseline.parse(text));
+			assertThat(IsoDateTimes.formatDate(date)).isEqualTo(baseline.format(date));
+		}
+		for (long millis = -20_000_000_000_000L; millis < 300_000_000_000_000L; millis += 7_777_777_777_777L) {
+			Date date = new Date(millis);
+			assertThat(IsoDateTimes.formatDate(date)).isEqualTo(baseline.format(date));
+		}
+	}
+
+	@Test
+	void dateSegueOSimpleDateFormatNoQueFogeDoFormato() throws ParseException {
+		SimpleDateFormat baseline = new SimpleDateFormat(IsoDateTimes.DATE_PATTERN);
+		for (String text : List.of("2024-05-10T14:30:15.123Z", "2024-05-10T14:30:15-0300", "2024-13-01T00:00:00",
+				"2024-02-30T10:00:00", "2024-05-10T24:00:00", "2024-5-1T1:2:3")) {
+			assertThat(IsoDateTimes.parseDate(text)).as(text).isEqualTo(baseline.parse(text));
+		}
+		assertThatThrownBy(() -> IsoDateTimes.parseDate("10/05/2024")).isInstanceOf(ParseException.class);
+	}
+
+}
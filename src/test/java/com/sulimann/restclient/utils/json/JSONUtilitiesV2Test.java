@@ -0,0 +1,106 @@
+package com.sulimann.restclient.utils.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.annotations.Expose;
+import com.sulimann.restclient.utils.json.JSONUtilitiesV2.BuildType;
+
+class JSONUtilitiesV2Test {
+
+	private static final Date DATA = new Date(1_715_351_415_000L);
+
+	@Test
+	void createEscreveComoUmGsonPadrao() {
+		Simples simples = new Simples();
+
+		assertThat(JSONUtilitiesV2.create().toJson(simples)).isEqualTo(new Gson().toJson(simples));
+		assertThat(JSONUtilitiesV2.create().toJson(simples))
+				.isEqualTo("{\"id\":7,\"nome\":\"Cliente \\u003cVIP\\u003e\",\"valores\":[1.5,2.0],"
+						+ "\"atributos\":{\"a\":\"1\"}}");
+	}
+
+	@Test
+	void configuracaoAlteraAPropriaInstancia() {
+		JSONUtilitiesV2 json = JSONUtilitiesV2.create();
+
+		json.withParseDate();
+
+		assertThat(json.toJson(new ComData()))
+				.isEqualTo("{\"data\":\"" + formatado(DATA) + "\",\"interno\":\"x\"}");
+	}
+
+	@Test
+	void lazySoValeDepoisDoBuilder() {
+		JSONUtilitiesV2 json = JSONUtilitiesV2.create();
+		Gson padrao = json.gson();
+
+		JSONUtilitiesV2 encadeada = json.withParseDate(BuildType.LAZY);
+
+		assertThat(encadeada).isSameAs(json);
+		assertThat(json.gson()).isSameAs(padrao);
+		json.builder();
+		assertThat(json.toJson(new ComData()))
+				.isEqualTo("{\"data\":\"" + formatado(DATA) + "\",\"interno\":\"x\"}");
+	}
+
+	@Test
+	void mesmaConfiguracaoCompartilhaOGson() {
+		Gson primeiro = JSONUtilitiesV2.create().withParseDate().withParseEnum().gson();
+		Gson segundo = JSONUtilitiesV2.create().withParseEnum().withParseDate().gson();
+
+		assertThat(primeiro).isSameAs(segundo);
+		assertThat(JSONUtilitiesV2.create().withParseDate().noParseDate().gson())
+				.isNotSameAs(JSONUtilitiesV2.create().gson());
+	}
+
+	/**
+	 * Antes, {@code noParseExpose()} desligava o Date, {@code withParseDate()} também desligava o Date e
+	 * {@code withParseLocalDateTime()} ligava o LocalDate.
+	 */
+	@Test
+	void cadaAlternanciaMexeSoNoProprioRecurso() {
+		JSONUtilitiesV2 json = JSONUtilitiesV2.create().withParseExpose().withParseDate();
+		assertThat(json.toJson(new ComData())).isEqualTo("{\"data\":\"" + formatado(DATA) + "\"}");
+
+		json.noParseExpose();
+		assertThat(json.toJson(new ComData()))
+				.isEqualTo("{\"data\":\"" + formatado(DATA) + "\",\"interno\":\"x\"}");
+
+		JSONUtilitiesV2 localDateTime = JSONUtilitiesV2.create().withParseLocalDateTime();
+		assertThat(localDateTime.toJson(new ComLocalDateTime()))
+				.isEqualTo("{\"quando\":\"2024-05-10T14:30:15\"}");
+	}
+
+	private static String formatado(Date date) {
+		return new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(date);
+	}
+
+	static class Simples {
+		int id = 7;
+		String nome = "Cliente <VIP>";
+		String vazio = null;
+		List<Double> valores = List.of(1.5, 2.0);
+		Map<String, String> atributos = new LinkedHashMap<>(Map.of("a", "1"));
+	}
+
+	static class ComData {
+		@Expose
+		Date data = DATA;
+		String interno = "x";
+	}
+
+	static class ComLocalDateTime {
+		LocalDateTime quando = LocalDateTime.of(2024, 5, 10, 14, 30, 15);
+	}
+
+}
@@ -0,0 +1,121 @@
+package com.sulimann.restclient.utils.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+class JsonBuffersTest {
+
+	private final JSONUtilitiesV2 json = JSONUtilitiesV2.create();
+
+	@Test
+	void streamUtf8IgualAoGsonComParDeSurrogatesNaFronteiraDoBloco() {
+		for (int prefix = JsonBuffers.UTF8_CHUNK_CHARS - 4; prefix <= JsonBuffers.UTF8_CHUNK_CHARS + 2; prefix++) {
+			String text = "a".repeat(prefix) + "😀ção" + "😀".repeat(3_000) + "\uD800fim\uDC00";
+
+			assertThat(utf8(text)).as("prefixo de %d", prefix)
+					.isEqualTo(this.json.gson().toJson(text).getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	void streamRecebeFlushENaoEhFechado() {
+		ClosingTracker stream = new ClosingTracker();
+
+		this.json.toJson(List.of("é", 1), stream);
+
+		assertThat(stream.toString(StandardCharsets.UTF_8)).isEqualTo("[\"é\",1]");
+		assertThat(stream.flushed).isTrue();
+		assertThat(stream.closed).isFalse();
+	}
+
+	@Test
+	void bufferDeTextoVoltaAoTamanhoInicialDepoisDeDocumentoGrande() {
+		this.json.toJson("x".repeat(10_000));
+		JsonBuffers.Text medio = JsonBuffers.text();
+		int retido = medio.capacity();
+		medio.release();
+
+		this.json.toJson("x".repeat(JsonBuffers.MAX_RETAINED_CHARS * 2));
+		JsonBuffers.Text depois = JsonBuffers.text();
+		try {
+			assertThat(retido).isGreaterThan(10_000).isLessThanOrEqualTo(JsonBuffers.MAX_RETAINED_CHARS);
+			assertThat(depois).isSameAs(medio);
+			assertThat(depois.capacity()).isEqualTo(JsonBuffers.INITIAL_CHARS);
+		} finally {
+			depois.release();
+		}
+	}
+
+	@Test
+	void toJsonAninhadoNaMesmaThreadUsaOutroBuffer() {
+		Envelope envelope = new Envelope();
+		envelope.conteudo = new Conteudo("😀 interno");
+		String expected = "{\"conteudo\":\"{\\\"texto\\\":\\\"😀 interno\\\"}\"}";
+
+		assertThat(this.json.toJson(envelope)).isEqualTo(expected);
+		assertThat(new String(utf8(envelope), StandardCharsets.UTF_8)).isEqualTo(expected);
+		assertThat(this.json.toJson(List.of(1, 2))).isEqualTo("[1,2]");
+	}
+
+	private byte[] utf8(Object value) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.json.toJson(value, out);
+		return out.toByteArray();
+	}
+
+	static class Envelope {
+		@JsonAdapter(AninhadoAdapter.class)
+		Conteudo conteudo;
+	}
+
+	record Conteudo(String texto) {}
+
+	/**
+	 * Escreve o valor como uma string com o JSON dele, montado por outro {@code toJson} na mesma thread.
+	 */
+	static class AninhadoAdapter extends TypeAdapter<Conteudo> {
+
+		@Override
+		public void write(JsonWriter out, Conteudo value) throws IOException {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			JSONUtilitiesV2 json = JSONUtilitiesV2.create();
+			json.toJson(value, bytes);
+			String text = json.toJson(value);
+			assertThat(bytes.toString(StandardCharsets.UTF_8)).isEqualTo(text);
+			out.value(text);
+		}
+
+		@Override
+		public Conteudo read(JsonReader in) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private static final class ClosingTracker extends ByteArrayOutputStream {
+
+		private boolean flushed;
+		private boolean closed;
+
+		@Override
+		public void flush() {
+			this.flushed = true;
+		}
+
+		@Override
+		public void close() {
+			this.closed = true;
+		}
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.sulimann.restclient.utils.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+
+class JsonLinesTest {
+
+	private final JSONUtilitiesV2 json = JSONUtilitiesV2.create();
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void escreveUmRegistroPorLinhaELeDeVolta() {
+		List<Registro> registros = List.of(new Registro(1, "primeiro"), new Registro(2, "linha\nquebrada"),
+				new Registro(3, "ação <b>"));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long escritos = this.json.toJsonLines(Stream.concat(registros.stream(), Stream.of((Registro) null)), out);
+
+		String texto = out.toString(StandardCharsets.UTF_8);
+		assertThat(escritos).isEqualTo(4);
+		assertThat(texto.split("\n", -1)).hasSize(5);
+		assertThat(texto).startsWith("{\"id\":1,\"nome\":\"primeiro\"}\n").endsWith("\nnull\n");
+		try (Stream<Registro> lidos = this.json.fromJsonLines(new ByteArrayInputStream(out.toByteArray()), Registro.class)) {
+			assertThat(lidos.toList()).containsExactly(registros.get(0), registros.get(1), registros.get(2), null);
+		}
+	}
+
+	@Test
+	void leituraEhSobDemandaEFalhaNaLinhaQuebrada() {
+		String texto = "{\"id\":1,\"nome\":\"a\"}\n{\"id\":2,\"nome\":\"b\"}\n{\"id\":3,";
+
+		try (Stream<Registro> lidos = this.json.fromJsonLines(new StringReader(texto), Registro.class)) {
+			assertThat(lidos.limit(2).map(Registro::id).toList()).containsExactly(1, 2);
+		}
+		assertThatThrownBy(() -> this.json.<Registro>fromJsonLines(new StringReader(texto), Registro.class).toList())
+				.isInstanceOf(JsonSyntaxException.class);
+	}
+
+	@Test
+	void arquivoParaleloDivideEmFimDeLinhaEMantemAOrdem() throws IOException {
+		Path arquivo = this.dir.resolve("registros.ndjson");
+		int total = 60_000;
+		this.json.toJsonLines(IntStream.range(0, total).mapToObj(i -> new Registro(i, "registro ção 😀 " + "x".repeat(i % 97))),
+				arquivo);
+		assertThat(Files.size(arquivo)).isGreaterThan(4 * JsonLines.MIN_SPLIT_BYTES);
+
+		try (Stream<Registro> sequencial = this.json.fromJsonLines(arquivo, Registro.class);
+				Stream<Registro> paralelo = this.json.fromJsonLinesParallel(arquivo, Registro.class)) {
+			List<Registro> esperado = sequencial.toList();
+			assertThat(paralelo.toList()).hasSize(total).isEqualTo(esperado);
+		}
+	}
+
+	@Test
+	void trechosTerminamEmQuebraDeLinha() throws IOException {
+		Path arquivo = this.dir.resolve("trechos.ndjson");
+		this.json.toJsonLines(IntStream.range(0, 40_000).mapToObj(i -> new Registro(i, "é".repeat(i % 50))), arquivo);
+		TypeAdapter<Registro> adapter = this.json.gson().getAdapter(Registro.class);
+
+		try (FileChannel channel = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			Spliterator<Registro> sufixo = JsonLines.parallel(this.json.gson(), channel, adapter).spliterator();
+			Spliterator<Registro> prefixo = sufixo.trySplit();
+			assertThat(prefixo).isNotNull();
+			assertThat(prefixo.estimateSize() + sufixo.estimateSize()).isEqualTo(Files.size(arquivo));
+
+			List<Integer> ids = new ArrayList<>();
+			prefixo.forEachRemaining(registro -> ids.add(registro.id()));
+			int metade = ids.size();
+			sufixo.forEachRemaining(registro -> ids.add(registro.id()));
+			assertThat(metade).isBetween(1, 39_999);
+			assertThat(ids).isEqualTo(IntStream.range(0, 40_000).boxed().toList());
+		}
+	}
+
+	@Test
+	void arquivoPequenoNaoEhDividido() throws IOException {
+		Path arquivo = this.dir.resolve("pequeno.ndjson");
+		this.json.toJsonLines(Stream.of(new Registro(1, "a"), new Registro(2, "b")), arquivo);
+
+		try (FileChannel channel = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			assertThat(JsonLines.parallel(this.json.gson(), channel, this.json.gson().getAdapter(Registro.class))
+					.spliterator().trySplit()).isNull();
+		}
+	}
+
+	record Registro(int id, String nome) {}
+
+}
@@ -0,0 +1,116 @@
+package com.sulimann.restclient.utils.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonSyntaxException;
+
+class JsonPathQueryTest {
+
+	private static final String PEDIDO = "{\"id\":7,\"cliente\":{\"nome\":\"Ana\",\"vip\":true},"
+			+ "\"itens\":[{\"sku\":\"A\",\"qtd\":2,\"preco\":10.5},{\"sku\":\"B\",\"qtd\":1,\"preco\":3}],"
+			+ "\"total\":12345678901234567890,\"obs\":null}";
+
+	private final JSONUtilitiesV2 json = JSONUtilitiesV2.create();
+
+	@Test
+	void extraiCaminhosComTiposNaturais() {
+		JsonPathQuery query = JsonPathQuery.of("$.id", "$.cliente.nome", "$['cliente']['vip']", "$.itens[1].sku",
+				"$.itens[*].preco", "$.total", "$.obs", "$.ausente");
+
+		JsonPathResult result = this.json.extract(PEDIDO, query);
+
+		assertThat(result.<Long>first("$.id")).isEqualTo(7L);
+		assertThat(result.<String>first("$.cliente.nome")).isEqualTo("Ana");
+		assertThat(result.<Boolean>first("$['cliente']['vip']")).isTrue();
+		assertThat(result.<String>first("$.itens[1].sku")).isEqualTo("B");
+		assertThat(result.all("$.itens[*].preco")).containsExactly(10.5, 3L);
+		assertThat(result.<BigDecimal>first("$.total")).isEqualTo(new BigDecimal("12345678901234567890"));
+		assertThat(result.contains("$.obs")).isTrue();
+		assertThat(result.<Object>first("$.obs")).isNull();
+		assertThat(result.contains("$.ausente")).isFalse();
+		assertThat(result.all("$.ausente")).isEmpty();
+	}
+
+	@Test
+	void caminhoTipadoEValorCompartilhadoPorDoisCaminhos() {
+		JsonPathQuery query = JsonPathQuery.of("$.itens[*]", "$.itens[0].qtd").with("$.itens[0].qtd", Integer.class)
+				.with("$.cliente", Cliente.class);
+
+		JsonPathResult result = this.json.extract(PEDIDO, query);
+
+		assertThat(result.<Integer>first("$.itens[0].qtd")).isEqualTo(2);
+		assertThat(result.<Map<String, Object>>all("$.itens[*]")).hasSize(2)
+				.first().satisfies(item -> assertThat(item).containsEntry("sku", "A"));
+		assertThat(result.<Cliente>first("$.cliente").nome).isEqualTo("Ana");
+	}
+
+	@Test
+	void paraAssimQueOsCaminhosAncoradosTerminam() {
+		String documento = "{\"id\":7,\"itens\":[{\"id\":1},{\"id\":2}],\"resto\":[" + "1,".repeat(100_000) + "isto não é JSON";
+		CountingReader reader = new CountingReader(documento);
+
+		JsonPathResult result = this.json.extract(reader, JsonPathQuery.of("$.id", "$.itens[*].id"));
+
+		assertThat(result.<Long>first("$.id")).isEqualTo(7L);
+		assertThat(result.all("$.itens[*].id")).containsExactly(1L, 2L);
+		assertThat(reader.read).isLessThan(documento.length() / 10);
+	}
+
+	@Test
+	void curingaNaRaizPrecisaDoDocumentoInteiro() {
+		assertThat(this.json.extract("{\"a\":1,\"b\":[true]}", JsonPathQuery.of("$.*")).all("$.*"))
+				.containsExactly(1L, List.of(true));
+		assertThatThrownBy(() -> this.json.extract("{\"a\":1,\"b\":x}", JsonPathQuery.of("$.*")))
+				.isInstanceOf(JsonSyntaxException.class);
+	}
+
+	@Test
+	void sintaxeNaoSuportadaFalhaAoCompilar() {
+		assertThatThrownBy(() -> JsonPathQuery.of("id")).hasMessageContaining("precisa começar com $");
+		assertThatThrownBy(() -> JsonPathQuery.of("$..id")).hasMessageContaining("busca recursiva");
+		assertThatThrownBy(() -> JsonPathQuery.of("$.itens[?(@.qtd>1)]")).hasMessageContaining("não é suportado");
+		assertThatThrownBy(() -> JsonPathQuery.of("$.itens[-1]")).hasMessageContaining("Índice negativo");
+		assertThatThrownBy(() -> this.json.extract(PEDIDO, JsonPathQuery.of("$.id")).first("$.outro"))
+				.hasMessageContaining("não faz parte da consulta");
+	}
+
+	static class Cliente {
+		String nome;
+		boolean vip;
+	}
+
+	private static final class CountingReader extends Reader {
+
+		private final Reader delegate;
+		private int read;
+
+		CountingReader(String text) {
+			this.delegate = new StringReader(text);
+		}
+
+		@Override
+		public int read(char[] buffer, int offset, int length) throws IOException {
+			int count = this.delegate.read(buffer, offset, length);
+			if (count > 0) {
+				this.read += count;
+			}
+			return count;
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.delegate.close();
+		}
+	}
+
+}
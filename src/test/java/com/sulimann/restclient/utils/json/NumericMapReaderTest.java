@@ -0,0 +1,112 @@
+package com.sulimann.restclient.utils.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.InstanceOfAssertFactories.LIST;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.ToNumberPolicy;
+
+class NumericMapReaderTest {
+
+	private final JSONUtilitiesV2 json = JSONUtilitiesV2.create();
+
+	@Test
+	void longOrDoubleMantemInteirosExatos() {
+		Map<String, Object> map = this.json.jsonToMap("{\"id\":9007199254740993,\"preco\":10.5,\"nome\":\"Ana\","
+				+ "\"ativo\":true,\"obs\":null,\"cliente\":{\"id\":-1}}", ToNumberPolicy.LONG_OR_DOUBLE);
+
+		assertThat(map.keySet()).containsExactly("id", "preco", "nome", "ativo", "obs", "cliente");
+		assertThat(map.values()).containsExactly(9007199254740993L, 10.5, "Ana", true, null, Map.of("id", -1L));
+		assertThat(this.json.jsonToMap("{\"id\":9007199254740993}").get("id")).isEqualTo(9007199254740992.0);
+	}
+
+	@Test
+	void arraysSoDeNumerosViramListasPrimitivas() {
+		String longs = LongStream.range(0, 20).mapToObj(Long::toString).collect(Collectors.joining(","));
+		Map<String, Object> map = this.json.jsonToMap("{\"ids\":[" + longs + "],\"notas\":[1.5,2.5,-0.25],\"vazio\":[]}",
+				ToNumberPolicy.LONG_OR_DOUBLE);
+
+		assertThat(map.get("ids")).isInstanceOf(PrimitiveLists.OfLong.class);
+		PrimitiveLists.OfLong ids = (PrimitiveLists.OfLong) map.get("ids");
+		assertThat(ids).hasSize(20).isEqualTo(LongStream.range(0, 20).boxed().toList());
+		assertThat(ids.getLong(19)).isEqualTo(19L);
+		assertThat(ids.toLongArray()).containsExactly(LongStream.range(0, 20).toArray());
+
+		assertThat(map.get("notas")).isInstanceOf(PrimitiveLists.OfDouble.class);
+		PrimitiveLists.OfDouble notas = (PrimitiveLists.OfDouble) map.get("notas");
+		assertThat(notas.getDouble(2)).isEqualTo(-0.25);
+		assertThat(notas.toDoubleArray()).containsExactly(1.5, 2.5, -0.25);
+		assertThat(notas).isEqualTo(List.of(1.5, 2.5, -0.25)).hasSameHashCodeAs(List.of(1.5, 2.5, -0.25));
+
+		assertThat((List<?>) map.get("vazio")).isEmpty();
+	}
+
+	@Test
+	void arrayMistoVoltaParaArrayListNaOrdem() {
+		String longs = IntStream.range(0, 10).mapToObj(Integer::toString).collect(Collectors.joining(","));
+		Map<String, Object> map = this.json.jsonToMap("{\"a\":[" + longs + ",2.5],\"b\":[1.5,2],\"c\":[1,\"x\",null,[2]]}",
+				ToNumberPolicy.LONG_OR_DOUBLE);
+
+		assertThat(map.get("a")).isNotInstanceOf(PrimitiveLists.OfLong.class);
+		assertThat(map.get("a")).asInstanceOf(LIST).hasSize(11).startsWith(0L, 1L).endsWith(9L, 2.5);
+		assertThat(map.get("b")).asInstanceOf(LIST).containsExactly(1.5, 2L);
+		assertThat(map.get("c")).asInstanceOf(LIST).containsExactly(1L, "x", null, List.of(2L));
+	}
+
+	@Test
+	void bigDecimalNaoUsaListasPrimitivas() {
+		Map<String, Object> map = this.json.jsonToMap("{\"valor\":0.1,\"valores\":[0.1,0.2]}", ToNumberPolicy.BIG_DECIMAL);
+
+		assertThat(map.get("valor")).isEqualTo(new BigDecimal("0.1"));
+		assertThat(map.get("valores")).isNotInstanceOf(PrimitiveLists.OfDouble.class);
+		assertThat(map.get("valores")).asInstanceOf(LIST).containsExactly(new BigDecimal("0.1"), new BigDecimal("0.2"));
+	}
+
+	@Test
+	void nomesRepetidosCompartilhamAMesmaString() {
+		Map<String, Object> map = this.json.jsonToMap("{\"itens\":[{\"sku\":\"A\"},{\"sku\":\"B\"}]}",
+				ToNumberPolicy.LONG_OR_DOUBLE);
+
+		List<?> itens = (List<?>) map.get("itens");
+		String primeira = ((Map<?, ?>) itens.get(0)).keySet().iterator().next().toString();
+		String segunda = ((Map<?, ?>) itens.get(1)).keySet().iterator().next().toString();
+		assertThat(segunda).isEqualTo("sku").isSameAs(primeira);
+	}
+
+	@Test
+	void listasPrimitivasSaoImutaveisEConferemOIndice() {
+		PrimitiveLists.OfLong ids = (PrimitiveLists.OfLong) this.json
+				.jsonToMap("{\"ids\":[1,2,3]}", ToNumberPolicy.LONG_OR_DOUBLE).get("ids");
+
+		assertThatThrownBy(() -> ids.add(4L)).isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> ids.set(0, 4L)).isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> ids.getLong(3)).isInstanceOf(IndexOutOfBoundsException.class)
+				.hasMessage("Índice 3 fora de [0, 3)");
+		assertThatThrownBy(() -> ids.get(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+	}
+
+	@Test
+	void vazioNuloEDocumentoInvalido() {
+		assertThat(this.json.jsonToMap(null, ToNumberPolicy.LONG_OR_DOUBLE)).isNull();
+		assertThat(this.json.jsonToMap("", ToNumberPolicy.LONG_OR_DOUBLE)).isNull();
+		assertThat(this.json.jsonToMap("null", ToNumberPolicy.LONG_OR_DOUBLE)).isNull();
+
+		assertThatThrownBy(() -> this.json.jsonToMap("[1,2]", ToNumberPolicy.LONG_OR_DOUBLE))
+				.isInstanceOf(JsonSyntaxException.class).hasMessageContaining("Esperado um objeto JSON");
+		assertThatThrownBy(() -> this.json.jsonToMap("{\"a\":1} {\"b\":2}", ToNumberPolicy.LONG_OR_DOUBLE))
+				.isInstanceOf(JsonSyntaxException.class).hasMessageContaining("não foi consumido inteiro");
+		assertThatThrownBy(() -> this.json.jsonToMap("{\"a\":[1,2", ToNumberPolicy.LONG_OR_DOUBLE))
+				.isInstanceOf(JsonSyntaxException.class);
+	}
+
+}